@@ -27,25 +27,35 @@ import baritone.api.utils.SettingsUtil;
  */
 public final class BaritoneAPI {
 
-    private static final IBaritoneProvider provider;
     private static final Settings settings;
 
     static {
         settings = new Settings();
         SettingsUtil.readAndApply(settings, SettingsUtil.SETTINGS_DEFAULT_NAME);
-
-        try {
-            provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
-        } catch (ReflectiveOperationException ex) {
-            throw new RuntimeException(ex);
-        }
     }
 
     public static IBaritoneProvider getProvider() {
-        return BaritoneAPI.provider;
+        return ProviderHolder.provider;
     }
 
     public static Settings getSettings() {
         return BaritoneAPI.settings;
     }
+
+    /**
+     * The provider needs a running game, while the settings don't. Keeping it in its own holder means that code which
+     * only reads settings (e.g. pathing outside of a running game) never creates it.
+     */
+    private static final class ProviderHolder {
+
+        private static final IBaritoneProvider provider;
+
+        static {
+            try {
+                provider = (IBaritoneProvider) Class.forName("baritone.BaritoneProvider").newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
 }
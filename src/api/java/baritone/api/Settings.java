@@ -542,6 +542,93 @@ public final class Settings {
      */
     public final Setting<Float> pathingMapLoadFactor = new Setting<>(0.75f);
 
+    /**
+     * Keep pathing nodes in parallel primitive arrays indexed by node id, instead of allocating a PathNode object
+     * for every position considered
+     * <p>
+     * Creates far less garbage on very long searches, at the cost of an extra indirection per node access. Works with
+     * {@link #incrementalReplanning} the same as the default node map. Not used when {@link #pathingThreads} is more
+     * than 1.
+     */
+    public final Setting<Boolean> pathingNodeStore = new Setting<>(false);
+
+    /**
+     * How many threads a single path calculation may use. 1 is the normal search, anything more splits the nodes
+     * between that many threads (hash distributed A*)
+     * <p>
+     * Worth it for very long paths on machines with cores to spare. The paths it finds are about as good, but not
+     * always exactly the same as the single threaded ones.
+     */
+    public final Setting<Integer> pathingThreads = new Setting<>(1);
+
+    /**
+     * Keep the movements evaluated by each path calculation, and only evaluate them again near blocks and chunks that
+     * changed since. Makes replanning after the path gets blocked much cheaper in areas that are already searched.
+     * <p>
+     * Only used by the single threaded search, either node map.
+     */
+    public final Setting<Boolean> incrementalReplanning = new Setting<>(false);
+
+    /**
+     * The most nodes to keep the movements of for {@link #incrementalReplanning}. Each one takes about 300 bytes.
+     */
+    public final Setting<Integer> incrementalReplanningMaxNodes = new Setting<>(250000);
+
+    /**
+     * For goals far away, first plan a rough route through the cached chunks between here and there, chunk edge to
+     * chunk edge, then aim each path segment at a point along that route instead of straight at the goal.
+     * <p>
+     * Helps a lot when the straight line is blocked by something big, like an ocean or a mountain range, that the
+     * normal search would spend its whole time budget bumping into. Only uses chunks that are in the cache.
+     */
+    public final Setting<Boolean> hierarchicalPathing = new Setting<>(false);
+
+    /**
+     * How far along the rough route of {@link #hierarchicalPathing} each path segment is aimed
+     */
+    public final Setting<Integer> hierarchicalPathingSegmentLength = new Setting<>(192);
+
+    /**
+     * The most chunk edges {@link #hierarchicalPathing} will look at before giving up and pathing straight at the goal
+     */
+    public final Setting<Integer> hierarchicalPathingMaxPortals = new Setting<>(200000);
+
+    /**
+     * Goals made of at least this many block goals, like the ones the builder and mining make, are kept in a spatial
+     * index so that pathing doesn't have to go through every one of them for every node it considers
+     */
+    public final Setting<Integer> indexedGoalCompositeThreshold = new Setting<>(64);
+
+    /**
+     * Roughly how much memory the cached regions of a world can take up, in megabytes. When there's more than that,
+     * the regions that were used longest ago are saved and removed from memory, except for the ones around the player.
+     * <p>
+     * Set to 0 for no limit, in which case only {@link #pruneRegionsFromRAM} removes regions from memory.
+     */
+    public final Setting<Integer> cachedRegionsMaxMegabytes = new Setting<>(256);
+
+    /**
+     * Keep the packed block data of cached chunks off the Java heap, so that a big cache doesn't make garbage
+     * collection any slower. Applies to chunks as they're cached or read from disk from then on.
+     */
+    public final Setting<Boolean> cachedChunksOffHeap = new Setting<>(false);
+
+    /**
+     * Blocks whose positions are remembered in the cache, on top of the ones that always are, like chests and portals.
+     * Mining and getting to these also looks them up in the cache, so that they're found in chunks that aren't
+     * loaded. Loaded chunks are still scanned for them as well.
+     * <p>
+     * Chunks only start remembering a block once they're cached again after it's added. Don't add anything common,
+     * like stone, every position is stored.
+     */
+    public final Setting<List<Block>> trackedResourceBlocks = new Setting<>(new ArrayList<>(Arrays.asList(
+            Blocks.DIAMOND_ORE,
+            Blocks.DEEPSLATE_DIAMOND_ORE,
+            Blocks.EMERALD_ORE,
+            Blocks.DEEPSLATE_EMERALD_ORE,
+            Blocks.ANCIENT_DEBRIS
+    )));
+
     /**
      * How far are you allowed to fall onto solid ground (without a water bucket)?
      * 3 won't deal any damage. But if you just want to get down the mountain quickly and you have
@@ -622,6 +709,13 @@ public final class Settings {
      */
     public final Setting<Long> slowPathTimeoutMS = new Setting<>(40000L);
 
+    /**
+     * Time how long each type of movement takes to calculate the cost of, for
+     * {@link baritone.api.pathing.calc.IPathingMetrics#getNanosByType()}. Reading the clock for every movement makes
+     * pathing a bit slower, so only turn this on to measure.
+     */
+    public final Setting<Boolean> pathingMovementTimings = new Setting<>(false);
+
 
     /**
      * allows baritone to save bed waypoints when interacting with beds
@@ -650,12 +744,19 @@ public final class Settings {
     public final Setting<Boolean> pruneRegionsFromRAM = new Setting<>(true);
 
     /**
-     * The chunk packer queue can never grow to larger than this, if it does, the oldest chunks are discarded
+     * The chunk packer queue can never grow to larger than this, if it does, the chunks furthest from the player are discarded
      * <p>
-     * The newest chunks are kept, so that if you're moving in a straight line quickly then stop, your immediate render distance is still included
+     * The closest chunks are kept, so that if you're moving in a straight line quickly then stop, your immediate render distance is still included
      */
     public final Setting<Integer> chunkPackerQueueMaxSize = new Setting<>(2000);
 
+    /**
+     * How many threads pack chunks into the cache. Each one packs the queued chunk closest to the player next.
+     * <p>
+     * Only read when a world is loaded.
+     */
+    public final Setting<Integer> chunkPackerThreads = new Setting<>(2);
+
     /**
      * Fill in blocks behind you
      */
@@ -1123,6 +1224,12 @@ public final class Settings {
      */
     public final Setting<String> schematicFallbackExtension = new Setting<>("schematic");
 
+    /**
+     * Schematics with more blocks than this keep their block data in a memory mapped temporary file instead of on the
+     * heap. -1 to always keep it on the heap.
+     */
+    public final Setting<Integer> schematicMappedBlocks = new Setting<>(-1);
+
     /**
      * Distance to scan every tick for updates. Expanding this beyond player reach distance (i.e. setting it to 6 or above)
      * is only necessary in very large schematics where rescanning the whole thing is costly.
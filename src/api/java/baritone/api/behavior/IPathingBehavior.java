@@ -19,6 +19,7 @@ package baritone.api.behavior;
 
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.IPathingMetrics;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.path.IPathExecutor;
 
@@ -118,6 +119,11 @@ public interface IPathingBehavior extends IBehavior {
      */
     Optional<? extends IPathFinder> getInProgress();
 
+    /**
+     * @return What the most recently finished path calculation did, if there's been one
+     */
+    Optional<IPathingMetrics> getLastSearchMetrics();
+
     /**
      * @return The current path executor
      */
@@ -69,6 +69,16 @@ public interface ICachedWorld {
      */
     ArrayList<BlockPos> getLocationsOf(String block, int maximum, int centerX, int centerZ, int maxRegionDistanceSq);
 
+    /**
+     * @return How the chunk packers of this world are keeping up
+     */
+    IChunkPackerStats getPackerStats();
+
+    /**
+     * @return How the cached regions of this world are using memory
+     */
+    IRegionCacheStats getRegionCacheStats();
+
     /**
      * Reloads all of the cached regions in this world from disk. Anything that is not saved
      * will be lost. This operation does not execute in a new thread by default.
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.cache;
+
+/**
+ * How the chunk packers of a {@link ICachedWorld} are keeping up. All counts are since the world was loaded.
+ */
+public interface IChunkPackerStats {
+
+    /**
+     * @return How many chunks were queued for packing, not counting chunks that were already queued
+     */
+    long getQueued();
+
+    /**
+     * @return How many chunks were packed and stored in the cache
+     */
+    long getPacked();
+
+    /**
+     * @return How many queued chunks were discarded without being packed because the queue was full
+     */
+    long getDropped();
+
+    /**
+     * @return How many chunks are waiting to be packed right now
+     */
+    int getPending();
+
+    /**
+     * @return The average time from a chunk being queued to it being stored in the cache, in milliseconds
+     */
+    double getAverageLatencyMillis();
+
+    /**
+     * @return The longest time from a chunk being queued to it being stored in the cache, in milliseconds
+     */
+    long getMaxLatencyMillis();
+}
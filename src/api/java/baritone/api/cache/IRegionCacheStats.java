@@ -0,0 +1,54 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.cache;
+
+/**
+ * How the cached regions of a {@link ICachedWorld} are using memory. All counts are since the world was loaded.
+ */
+public interface IRegionCacheStats {
+
+    /**
+     * @return How many regions are in memory right now
+     */
+    int getResidentRegions();
+
+    /**
+     * @return Roughly how much memory the regions in memory take up right now, in bytes
+     */
+    long getResidentBytes();
+
+    /**
+     * @return How many times a region was looked up and was in memory
+     */
+    long getHits();
+
+    /**
+     * @return How many times a region was looked up and wasn't in memory
+     */
+    long getMisses();
+
+    /**
+     * @return How many regions were loaded from disk
+     */
+    long getLoads();
+
+    /**
+     * @return How many regions were removed from memory to stay within {@link baritone.api.Settings#cachedRegionsMaxMegabytes}
+     */
+    long getEvictions();
+}
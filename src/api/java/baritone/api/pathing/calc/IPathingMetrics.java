@@ -0,0 +1,77 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.calc;
+
+import java.util.Map;
+
+/**
+ * What a path search did and how long it took, for graphing over many searches to spot slow terrain and regressions.
+ * <p>
+ * Filled in as the search goes, so it only adds up once the search is finished.
+ */
+public interface IPathingMetrics {
+
+    /**
+     * @return How long the search took, in milliseconds
+     */
+    long getDurationMillis();
+
+    /**
+     * @return How long it took until the search had a path it could return, either to the goal or a segment towards
+     * it, in milliseconds. -1 if it never had one.
+     */
+    long getTimeToFirstSegmentMillis();
+
+    /**
+     * @return How many nodes were taken from the open set and expanded
+     */
+    int getNodesConsidered();
+
+    /**
+     * @return How many movements had their cost calculated
+     */
+    long getMovementsConsidered();
+
+    /**
+     * @return How many movements had their cost calculated, by the name of the type of movement, like
+     * {@code TRAVERSE_NORTH}
+     */
+    Map<String, Long> getMovementsConsideredByType();
+
+    /**
+     * @return How long calculating the costs of movements took, in nanoseconds, by the name of the type of movement.
+     * Empty unless {@link baritone.api.Settings#pathingMovementTimings} is on.
+     */
+    Map<String, Long> getNanosByType();
+
+    /**
+     * @return How many movements were skipped because they went into a chunk that isn't loaded
+     */
+    int getChunkBorderMisses();
+
+    /**
+     * @return The most nodes that were in the open set at once. For a search on several threads, this adds up the
+     * most of each thread.
+     */
+    int getPeakOpenSetSize();
+
+    /**
+     * @return How many nodes the search had seen by the end, every one that was ever in the open set
+     */
+    int getPeakNodeMapSize();
+}
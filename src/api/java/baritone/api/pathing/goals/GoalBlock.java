@@ -19,7 +19,7 @@ package baritone.api.pathing.goals;
 
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
-import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.api.utils.interfaces.IGoalBoundedPos;
 import net.minecraft.core.BlockPos;
 
 /**
@@ -27,7 +27,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author leijurv
  */
-public class GoalBlock implements Goal, IGoalRenderPos {
+public class GoalBlock implements Goal, IGoalBoundedPos {
 
     /**
      * The X block position of this goal
@@ -105,6 +105,11 @@ public class GoalBlock implements Goal, IGoalRenderPos {
         return new BlockPos(x, y, z);
     }
 
+    @Override
+    public int getGoalReach() {
+        return 0;
+    }
+
     public static double calculate(double xDiff, int yDiff, double zDiff) {
         double heuristic = 0;
 
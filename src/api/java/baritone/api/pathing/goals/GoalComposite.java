@@ -17,6 +17,8 @@
 
 package baritone.api.pathing.goals;
 
+import baritone.api.BaritoneAPI;
+
 import java.util.Arrays;
 
 /**
@@ -37,6 +39,17 @@ public class GoalComposite implements Goal {
         this.goals = goals;
     }
 
+    /**
+     * @param goals The goals, any one of which satisfies the composite
+     * @return A {@link GoalIndexedComposite} if there are at least {@link baritone.api.Settings#indexedGoalCompositeThreshold} goals, otherwise a plain one
+     */
+    public static GoalComposite of(Goal... goals) {
+        if (goals.length >= BaritoneAPI.getSettings().indexedGoalCompositeThreshold.value) {
+            return new GoalIndexedComposite(goals);
+        }
+        return new GoalComposite(goals);
+    }
+
     @Override
     public boolean isInGoal(int x, int y, int z) {
         for (Goal goal : goals) {
@@ -19,7 +19,7 @@ package baritone.api.pathing.goals;
 
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
-import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.api.utils.interfaces.IGoalBoundedPos;
 import net.minecraft.core.BlockPos;
 
 
@@ -28,7 +28,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author avecowa
  */
-public class GoalGetToBlock implements Goal, IGoalRenderPos {
+public class GoalGetToBlock implements Goal, IGoalBoundedPos {
 
     public final int x;
     public final int y;
@@ -45,6 +45,11 @@ public class GoalGetToBlock implements Goal, IGoalRenderPos {
         return new BlockPos(x, y, z);
     }
 
+    @Override
+    public int getGoalReach() {
+        return 2; // standing with your head right below it counts
+    }
+
     @Override
     public boolean isInGoal(int x, int y, int z) {
         int xDiff = x - this.x;
@@ -0,0 +1,238 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.api.pathing.goals;
+
+import baritone.api.BaritoneAPI;
+import baritone.api.utils.interfaces.IGoalBoundedPos;
+import net.minecraft.core.BlockPos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link GoalComposite} that keeps its goals in a grid of 16x16 columns, for when there are thousands of them.
+ * A* asks the goal about every node it considers, and going through every goal each time adds up.
+ * <p>
+ * {@link #isInGoal(int, int, int)} only looks at the goals in the columns around the position. {@link #heuristic(int, int, int)}
+ * looks at the columns in rings around the position, closest first, and stops once no goal further out could have a
+ * lower heuristic than the lowest found so far. Both give exactly what {@link GoalComposite} would. Only goals that are
+ * {@link IGoalBoundedPos} can be indexed, anything else is still checked every time.
+ */
+public class GoalIndexedComposite extends GoalComposite {
+
+    /**
+     * Goals that reach further than this aren't indexed, looking through every column they could be in wouldn't be
+     * any faster than checking them
+     */
+    private static final int MAX_INDEXED_REACH = 16;
+
+    private final Goal[] unindexed;
+
+    /**
+     * The indexed goals, sorted by column
+     */
+    private final Goal[] indexed;
+    private final int[] goalX;
+    private final int[] goalY;
+    private final int[] goalZ;
+    private final int[] reach;
+
+    /**
+     * The heuristic of each indexed goal at its own position, the least it can be anywhere
+     */
+    private final double[] offset;
+
+    /**
+     * The columns that have goals in them, sorted, and where each one starts in {@link #indexed}
+     */
+    private final long[] columns;
+    private final int[] columnStart;
+
+    private final int maxReach;
+    private final double minOffset;
+    private final int minColumnX;
+    private final int maxColumnX;
+    private final int minColumnZ;
+    private final int maxColumnZ;
+
+    public GoalIndexedComposite(Goal... goals) {
+        super(goals);
+        List<Goal> unindexed = new ArrayList<>();
+        List<IGoalBoundedPos> indexed = new ArrayList<>();
+        List<BlockPos> positions = new ArrayList<>();
+        for (Goal goal : goals) {
+            if (goal instanceof IGoalBoundedPos && ((IGoalBoundedPos) goal).getGoalReach() <= MAX_INDEXED_REACH) {
+                indexed.add((IGoalBoundedPos) goal);
+                positions.add(((IGoalBoundedPos) goal).getGoalPos());
+            } else {
+                unindexed.add(goal);
+            }
+        }
+        this.unindexed = unindexed.toArray(new Goal[0]);
+        Integer[] order = new Integer[indexed.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> column(positions.get(i).getX() >> 4, positions.get(i).getZ() >> 4)));
+        this.indexed = new Goal[order.length];
+        this.goalX = new int[order.length];
+        this.goalY = new int[order.length];
+        this.goalZ = new int[order.length];
+        this.reach = new int[order.length];
+        this.offset = new double[order.length];
+        long[] columns = new long[order.length];
+        int[] columnStart = new int[order.length + 1];
+        int numColumns = 0;
+        int maxReach = 0;
+        double minOffset = Double.MAX_VALUE;
+        int minColumnX = Integer.MAX_VALUE;
+        int maxColumnX = Integer.MIN_VALUE;
+        int minColumnZ = Integer.MAX_VALUE;
+        int maxColumnZ = Integer.MIN_VALUE;
+        for (int i = 0; i < order.length; i++) {
+            IGoalBoundedPos goal = indexed.get(order[i]);
+            BlockPos pos = positions.get(order[i]);
+            this.indexed[i] = (Goal) goal;
+            goalX[i] = pos.getX();
+            goalY[i] = pos.getY();
+            goalZ[i] = pos.getZ();
+            reach[i] = goal.getGoalReach();
+            offset[i] = this.indexed[i].heuristic(pos.getX(), pos.getY(), pos.getZ());
+            maxReach = Math.max(maxReach, reach[i]);
+            minOffset = Math.min(minOffset, offset[i]);
+            long column = column(pos.getX() >> 4, pos.getZ() >> 4);
+            if (numColumns == 0 || columns[numColumns - 1] != column) {
+                columns[numColumns] = column;
+                columnStart[numColumns] = i;
+                numColumns++;
+                minColumnX = Math.min(minColumnX, pos.getX() >> 4);
+                maxColumnX = Math.max(maxColumnX, pos.getX() >> 4);
+                minColumnZ = Math.min(minColumnZ, pos.getZ() >> 4);
+                maxColumnZ = Math.max(maxColumnZ, pos.getZ() >> 4);
+            }
+        }
+        columnStart[numColumns] = order.length;
+        this.columns = Arrays.copyOf(columns, numColumns);
+        this.columnStart = Arrays.copyOf(columnStart, numColumns + 1);
+        this.maxReach = maxReach;
+        this.minOffset = minOffset;
+        this.minColumnX = minColumnX;
+        this.maxColumnX = maxColumnX;
+        this.minColumnZ = minColumnZ;
+        this.maxColumnZ = maxColumnZ;
+    }
+
+    @Override
+    public boolean isInGoal(int x, int y, int z) {
+        if (columns.length > 0) {
+            for (int columnX = (x - maxReach) >> 4; columnX <= (x + maxReach) >> 4; columnX++) {
+                for (int columnZ = (z - maxReach) >> 4; columnZ <= (z + maxReach) >> 4; columnZ++) {
+                    int column = Arrays.binarySearch(columns, column(columnX, columnZ));
+                    if (column < 0) {
+                        continue;
+                    }
+                    for (int i = columnStart[column]; i < columnStart[column + 1]; i++) {
+                        if (Math.abs(x - goalX[i]) <= reach[i] && Math.abs(y - goalY[i]) <= reach[i] && Math.abs(z - goalZ[i]) <= reach[i]
+                                && indexed[i].isInGoal(x, y, z)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        for (Goal goal : unindexed) {
+            if (goal.isInGoal(x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public double heuristic(int x, int y, int z) {
+        double min = Double.MAX_VALUE;
+        for (Goal goal : unindexed) {
+            min = Math.min(min, goal.heuristic(x, y, z));
+        }
+        if (columns.length == 0) {
+            return min;
+        }
+        double costHeuristic = BaritoneAPI.getSettings().costHeuristic.value;
+        if (!(costHeuristic > 0)) {
+            // distance doesn't say anything about the heuristic, so nothing can be skipped
+            for (Goal goal : indexed) {
+                min = Math.min(min, goal.heuristic(x, y, z));
+            }
+            return min;
+        }
+        int columnX = x >> 4;
+        int columnZ = z >> 4;
+        int maxRing = Math.max(Math.max(columnX - minColumnX, maxColumnX - columnX), Math.max(columnZ - minColumnZ, maxColumnZ - columnZ));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every goal in this ring is at least this far away horizontally
+            int distance = ring == 0 ? 0 : (ring - 1) * 16 + 1;
+            if (minOffset + distance * costHeuristic >= min) {
+                break;
+            }
+            if (ring * 8 > columns.length) {
+                // the ring has more columns than there are columns with goals, so go through those instead
+                for (int column = 0; column < columns.length; column++) {
+                    int dx = Math.abs((int) (columns[column] >> 32) - columnX);
+                    int dz = Math.abs((int) columns[column] - columnZ);
+                    if (Math.max(dx, dz) >= ring) {
+                        min = heuristic(column, x, y, z, min, costHeuristic);
+                    }
+                }
+                break;
+            }
+            if (ring == 0) {
+                min = heuristic(columnX, columnZ, x, y, z, min, costHeuristic);
+                continue;
+            }
+            for (int d = -ring; d <= ring; d++) {
+                min = heuristic(columnX + d, columnZ - ring, x, y, z, min, costHeuristic);
+                min = heuristic(columnX + d, columnZ + ring, x, y, z, min, costHeuristic);
+            }
+            for (int d = -ring + 1; d < ring; d++) {
+                min = heuristic(columnX - ring, columnZ + d, x, y, z, min, costHeuristic);
+                min = heuristic(columnX + ring, columnZ + d, x, y, z, min, costHeuristic);
+            }
+        }
+        return min;
+    }
+
+    private double heuristic(int columnX, int columnZ, int x, int y, int z, double min, double costHeuristic) {
+        int column = Arrays.binarySearch(columns, column(columnX, columnZ));
+        return column < 0 ? min : heuristic(column, x, y, z, min, costHeuristic);
+    }
+
+    private double heuristic(int column, int x, int y, int z, double min, double costHeuristic) {
+        for (int i = columnStart[column]; i < columnStart[column + 1]; i++) {
+            int distance = Math.max(Math.abs(x - goalX[i]), Math.abs(z - goalZ[i]));
+            if (offset[i] + distance * costHeuristic < min) {
+                min = Math.min(min, indexed[i].heuristic(x, y, z));
+            }
+        }
+        return min;
+    }
+
+    private static long column(int columnX, int columnZ) {
+        return (long) columnX << 32 | (columnZ & 0xFFFFFFFFL);
+    }
+}
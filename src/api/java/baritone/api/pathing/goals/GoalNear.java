@@ -19,12 +19,12 @@ package baritone.api.pathing.goals;
 
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
-import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.api.utils.interfaces.IGoalBoundedPos;
 import it.unimi.dsi.fastutil.doubles.DoubleIterator;
 import it.unimi.dsi.fastutil.doubles.DoubleOpenHashSet;
 import net.minecraft.core.BlockPos;
 
-public class GoalNear implements Goal, IGoalRenderPos {
+public class GoalNear implements Goal, IGoalBoundedPos {
 
     private final int x;
     private final int y;
@@ -87,6 +87,11 @@ public class GoalNear implements Goal, IGoalRenderPos {
         return new BlockPos(x, y, z);
     }
 
+    @Override
+    public int getGoalReach() {
+        return (int) Math.ceil(Math.sqrt(rangeSq));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
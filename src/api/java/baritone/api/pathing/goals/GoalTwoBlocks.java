@@ -19,7 +19,7 @@ package baritone.api.pathing.goals;
 
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
-import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.api.utils.interfaces.IGoalBoundedPos;
 import net.minecraft.core.BlockPos;
 
 /**
@@ -28,7 +28,7 @@ import net.minecraft.core.BlockPos;
  *
  * @author leijurv
  */
-public class GoalTwoBlocks implements Goal, IGoalRenderPos {
+public class GoalTwoBlocks implements Goal, IGoalBoundedPos {
 
     /**
      * The X block position of this goal
@@ -73,6 +73,11 @@ public class GoalTwoBlocks implements Goal, IGoalRenderPos {
         return new BlockPos(x, y, z);
     }
 
+    @Override
+    public int getGoalReach() {
+        return 1;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -52,6 +52,14 @@ public class GoalXZ implements Goal {
         this.z = pos.z;
     }
 
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
     @Override
     public boolean isInGoal(int x, int y, int z) {
         return x == this.x && z == this.z;
@@ -18,14 +18,32 @@
 package baritone.api.schematic;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import net.minecraft.world.level.block.state.BlockState;
 
 public class CompositeSchematic extends AbstractSchematic {
 
+    /**
+     * The most cells {@link Index} splits the schematic into, the cells get bigger if it would need more
+     */
+    private static final long MAX_CELLS = 1 << 18;
+
     private final List<CompositeSchematicEntry> schematics;
     private CompositeSchematicEntry[] schematicArr;
 
+    /**
+     * Built on the first lookup after the entries change, then only read, so it's safe to use from several threads
+     */
+    private volatile Index index;
+
+    /**
+     * The most recent lookup. {@link #desiredState} is almost always called right after {@link #inSchematic} for the
+     * same position, so that looks the entry up once. Immutable, so threads looking up different positions at the same
+     * time only ever miss.
+     */
+    private volatile Lookup last;
+
     private void recalcArr() {
         schematicArr = schematics.toArray(new CompositeSchematicEntry[0]);
         for (CompositeSchematicEntry entry : schematicArr) {
@@ -33,6 +51,8 @@ public class CompositeSchematic extends AbstractSchematic {
             this.y = Math.max(y, entry.y + entry.schematic.heightY());
             this.z = Math.max(z, entry.z + entry.schematic.lengthZ());
         }
+        index = null;
+        last = null;
     }
 
     public CompositeSchematic(int x, int y, int z) {
@@ -47,19 +67,29 @@ public class CompositeSchematic extends AbstractSchematic {
     }
 
     private CompositeSchematicEntry getSchematic(int x, int y, int z, BlockState currentState) {
-        for (CompositeSchematicEntry entry : schematicArr) {
+        Lookup last = this.last;
+        if (last != null && last.x == x && last.y == y && last.z == z && last.currentState == currentState) {
+            return last.entry;
+        }
+        Index index = this.index;
+        if (index == null) {
+            this.index = index = new Index(schematicArr, this.x, this.y, this.z);
+        }
+        CompositeSchematicEntry found = null;
+        for (CompositeSchematicEntry entry : index.get(x, y, z)) {
             if (x >= entry.x && y >= entry.y && z >= entry.z &&
                     entry.schematic.inSchematic(x - entry.x, y - entry.y, z - entry.z, currentState)) {
-                return entry;
+                found = entry;
+                break;
             }
         }
-        return null;
+        this.last = new Lookup(x, y, z, currentState, found);
+        return found;
     }
 
     @Override
     public boolean inSchematic(int x, int y, int z, BlockState currentState) {
-        CompositeSchematicEntry entry = getSchematic(x, y, z, currentState);
-        return entry != null && entry.schematic.inSchematic(x - entry.x, y - entry.y, z - entry.z, currentState);
+        return getSchematic(x, y, z, currentState) != null;
     }
 
     @Override
@@ -73,8 +103,107 @@ public class CompositeSchematic extends AbstractSchematic {
 
     @Override
     public void reset() {
+        last = null;
         for (CompositeSchematicEntry entry : schematicArr) {
             entry.schematic.reset();
         }
     }
+
+    /**
+     * The entries split up into a grid of cells, each with the entries whose bounds overlap it, in the order they were
+     * put in so that the first one that has a position still wins
+     */
+    private static final class Index {
+
+        private static final CompositeSchematicEntry[] EMPTY = new CompositeSchematicEntry[0];
+
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int shift;
+        private final int cellsX;
+        private final int cellsY;
+        private final int cellsZ;
+        private final CompositeSchematicEntry[][] cells;
+
+        private Index(CompositeSchematicEntry[] entries, int maxX, int maxY, int maxZ) {
+            int minX = 0;
+            int minY = 0;
+            int minZ = 0;
+            for (CompositeSchematicEntry entry : entries) {
+                minX = Math.min(minX, entry.x);
+                minY = Math.min(minY, entry.y);
+                minZ = Math.min(minZ, entry.z);
+            }
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            int shift = 4;
+            while (cells(maxX - minX, shift) * cells(maxY - minY, shift) * cells(maxZ - minZ, shift) > MAX_CELLS) {
+                shift++;
+            }
+            this.shift = shift;
+            this.cellsX = (int) cells(maxX - minX, shift);
+            this.cellsY = (int) cells(maxY - minY, shift);
+            this.cellsZ = (int) cells(maxZ - minZ, shift);
+            List<List<CompositeSchematicEntry>> lists = new ArrayList<>(Collections.nCopies(cellsX * cellsY * cellsZ, null));
+            for (CompositeSchematicEntry entry : entries) {
+                int width = entry.schematic.widthX();
+                int height = entry.schematic.heightY();
+                int length = entry.schematic.lengthZ();
+                if (width <= 0 || height <= 0 || length <= 0) {
+                    continue;
+                }
+                for (int cy = (entry.y - minY) >> shift; cy <= (entry.y + height - 1 - minY) >> shift; cy++) {
+                    for (int cz = (entry.z - minZ) >> shift; cz <= (entry.z + length - 1 - minZ) >> shift; cz++) {
+                        for (int cx = (entry.x - minX) >> shift; cx <= (entry.x + width - 1 - minX) >> shift; cx++) {
+                            int cell = (cy * cellsZ + cz) * cellsX + cx;
+                            List<CompositeSchematicEntry> list = lists.get(cell);
+                            if (list == null) {
+                                list = new ArrayList<>(1);
+                                lists.set(cell, list);
+                            }
+                            list.add(entry);
+                        }
+                    }
+                }
+            }
+            this.cells = new CompositeSchematicEntry[lists.size()][];
+            for (int i = 0; i < cells.length; i++) {
+                List<CompositeSchematicEntry> list = lists.get(i);
+                cells[i] = list == null ? EMPTY : list.toArray(EMPTY);
+            }
+        }
+
+        private static long cells(int size, int shift) {
+            return Math.max(1, ((long) size + (1L << shift) - 1) >> shift);
+        }
+
+        private CompositeSchematicEntry[] get(int x, int y, int z) {
+            int cx = (x - minX) >> shift;
+            int cy = (y - minY) >> shift;
+            int cz = (z - minZ) >> shift;
+            if (x < minX || y < minY || z < minZ || cx >= cellsX || cy >= cellsY || cz >= cellsZ) {
+                return EMPTY;
+            }
+            return cells[(cy * cellsZ + cz) * cellsX + cx];
+        }
+    }
+
+    private static final class Lookup {
+
+        private final int x;
+        private final int y;
+        private final int z;
+        private final BlockState currentState;
+        private final CompositeSchematicEntry entry;
+
+        private Lookup(int x, int y, int z, BlockState currentState, CompositeSchematicEntry entry) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.currentState = currentState;
+            this.entry = entry;
+        }
+    }
 }
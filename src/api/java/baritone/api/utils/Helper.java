@@ -140,6 +140,9 @@ public interface Helper {
      * @param error   Whether to log as an error
      */
     default void logNotificationDirect(String message, boolean error) {
+        if (Minecraft.getInstance() == null) {
+            return;
+        }
         Minecraft.getInstance().execute(() -> BaritoneAPI.getSettings().notifier.value.accept(message, error));
     }
 
@@ -172,7 +175,9 @@ public interface Helper {
             component.append(Component.literal(" "));
         }
         Arrays.asList(components).forEach(component::append);
-        if (logAsToast) {
+        if (Minecraft.getInstance() == null) {
+            System.out.println(component.getString()); // nowhere else for it to go without a running game
+        } else if (logAsToast) {
             logToast(getPrefix(), component);
         } else {
             Minecraft.getInstance().execute(() -> BaritoneAPI.getSettings().logger.value.accept(component));
@@ -18,6 +18,7 @@
 package baritone.api.utils;
 
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.IPathingMetrics;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -26,15 +27,21 @@ public class PathCalculationResult {
 
     private final IPath path;
     private final Type type;
+    private final IPathingMetrics metrics;
 
     public PathCalculationResult(Type type) {
         this(type, null);
     }
 
     public PathCalculationResult(Type type, IPath path) {
+        this(type, path, null);
+    }
+
+    public PathCalculationResult(Type type, IPath path, IPathingMetrics metrics) {
         Objects.requireNonNull(type);
         this.path = path;
         this.type = type;
+        this.metrics = metrics;
     }
 
     public final Optional<IPath> getPath() {
@@ -45,6 +52,13 @@ public class PathCalculationResult {
         return this.type;
     }
 
+    /**
+     * @return What the search did to get this result, if it kept track
+     */
+    public final Optional<IPathingMetrics> getMetrics() {
+        return Optional.ofNullable(this.metrics);
+    }
+
     public enum Type {
         SUCCESS_TO_GOAL,
         SUCCESS_SEGMENT,
@@ -74,6 +74,9 @@ public class SettingsUtil {
     }
 
     public static void readAndApply(Settings settings, String settingsName) {
+        if (Minecraft.getInstance() == null) {
+            return; // no game directory to read from, settings stay at their defaults
+        }
         try {
             forEachLine(settingsByName(settingsName), line -> {
                 Matcher matcher = SETTING_PATTERN.matcher(line);
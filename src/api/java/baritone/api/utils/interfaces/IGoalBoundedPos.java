@@ -0,0 +1,32 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.api.utils.interfaces;
+
+/**
+ * A goal that can only be satisfied close to its position, and whose heuristic at any position is at least its
+ * heuristic at its own position plus {@link baritone.api.Settings#costHeuristic} for every block of horizontal distance
+ * along the longer axis. That's true of everything built on {@link baritone.api.pathing.goals.GoalBlock#calculate}, and
+ * it's what lets {@link baritone.api.pathing.goals.GoalIndexedComposite} skip the goals that are too far away to matter.
+ * Subclasses that change the heuristic or widen the goal need to keep it true.
+ */
+public interface IGoalBoundedPos extends IGoalRenderPos {
+
+    /**
+     * @return How far from {@link #getGoalPos()} a position can be, on any axis, and still be in the goal
+     */
+    int getGoalReach();
+}
@@ -0,0 +1,326 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.bench;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.InMemoryBlockSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic terrain for benchmarks. Every world is {@link #SIZE} by {@link #SIZE} blocks starting at 0, 0 and
+ * {@link #HEIGHT} blocks tall starting at y = 0. Everything outside of that is unloaded.
+ */
+public enum SyntheticWorld {
+
+    /**
+     * Gently rolling grass with tall grass and the occasional tree
+     */
+    PLAINS {
+        @Override
+        void generate(Volume v, Random rand) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    int h = 64 + (int) Math.round(2 * Math.sin(x / 23.0) + 2 * Math.cos(z / 17.0));
+                    v.fill(x, 1, z, h - 3, STONE);
+                    v.fill(x, h - 3, z, h, DIRT);
+                    v.set(x, h, z, GRASS_BLOCK);
+                    if (rand.nextInt(12) == 0) {
+                        v.set(x, h + 1, z, SHORT_GRASS);
+                    }
+                }
+            }
+            for (int i = 0; i < SIZE * SIZE / 400; i++) {
+                int x = 2 + rand.nextInt(SIZE - 4);
+                int z = 2 + rand.nextInt(SIZE - 4);
+                int ground = v.topSolid(x, z);
+                for (int dx = -2; dx <= 2; dx++) {
+                    for (int dz = -2; dz <= 2; dz++) {
+                        for (int y = ground + 3; y <= ground + 5; y++) {
+                            if (v.get(x + dx, y, z + dz) == AIR) {
+                                v.set(x + dx, y, z + dz, LEAVES);
+                            }
+                        }
+                    }
+                }
+                v.fill(x, ground + 1, z, ground + 5, LOG);
+            }
+        }
+    },
+
+    /**
+     * Solid stone with a single level maze of 2 wide, 2 high corridors, some of them with gravel ceilings
+     */
+    CAVE_MAZE {
+        @Override
+        void generate(Volume v, Random rand) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    v.fill(x, 1, z, HEIGHT, STONE);
+                }
+            }
+            int cells = SIZE / 4;
+            boolean[] visited = new boolean[cells * cells];
+            int[] stack = new int[cells * cells];
+            int depth = 0;
+            stack[depth++] = 0;
+            visited[0] = true;
+            carveCell(v, 0, 0);
+            while (depth > 0) {
+                int cell = stack[depth - 1];
+                int cx = cell % cells;
+                int cz = cell / cells;
+                int[] options = new int[4];
+                int count = 0;
+                if (cx > 0 && !visited[cell - 1]) {
+                    options[count++] = cell - 1;
+                }
+                if (cx < cells - 1 && !visited[cell + 1]) {
+                    options[count++] = cell + 1;
+                }
+                if (cz > 0 && !visited[cell - cells]) {
+                    options[count++] = cell - cells;
+                }
+                if (cz < cells - 1 && !visited[cell + cells]) {
+                    options[count++] = cell + cells;
+                }
+                if (count == 0) {
+                    depth--;
+                    continue;
+                }
+                int next = options[rand.nextInt(count)];
+                int nx = next % cells;
+                int nz = next / cells;
+                visited[next] = true;
+                stack[depth++] = next;
+                carveCell(v, nx, nz);
+                // knock down the wall between the two cells
+                for (int x = Math.min(cx, nx) * 4 + 1; x <= Math.max(cx, nx) * 4 + 2; x++) {
+                    for (int z = Math.min(cz, nz) * 4 + 1; z <= Math.max(cz, nz) * 4 + 2; z++) {
+                        v.fill(x, FLOOR + 1, z, FLOOR + 3, AIR);
+                    }
+                }
+            }
+            for (int i = 0; i < SIZE * SIZE / 64; i++) {
+                int x = rand.nextInt(SIZE);
+                int z = rand.nextInt(SIZE);
+                if (v.get(x, FLOOR + 2, z) == AIR) {
+                    v.set(x, FLOOR + 3, z, GRAVEL);
+                }
+            }
+        }
+
+        private void carveCell(Volume v, int cx, int cz) {
+            for (int x = cx * 4 + 1; x <= cx * 4 + 2; x++) {
+                for (int z = cz * 4 + 1; z <= cz * 4 + 2; z++) {
+                    v.fill(x, FLOOR + 1, z, FLOOR + 3, AIR);
+                }
+            }
+        }
+
+        private static final int FLOOR = 40;
+    },
+
+    /**
+     * Deep water over a sand and gravel floor, with a handful of small islands
+     */
+    OCEAN {
+        @Override
+        void generate(Volume v, Random rand) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    v.fill(x, 1, z, 40, STONE);
+                    v.fill(x, 40, z, 45, rand.nextInt(8) == 0 ? GRAVEL : SAND);
+                    v.fill(x, 45, z, 63, WATER);
+                }
+            }
+            island(v, SPAWN_OFFSET, SPAWN_OFFSET, 6);
+            island(v, SIZE - SPAWN_OFFSET, SIZE - SPAWN_OFFSET, 6);
+            for (int i = 0; i < 12; i++) {
+                island(v, rand.nextInt(SIZE), rand.nextInt(SIZE), 3 + rand.nextInt(8));
+            }
+        }
+
+        private void island(Volume v, int centerX, int centerZ, int radius) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    int dx = x - centerX;
+                    int dz = z - centerZ;
+                    if (dx * dx + dz * dz <= radius * radius) {
+                        v.fill(x, 45, z, 64, SAND);
+                        v.set(x, 64, z, GRASS_BLOCK);
+                    }
+                }
+            }
+        }
+    },
+
+    /**
+     * Netherrack with large open caverns over a lava sea, soul sand floors and glowstone on the ceilings
+     */
+    NETHER {
+        @Override
+        void generate(Volume v, Random rand) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    v.fill(x, 1, z, HEIGHT - 1, NETHERRACK);
+                    v.set(x, HEIGHT - 1, z, BEDROCK);
+                    for (int y = 24; y < 100; y++) {
+                        double density = Math.sin(x / 11.0) + Math.sin(z / 13.0) + Math.sin(y / 7.0) + Math.sin((x + z) / 19.0);
+                        if (density > 0.6) {
+                            v.set(x, y, z, y <= 31 ? LAVA : AIR);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < SIZE * SIZE / 16; i++) {
+                int x = rand.nextInt(SIZE);
+                int z = rand.nextInt(SIZE);
+                int y = 1 + rand.nextInt(HEIGHT - 2);
+                if (v.get(x, y, z) == NETHERRACK) {
+                    if (v.get(x, y + 1, z) == AIR) {
+                        v.set(x, y, z, SOUL_SAND);
+                    } else if (v.get(x, y - 1, z) == AIR) {
+                        v.set(x, y, z, GLOWSTONE);
+                    }
+                }
+            }
+        }
+    };
+
+    public static final int SIZE = 256;
+    public static final int HEIGHT = 128;
+
+    /**
+     * How far in from the corners the spawn and the goal are, so that searches don't spill out of the world
+     */
+    public static final int SPAWN_OFFSET = 32;
+
+    static {
+        // JMH initializes this class to parse the world parameter, before any benchmark setup has had a chance to run
+        Headless.bootstrap();
+    }
+
+    static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    static final BlockState BEDROCK = Blocks.BEDROCK.defaultBlockState();
+    static final BlockState STONE = Blocks.STONE.defaultBlockState();
+    static final BlockState DIRT = Blocks.DIRT.defaultBlockState();
+    static final BlockState GRASS_BLOCK = Blocks.GRASS_BLOCK.defaultBlockState();
+    static final BlockState SHORT_GRASS = Blocks.SHORT_GRASS.defaultBlockState();
+    static final BlockState LOG = Blocks.OAK_LOG.defaultBlockState();
+    static final BlockState LEAVES = Blocks.OAK_LEAVES.defaultBlockState();
+    static final BlockState GRAVEL = Blocks.GRAVEL.defaultBlockState();
+    static final BlockState SAND = Blocks.SAND.defaultBlockState();
+    static final BlockState WATER = Blocks.WATER.defaultBlockState();
+    static final BlockState LAVA = Blocks.LAVA.defaultBlockState();
+    static final BlockState NETHERRACK = Blocks.NETHERRACK.defaultBlockState();
+    static final BlockState SOUL_SAND = Blocks.SOUL_SAND.defaultBlockState();
+    static final BlockState GLOWSTONE = Blocks.GLOWSTONE.defaultBlockState();
+
+    abstract void generate(Volume v, Random rand);
+
+    public Volume create() {
+        Volume volume = new Volume();
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                volume.set(x, 0, z, BEDROCK);
+            }
+        }
+        generate(volume, new Random(ordinal() * 31L + 4129)); // same seed every time, so every run sees the same world
+        return volume;
+    }
+
+    /**
+     * The blocks of a synthetic world
+     */
+    public static final class Volume extends InMemoryBlockSource {
+
+        private Volume() {
+            super(0, 0, SIZE, SIZE, 0, HEIGHT);
+        }
+
+        int topSolid(int x, int z) {
+            for (int y = HEIGHT - 1; y >= 0; y--) {
+                if (get(x, y, z) != AIR) {
+                    return y;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return The lowest y in this column that has a solid block below it and two air blocks to stand in, or -1
+         */
+        public int standableY(int x, int z) {
+            for (int y = 1; y < HEIGHT - 1; y++) {
+                BlockState below = get(x, y - 1, z);
+                if (below != AIR && below.getFluidState().isEmpty() && get(x, y, z) == AIR && get(x, y + 1, z) == AIR) {
+                    return y;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return The closest place to stand to the specified column, searching outwards in rings
+         */
+        public BetterBlockPos standableNear(int x, int z) {
+            for (int radius = 0; radius < SIZE; radius++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    for (int dz = -radius; dz <= radius; dz++) {
+                        if (Math.max(Math.abs(dx), Math.abs(dz)) != radius || !contains(x + dx, z + dz)) {
+                            continue;
+                        }
+                        int y = standableY(x + dx, z + dz);
+                        if (y != -1) {
+                            return new BetterBlockPos(x + dx, y, z + dz);
+                        }
+                    }
+                }
+            }
+            throw new IllegalStateException("Nowhere to stand");
+        }
+
+        /**
+         * @param count How many positions to sample
+         * @param seed  The seed, so that every run samples the same positions
+         * @return Random positions that can be stood at
+         */
+        public List<BetterBlockPos> sampleStandable(int count, long seed) {
+            Random rand = new Random(seed);
+            List<BetterBlockPos> positions = new ArrayList<>(count);
+            for (int attempts = 0; positions.size() < count && attempts < count * 100; attempts++) {
+                int x = rand.nextInt(SIZE);
+                int z = rand.nextInt(SIZE);
+                int y = standableY(x, z);
+                if (y != -1) {
+                    positions.add(new BetterBlockPos(x, y, z));
+                }
+            }
+            return positions;
+        }
+
+        public BetterBlockPos spawn() {
+            return standableNear(SPAWN_OFFSET, SPAWN_OFFSET);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.PathCalculationResult;
+import baritone.bench.SyntheticWorld;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole searches from one corner of a synthetic world to the other. Timeouts are set high enough that every search
+ * ends at the goal, so every invocation does the same amount of work.
+ * <p>
+ * Besides the time per search, the nodes counter reports nodes considered per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarPathFinderBenchmark {
+
+    private static final long PRIMARY_TIMEOUT = 30000;
+    private static final long FAILURE_TIMEOUT = 60000;
+
+    @Param({"PLAINS", "CAVE_MAZE", "OCEAN", "NETHER"})
+    public SyntheticWorld world;
+
+    /**
+     * {@link AStarPathFinder}, {@link NodeStoreAStarPathFinder}, or {@link ParallelAStarPathFinder} with one thread
+     * per available processor
+     */
+    @Param({"object", "nodeStore", "parallel"})
+    public String finder;
+
+    private SyntheticWorld.Volume volume;
+    private BetterBlockPos start;
+    private Goal goal;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        volume = world.create();
+        start = volume.spawn();
+        goal = new GoalXZ(SyntheticWorld.SIZE - SyntheticWorld.SPAWN_OFFSET, SyntheticWorld.SIZE - SyntheticWorld.SPAWN_OFFSET);
+    }
+
+    @Benchmark
+    public PathCalculationResult calculate(Nodes nodes) {
+        CalculationContext context = new CalculationContext(volume);
+        Favoring favoring = new Favoring(null, context);
+        AbstractNodeCostSearch search;
+        switch (finder) {
+            case "nodeStore":
+                search = new NodeStoreAStarPathFinder(start, start.x, start.y, start.z, goal, favoring, context);
+                break;
+            case "parallel":
+                search = new ParallelAStarPathFinder(start, start.x, start.y, start.z, goal, favoring, context, Runtime.getRuntime().availableProcessors());
+                break;
+            default:
+                search = new AStarPathFinder(start, start.x, start.y, start.z, goal, favoring, context);
+                break;
+        }
+        PathCalculationResult result = search.calculate(PRIMARY_TIMEOUT, FAILURE_TIMEOUT);
+        result.getPath().ifPresent(path -> nodes.nodes += path.getNumNodesConsidered());
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.PathNode;
+import baritone.pathing.calc.PathNodeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills an open set, decreases the key of half of the nodes, then drains it, the same access pattern as A*
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenSetBenchmark {
+
+    private static final Goal NO_GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return 0;
+        }
+    };
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private double[] costs;
+    private double[] decreased;
+    private PathNode[] nodes;
+    private PathNodeStore store;
+    private int[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random rand = new Random(4129);
+        costs = new double[size];
+        decreased = new double[size];
+        nodes = new PathNode[size];
+        store = new PathNodeStore(NO_GOAL, size, 0.75f);
+        ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            costs[i] = rand.nextDouble() * 1000;
+            decreased[i] = costs[i] * rand.nextDouble();
+            nodes[i] = new PathNode(i, 0, 0, NO_GOAL);
+            ids[i] = store.getOrCreate(i, 0, 0, BetterBlockPos.longHash(i, 0, 0));
+        }
+    }
+
+    @Benchmark
+    public double binaryHeap() {
+        BinaryHeapOpenSet set = new BinaryHeapOpenSet();
+        for (int i = 0; i < size; i++) {
+            nodes[i].combinedCost = costs[i];
+            set.insert(nodes[i]);
+        }
+        for (int i = 0; i < size; i += 2) {
+            nodes[i].combinedCost = decreased[i];
+            set.update(nodes[i]);
+        }
+        double sum = 0;
+        while (!set.isEmpty()) {
+            sum += set.removeLowest().combinedCost;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double intBinaryHeap() {
+        IntBinaryHeapOpenSet set = new IntBinaryHeapOpenSet(store);
+        for (int i = 0; i < size; i++) {
+            store.setCombinedCost(ids[i], costs[i]);
+            set.insert(ids[i]);
+        }
+        for (int i = 0; i < size; i += 2) {
+            store.setCombinedCost(ids[i], decreased[i]);
+            set.update(ids[i]);
+        }
+        double sum = 0;
+        while (!set.isEmpty()) {
+            sum += store.combinedCost(set.removeLowest());
+        }
+        return sum;
+    }
+}
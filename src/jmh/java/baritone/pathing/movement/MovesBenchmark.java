@@ -0,0 +1,82 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.bench.SyntheticWorld;
+import baritone.utils.pathing.MutableMoveResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of each {@link Moves} from positions that can be stood at in a synthetic world
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovesBenchmark {
+
+    private static final int POSITIONS = 1024;
+
+    @Param({"PLAINS", "CAVE_MAZE", "OCEAN", "NETHER"})
+    public SyntheticWorld world;
+
+    @Param // every move
+    public Moves moves;
+
+    private CalculationContext context;
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private final MutableMoveResult res = new MutableMoveResult();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticWorld.Volume volume = world.create();
+        context = new CalculationContext(volume);
+        List<BetterBlockPos> positions = volume.sampleStandable(POSITIONS, 4129);
+        if (positions.size() < POSITIONS) {
+            throw new IllegalStateException("Only found " + positions.size() + " positions to stand at in " + world);
+        }
+        xs = new int[POSITIONS];
+        ys = new int[POSITIONS];
+        zs = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            xs[i] = positions.get(i).x;
+            ys[i] = positions.get(i).y;
+            zs[i] = positions.get(i).z;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public double apply() {
+        double sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            res.reset();
+            moves.apply(context, xs[i], ys[i], zs[i], res);
+            sum += res.cost;
+        }
+        return sum;
+    }
+}
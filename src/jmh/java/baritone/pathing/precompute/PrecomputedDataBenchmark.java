@@ -0,0 +1,90 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.precompute;
+
+import baritone.bench.SyntheticWorld;
+import baritone.pathing.movement.CalculationContext;
+import net.minecraft.world.level.block.state.BlockState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * canWalkOn and canWalkThrough at random positions of a synthetic world, including the block lookup
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrecomputedDataBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"PLAINS", "CAVE_MAZE", "OCEAN", "NETHER"})
+    public SyntheticWorld world;
+
+    private CalculationContext context;
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new CalculationContext(world.create());
+        Random rand = new Random(4129);
+        xs = new int[LOOKUPS];
+        ys = new int[LOOKUPS];
+        zs = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            xs[i] = rand.nextInt(SyntheticWorld.SIZE);
+            ys[i] = rand.nextInt(SyntheticWorld.HEIGHT);
+            zs[i] = rand.nextInt(SyntheticWorld.SIZE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int canWalkOn() {
+        PrecomputedData data = context.precomputedData;
+        int count = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            BlockState state = context.get(xs[i], ys[i], zs[i]);
+            if (data.canWalkOn(context.bsi, xs[i], ys[i], zs[i], state)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int canWalkThrough() {
+        PrecomputedData data = context.precomputedData;
+        int count = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            BlockState state = context.get(xs[i], ys[i], zs[i]);
+            if (data.canWalkThrough(context.bsi, xs[i], ys[i], zs[i], state)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
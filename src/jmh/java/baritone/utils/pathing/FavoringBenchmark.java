@@ -0,0 +1,79 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.bench.SyntheticWorld;
+import baritone.pathing.calc.AStarPathFinder;
+import baritone.pathing.movement.CalculationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Favoring lookups with a previous path across plains, half of them on the path and half of them off it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FavoringBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    private Favoring favoring;
+    private long[] hashes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticWorld.Volume volume = SyntheticWorld.PLAINS.create();
+        CalculationContext context = new CalculationContext(volume);
+        BetterBlockPos start = volume.spawn();
+        IPath previous = new AStarPathFinder(start, start.x, start.y, start.z, new GoalXZ(SyntheticWorld.SIZE - SyntheticWorld.SPAWN_OFFSET, SyntheticWorld.SIZE - SyntheticWorld.SPAWN_OFFSET), new Favoring(null, context), context)
+                .calculate(30000, 60000)
+                .getPath()
+                .orElseThrow(() -> new IllegalStateException("No path across plains"));
+        favoring = new Favoring(previous, context);
+        List<BetterBlockPos> positions = previous.positions();
+        Random rand = new Random(4129);
+        hashes = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            if ((i & 1) == 0) {
+                hashes[i] = BetterBlockPos.longHash(positions.get(rand.nextInt(positions.size())));
+            } else {
+                hashes[i] = BetterBlockPos.longHash(rand.nextInt(SyntheticWorld.SIZE), rand.nextInt(SyntheticWorld.HEIGHT), rand.nextInt(SyntheticWorld.SIZE));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public double calculate() {
+        double sum = 0;
+        for (long hash : hashes) {
+            sum += favoring.calculate(hash);
+        }
+        return sum;
+    }
+}
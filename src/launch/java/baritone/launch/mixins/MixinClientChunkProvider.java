@@ -22,6 +22,7 @@ import baritone.utils.accessor.IClientChunkProvider;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
@@ -35,6 +36,9 @@ public class MixinClientChunkProvider implements IClientChunkProvider {
     @Shadow
     ClientLevel level;
 
+    @Unique
+    private static Field storageField;
+
     @Override
     public ClientChunkCache createThreadSafeCopy() {
         IChunkArray arr = extractReferenceArray();
@@ -49,13 +53,24 @@ public class MixinClientChunkProvider implements IClientChunkProvider {
 
     @Override
     public IChunkArray extractReferenceArray() {
+        Field field = storageField;
+        if (field == null) {
+            // looking through every field every time adds up when this is called every tick
+            field = findStorageField();
+            storageField = field;
+        }
+        try {
+            return (IChunkArray) field.get(this);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Unique
+    private static Field findStorageField() {
         for (Field f : ClientChunkCache.class.getDeclaredFields()) {
             if (IChunkArray.class.isAssignableFrom(f.getType())) {
-                try {
-                    return (IChunkArray) f.get(this);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
+                return f;
             }
         }
         throw new RuntimeException(Arrays.toString(ClientChunkCache.class.getDeclaredFields()));
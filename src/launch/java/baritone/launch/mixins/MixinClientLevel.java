@@ -0,0 +1,95 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package baritone.launch.mixins;
+
+import baritone.Baritone;
+import baritone.api.BaritoneAPI;
+import baritone.api.IBaritone;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.events.type.EventState;
+import baritone.api.utils.Pair;
+import baritone.cache.CachedChunk;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.multiplayer.prediction.BlockStatePredictionHandler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Collections;
+
+/**
+ * Block changes the server sends come with a {@link BlockChangeEvent} from {@link MixinClientPlayNetHandler}. This is
+ * for the ones the client makes itself: the blocks it predicts placing or breaking, and putting them back when the
+ * server disagrees.
+ */
+@Mixin(ClientLevel.class)
+public abstract class MixinClientLevel {
+
+    @Unique
+    private boolean syncingPredictions;
+
+    @Shadow
+    public abstract BlockStatePredictionHandler getBlockStatePredictionHandler();
+
+    @Inject(
+            method = "handleBlockChangedAck",
+            at = @At("HEAD")
+    )
+    private void preHandleBlockChangedAck(int sequence, CallbackInfo ci) {
+        syncingPredictions = true;
+    }
+
+    @Inject(
+            method = "handleBlockChangedAck",
+            at = @At("RETURN")
+    )
+    private void postHandleBlockChangedAck(int sequence, CallbackInfo ci) {
+        syncingPredictions = false;
+    }
+
+    @Inject(
+            method = "sendBlockUpdated",
+            at = @At("HEAD")
+    )
+    private void onBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        if (oldState == newState || !(syncingPredictions || getBlockStatePredictionHandler().isPredicting())) {
+            return;
+        }
+        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
+            if (ibaritone.getPlayerContext().world() == (Object) this) {
+                ibaritone.getGameEventHandler().onBlockChange(new BlockChangeEvent(
+                        new ChunkPos(pos),
+                        Collections.singletonList(new Pair<>(pos.immutable(), newState))
+                ));
+                // the event only has the new state, so breaking a block the cache keeps track of has to repack from here
+                if (Baritone.settings().repackOnAnyBlockChange.value
+                        && CachedChunk.isTracked(oldState.getBlock()) && !CachedChunk.isTracked(newState.getBlock())) {
+                    ibaritone.getGameEventHandler().onChunkEvent(
+                            new ChunkEvent(EventState.POST, ChunkEvent.Type.POPULATE_FULL, pos.getX() >> 4, pos.getZ() >> 4)
+                    );
+                }
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import baritone.api.utils.Pair;
 import baritone.cache.CachedChunk;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientCommonPacketListenerImpl;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.client.multiplayer.CommonListenerCookie;
 import net.minecraft.client.player.LocalPlayer;
@@ -37,11 +38,14 @@ import net.minecraft.network.protocol.game.*;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.state.BlockState;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -75,6 +79,15 @@ public abstract class MixinClientPlayNetHandler extends ClientCommonPacketListen
         }
     }*/
 
+    @Shadow
+    private ClientLevel level;
+
+    /**
+     * Whether the block update being handled removes a block whose position the cache keeps track of
+     */
+    @Unique
+    private boolean removesTracked;
+
     protected MixinClientPlayNetHandler(final Minecraft arg, final Connection arg2, final CommonListenerCookie arg3) {
         super(arg, arg2, arg3);
     }
@@ -146,30 +159,44 @@ public abstract class MixinClientPlayNetHandler extends ClientCommonPacketListen
         }
     }
 
+    @Inject(
+            method = "handleBlockUpdate",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lnet/minecraft/client/multiplayer/ClientLevel;setServerVerifiedBlockState(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;I)V"
+            )
+    )
+    private void preSetBlockState(ClientboundBlockUpdatePacket packetIn, CallbackInfo ci) {
+        removesTracked = isTrackedRemoval(level.getBlockState(packetIn.getPos()), packetIn.getBlockState());
+    }
+
     @Inject(
             method = "handleBlockUpdate",
             at = @At("RETURN")
     )
     private void postHandleBlockChange(ClientboundBlockUpdatePacket packetIn, CallbackInfo ci) {
-        if (!Baritone.settings().repackOnAnyBlockChange.value) {
-            return;
-        }
-        if (!CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(packetIn.getBlockState().getBlock())) {
+        IBaritone baritone = BaritoneAPI.getProvider().getBaritoneForConnection((ClientPacketListener) (Object) this);
+        if (baritone == null) {
             return;
         }
-        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
-            LocalPlayer player = ibaritone.getPlayerContext().player();
-            if (player != null && player.connection == (ClientPacketListener) (Object) this) {
-                ibaritone.getGameEventHandler().onChunkEvent(
-                        new ChunkEvent(
-                                EventState.POST,
-                                ChunkEvent.Type.POPULATE_FULL,
-                                packetIn.getPos().getX() >> 4,
-                                packetIn.getPos().getZ() >> 4
-                        )
-                );
-            }
-        }
+        // repacking the chunk if this is a block we keep track of is up to the event handler, same as for multi block changes
+        baritone.getGameEventHandler().onBlockChange(new BlockChangeEvent(
+                new ChunkPos(packetIn.getPos()),
+                Collections.singletonList(new Pair<>(packetIn.getPos(), packetIn.getBlockState()))
+        ));
+        repackIfRemovedTracked(baritone, packetIn.getPos());
+    }
+
+    @Inject(
+            method = "handleChunkBlocksUpdate",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lnet/minecraft/network/protocol/game/ClientboundSectionBlocksUpdatePacket;runUpdates(Ljava/util/function/BiConsumer;)V"
+            )
+    )
+    private void preRunUpdates(ClientboundSectionBlocksUpdatePacket packetIn, CallbackInfo ci) {
+        removesTracked = false;
+        packetIn.runUpdates((pos, state) -> removesTracked |= isTrackedRemoval(level.getBlockState(pos), state));
     }
 
     @Inject(
@@ -193,6 +220,29 @@ public abstract class MixinClientPlayNetHandler extends ClientCommonPacketListen
                 new ChunkPos(changes.get(0).first()),
                 changes
         ));
+        repackIfRemovedTracked(baritone, changes.get(0).first());
+    }
+
+    /**
+     * The event handler repacks a chunk when a block the cache keeps track of is placed, but only the new states are in
+     * a {@link BlockChangeEvent}, so one being broken or replaced has to be caught here while the old state is known.
+     */
+    @Unique
+    private static boolean isTrackedRemoval(BlockState previous, BlockState state) {
+        return CachedChunk.isTracked(previous.getBlock()) && !CachedChunk.isTracked(state.getBlock());
+    }
+
+    @Unique
+    private void repackIfRemovedTracked(IBaritone baritone, BlockPos pos) {
+        if (!removesTracked) {
+            return;
+        }
+        removesTracked = false;
+        if (Baritone.settings().repackOnAnyBlockChange.value) {
+            baritone.getGameEventHandler().onChunkEvent(
+                    new ChunkEvent(EventState.POST, ChunkEvent.Type.POPULATE_FULL, pos.getX() >> 4, pos.getZ() >> 4)
+            );
+        }
     }
 
     @Inject(
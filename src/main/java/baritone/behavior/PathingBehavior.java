@@ -20,16 +20,23 @@ package baritone.behavior;
 import baritone.Baritone;
 import baritone.api.behavior.IPathingBehavior;
 import baritone.api.event.events.*;
+import baritone.api.event.events.type.EventState;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.IPathingMetrics;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.goals.GoalXZ;
 import baritone.api.process.PathingCommand;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
+import baritone.api.utils.Pair;
 import baritone.api.utils.PathCalculationResult;
 import baritone.api.utils.interfaces.IGoalRenderPos;
 import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
+import baritone.pathing.calc.HierarchicalPathFinder;
+import baritone.pathing.calc.NodeStoreAStarPathFinder;
+import baritone.pathing.calc.ParallelAStarPathFinder;
+import baritone.pathing.calc.SearchGraph;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.path.PathExecutor;
@@ -43,6 +50,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
 
 public final class PathingBehavior extends Behavior implements IPathingBehavior, Helper {
 
@@ -64,6 +72,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     private boolean calcFailedLastTick;
 
     private volatile AbstractNodeCostSearch inProgress;
+    private volatile IPathingMetrics lastSearchMetrics;
     private final Object pathCalcLock = new Object();
 
     private final Object pathPlanLock = new Object();
@@ -72,6 +81,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     private BetterBlockPos expectedSegmentStart;
 
+    /**
+     * Movements kept between path calculations, see {@link baritone.api.Settings#incrementalReplanning}
+     */
+    private SearchGraph searchGraph;
+
     private final LinkedBlockingQueue<PathEvent> toDispatch = new LinkedBlockingQueue<>();
 
     public PathingBehavior(Baritone baritone) {
@@ -95,6 +109,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     public void onTick(TickEvent event) {
         dispatchEvents();
         if (event.getType() == TickEvent.Type.OUT) {
+            searchGraph = null;
             secretInternalSegmentCancel();
             baritone.getPathingControlManager().cancelEverything();
             return;
@@ -107,6 +122,26 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         dispatchEvents();
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        SearchGraph graph = searchGraph;
+        if (graph == null) {
+            return;
+        }
+        for (Pair<BlockPos, BlockState> change : event.getBlocks()) {
+            BlockPos pos = change.first();
+            graph.invalidateBlock(pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    @Override
+    public void onChunkEvent(ChunkEvent event) {
+        SearchGraph graph = searchGraph;
+        if (graph != null && event.getState() == EventState.POST) {
+            graph.invalidateChunk(event.getX(), event.getZ());
+        }
+    }
+
     @Override
     public void onPlayerSprintState(SprintStateEvent event) {
         if (isPathing()) {
@@ -308,6 +343,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         return Optional.ofNullable(inProgress);
     }
 
+    @Override
+    public Optional<IPathingMetrics> getLastSearchMetrics() {
+        return Optional.ofNullable(lastSearchMetrics);
+    }
+
     public boolean isSafeToCancel() {
         if (current == null) {
             return !baritone.getElytraProcess().isActive() || baritone.getElytraProcess().isSafeToCancel();
@@ -504,6 +544,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             }
 
             PathCalculationResult calcResult = pathfinder.calculate(primaryTimeout, failureTimeout);
+            calcResult.getMetrics().ifPresent(metrics -> lastSearchMetrics = metrics);
             synchronized (pathPlanLock) {
                 Optional<PathExecutor> executor = calcResult.getPath().map(p -> new PathExecutor(PathingBehavior.this, p));
                 if (current == null) {
@@ -568,8 +609,39 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         if (feet.getY() == realStart.getY() && Math.abs(sub.getX()) <= 1 && Math.abs(sub.getZ()) <= 1) {
             realStart = feet;
         }
-        return new AStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, favoring, context);
+        SearchGraph graph = searchGraphFor(context);
+        if (Baritone.settings().hierarchicalPathing.value) {
+            // the segment is made on the pathing thread, so everything it needs from here is resolved now
+            BetterBlockPos segmentStart = realStart;
+            return new HierarchicalPathFinder(realStart, start.getX(), start.getY(), start.getZ(), transformed, context, segmentGoal -> createPathfinder(segmentStart, start, segmentGoal, favoring, context, graph));
+        }
+        return createPathfinder(realStart, start, transformed, favoring, context, graph);
+    }
+
+    private static AbstractNodeCostSearch createPathfinder(BetterBlockPos realStart, BlockPos start, Goal goal, Favoring favoring, CalculationContext context, SearchGraph graph) {
+        if (Baritone.settings().pathingThreads.value > 1) {
+            return new ParallelAStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), goal, favoring, context, Baritone.settings().pathingThreads.value);
+        }
+        if (Baritone.settings().pathingNodeStore.value) {
+            return new NodeStoreAStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), goal, favoring, context, graph);
+        }
+        return new AStarPathFinder(realStart, start.getX(), start.getY(), start.getZ(), goal, favoring, context, graph);
+    }
 
+    private SearchGraph searchGraphFor(CalculationContext context) {
+        if (!Baritone.settings().incrementalReplanning.value) {
+            searchGraph = null;
+            return null;
+        }
+        if (context.getClass() != CalculationContext.class) {
+            return null; // keep the graph for the next plain context, but don't use it for this one
+        }
+        SearchGraph graph = searchGraph;
+        if (graph == null || !graph.isCompatible(context)) {
+            graph = new SearchGraph(context, Baritone.settings().incrementalReplanningMaxNodes.value);
+            searchGraph = graph;
+        }
+        return graph;
     }
 
     @Override
@@ -17,20 +17,20 @@
 
 package baritone.cache;
 
+import baritone.Baritone;
 import baritone.api.utils.BlockUtils;
 import baritone.utils.pathing.PathingBlockType;
 import com.google.common.collect.ImmutableSet;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.dimension.DimensionType;
 
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.*;
 
 /**
  * @author Brady
@@ -110,6 +110,12 @@ public final class CachedChunk {
             Blocks.VINE
     );
 
+    /**
+     * {@link #BLOCKS_TO_KEEP_TRACK_OF} and {@link baritone.api.Settings#trackedResourceBlocks} together, made again
+     * when that setting changes
+     */
+    private static volatile TrackedBlocks tracked = new TrackedBlocks(null, BLOCKS_TO_KEEP_TRACK_OF);
+
     public final int height;
 
     /**
@@ -137,11 +143,33 @@ public final class CachedChunk {
     /**
      * The actual raw data of this packed chunk.
      * <p>
-     * Each block is expressed as 2 bits giving a total of 16 KiB
+     * Each block is expressed as 2 bits giving a total of 16 KiB, in the same order as {@link BitSet#valueOf(byte[])}.
+     * On the heap, or in a slab off the heap owned by the {@link CachedRegion} when
+     * {@link baritone.api.Settings#cachedChunksOffHeap} is on. Only ever read with absolute gets, so it's safe to share.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Every special block type in this chunk, once each, or null if there aren't any
+     */
+    private final Block[] specialTypes;
+
+    /**
+     * Where the positions of each of {@link #specialTypes} start in {@link #specialPositions}, plus where the last
+     * one ends
+     */
+    private final int[] specialStart;
+
+    /**
+     * The absolute position of every special block, as {@link BlockPos#asLong}, grouped by type
      */
-    private final BitSet data;
+    private final long[] specialPositions;
 
-    private final Int2ObjectOpenHashMap<String> special;
+    /**
+     * The {@link #getPositionIndex} of every special block, sorted, and which of {@link #specialTypes} is there
+     */
+    private final int[] specialIndex;
+    private final short[] specialIndexType;
 
     /**
      * The block names of each surface level block for generating an overview
@@ -150,11 +178,14 @@ public final class CachedChunk {
 
     private final int[] heightMap;
 
-    private final Map<String, List<BlockPos>> specialBlockLocations;
-
     public final long cacheTimestamp;
 
-    CachedChunk(int x, int z, int height, BitSet data, BlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
+    /**
+     * Computed the first time they're asked for, see {@link #getPortals}
+     */
+    private volatile ChunkPortals portals;
+
+    CachedChunk(int x, int z, int height, ByteBuffer data, BlockState[] overview, Map<String, List<BlockPos>> specialBlockLocations, long cacheTimestamp) {
         this.size = size(height);
         this.sizeInBytes = sizeInBytes(size);
         validateSize(data);
@@ -165,17 +196,107 @@ public final class CachedChunk {
         this.data = data;
         this.overview = overview;
         this.heightMap = new int[256];
-        this.specialBlockLocations = specialBlockLocations;
         this.cacheTimestamp = cacheTimestamp;
-        if (specialBlockLocations.isEmpty()) {
-            this.special = null;
+        List<Block> types = new ArrayList<>();
+        List<List<BlockPos>> positions = new ArrayList<>();
+        int count = 0;
+        for (Map.Entry<String, List<BlockPos>> entry : specialBlockLocations.entrySet()) {
+            Block block = BlockUtils.stringToBlockNullable(entry.getKey());
+            if (block != null && !entry.getValue().isEmpty() && types.size() < Short.MAX_VALUE) {
+                types.add(block);
+                positions.add(entry.getValue());
+                count += entry.getValue().size();
+            }
+        }
+        if (types.isEmpty()) {
+            this.specialTypes = null;
+            this.specialStart = null;
+            this.specialPositions = null;
+            this.specialIndex = null;
+            this.specialIndexType = null;
         } else {
-            this.special = new Int2ObjectOpenHashMap<>();
-            setSpecial();
+            this.specialTypes = types.toArray(new Block[0]);
+            this.specialStart = new int[types.size() + 1];
+            this.specialPositions = new long[count];
+            long[] byIndex = new long[count];
+            int i = 0;
+            for (int type = 0; type < types.size(); type++) {
+                specialStart[type] = i;
+                for (BlockPos pos : positions.get(type)) {
+                    specialPositions[i] = BlockPos.asLong(pos.getX() + x * 16, pos.getY(), pos.getZ() + z * 16);
+                    byIndex[i] = (long) getPositionIndex(pos.getX(), pos.getY(), pos.getZ()) << 32 | type;
+                    i++;
+                }
+            }
+            specialStart[types.size()] = count;
+            Arrays.sort(byIndex);
+            this.specialIndex = new int[count];
+            this.specialIndexType = new short[count];
+            for (i = 0; i < count; i++) {
+                specialIndex[i] = (int) (byIndex[i] >> 32);
+                specialIndexType[i] = (short) byIndex[i];
+            }
         }
         calculateHeightMap();
     }
 
+    private CachedChunk(CachedChunk chunk, ByteBuffer data) {
+        this.size = chunk.size;
+        this.sizeInBytes = chunk.sizeInBytes;
+        this.x = chunk.x;
+        this.z = chunk.z;
+        this.height = chunk.height;
+        this.data = data;
+        this.overview = chunk.overview;
+        this.heightMap = chunk.heightMap;
+        this.cacheTimestamp = chunk.cacheTimestamp;
+        this.specialTypes = chunk.specialTypes;
+        this.specialStart = chunk.specialStart;
+        this.specialPositions = chunk.specialPositions;
+        this.specialIndex = chunk.specialIndex;
+        this.specialIndexType = chunk.specialIndexType;
+        this.portals = chunk.portals;
+    }
+
+    /**
+     * @param data Where to copy the packed data to, exactly {@link #sizeInBytes} long
+     * @return The same chunk, with its packed data in the specified buffer instead
+     */
+    final CachedChunk withData(ByteBuffer data) {
+        data.put(0, this.data, 0, sizeInBytes);
+        return new CachedChunk(this, data);
+    }
+
+    /**
+     * @return Whether the packed data of this chunk is off the heap
+     */
+    final boolean isOffHeap() {
+        return data.isDirect();
+    }
+
+    /**
+     * @return Whether the positions of the specified block are remembered when a chunk is cached, so that they can be
+     * looked up with {@link CachedWorld#getLocationsOf} instead of scanning for them
+     */
+    public static boolean isTracked(Block block) {
+        return trackedBlocks().contains(block);
+    }
+
+    /**
+     * @return Every block whose positions are remembered when a chunk is cached
+     */
+    public static Set<Block> trackedBlocks() {
+        List<Block> resources = Baritone.settings().trackedResourceBlocks.value;
+        TrackedBlocks tracked = CachedChunk.tracked;
+        if (tracked.resources != resources) {
+            Set<Block> blocks = new ReferenceOpenHashSet<>(BLOCKS_TO_KEEP_TRACK_OF);
+            blocks.addAll(resources);
+            tracked = new TrackedBlocks(resources, Collections.unmodifiableSet(blocks));
+            CachedChunk.tracked = tracked;
+        }
+        return tracked.blocks;
+    }
+
     public static int size(int dimension_height) {
         return 2 * 16 * 16 * dimension_height;
     }
@@ -184,12 +305,15 @@ public final class CachedChunk {
         return size / 8;
     }
 
-    private final void setSpecial() {
-        for (Map.Entry<String, List<BlockPos>> entry : specialBlockLocations.entrySet()) {
-            for (BlockPos pos : entry.getValue()) {
-                special.put(getPositionIndex(pos.getX(), pos.getY(), pos.getZ()), entry.getKey());
-            }
+    /**
+     * @return Roughly how much memory this chunk takes up, in bytes
+     */
+    final long memoryUsage() {
+        long usage = sizeInBytes + overview.length * 4L + heightMap.length * 4L + 128;
+        if (specialPositions != null) {
+            usage += specialPositions.length * 14L + specialTypes.length * 4L + specialStart.length * 4L;
         }
+        return usage;
     }
 
     public final BlockState getBlock(int x, int y, int z, DimensionType dimension) {
@@ -206,10 +330,10 @@ public final class CachedChunk {
             }*/
             return overview[internalPos];
         }
-        if (special != null) {
-            String str = special.get(index);
-            if (str != null) {
-                return BlockUtils.stringToBlockRequired(str).defaultBlockState();
+        if (specialIndex != null) {
+            int i = Arrays.binarySearch(specialIndex, index);
+            if (i >= 0) {
+                return specialTypes[specialIndexType[i]].defaultBlockState();
             }
         }
 
@@ -229,7 +353,30 @@ public final class CachedChunk {
     }
 
     private PathingBlockType getType(int index) {
-        return PathingBlockType.fromBits(data.get(index), data.get(index + 1));
+        // index is always even, so both bits are in the same byte
+        int bits = data.get(index >> 3) >> (index & 7);
+        return PathingBlockType.fromBits((bits & 1) != 0, (bits & 2) != 0);
+    }
+
+    final PathingBlockType getType(int x, int y, int z) {
+        return getType(getPositionIndex(x, y, z));
+    }
+
+    /**
+     * Computing these takes a moment, so the packer thread does it right after packing, and chunks loaded from disk
+     * do it the first time a long distance search gets to them. Racing threads compute the same thing, so whichever
+     * one wins doesn't matter.
+     *
+     * @param scratch Reused between calls on the same thread, it's only needed the first time
+     * @return Where this chunk can be walked into and out of
+     */
+    public final ChunkPortals getPortals(ChunkPacker.Scratch scratch) {
+        ChunkPortals portals = this.portals;
+        if (portals == null) {
+            portals = ChunkPortals.compute(this, scratch);
+            this.portals = portals;
+        }
+        return portals;
     }
 
     private void calculateHeightMap() {
@@ -237,9 +384,9 @@ public final class CachedChunk {
             for (int x = 0; x < 16; x++) {
                 int index = z << 4 | x;
                 heightMap[index] = 0;
-                for (int y = height; y >= 0; y--) {
+                for (int y = height - 1; y >= 0; y--) {
                     int i = getPositionIndex(x, y, z);
-                    if (data.get(i) || data.get(i + 1)) {
+                    if ((data.get(i >> 3) >> (i & 7) & 3) != 0) {
                         heightMap[index] = y;
                         break;
                     }
@@ -252,26 +399,61 @@ public final class CachedChunk {
         return overview;
     }
 
+    /**
+     * Only for saving, this builds the map from scratch
+     *
+     * @return The special blocks in this chunk by name, with positions relative to the chunk
+     */
     public final Map<String, List<BlockPos>> getRelativeBlocks() {
-        return specialBlockLocations;
+        Map<String, List<BlockPos>> res = new HashMap<>();
+        if (specialTypes == null) {
+            return res;
+        }
+        for (int type = 0; type < specialTypes.length; type++) {
+            List<BlockPos> positions = new ArrayList<>(specialStart[type + 1] - specialStart[type]);
+            for (int i = specialStart[type]; i < specialStart[type + 1]; i++) {
+                long pos = specialPositions[i];
+                positions.add(new BlockPos(BlockPos.getX(pos) & 15, BlockPos.getY(pos), BlockPos.getZ(pos) & 15));
+            }
+            res.put(BlockUtils.blockToString(specialTypes[type]), positions);
+        }
+        return res;
+    }
+
+    /**
+     * @return Every special block type in this chunk
+     */
+    final Block[] getSpecialTypes() {
+        return specialTypes == null ? new Block[0] : specialTypes;
     }
 
-    public final ArrayList<BlockPos> getAbsoluteBlocks(String blockType) {
-        if (specialBlockLocations.get(blockType) == null) {
-            return null;
+    /**
+     * Adds the absolute positions of the specified special block in this chunk, as {@link BlockPos#asLong}
+     *
+     * @param block The special block
+     * @param out   Where to add them
+     */
+    public final void getAbsoluteBlocks(Block block, LongList out) {
+        if (specialTypes == null) {
+            return;
         }
-        ArrayList<BlockPos> res = new ArrayList<>();
-        for (BlockPos pos : specialBlockLocations.get(blockType)) {
-            res.add(new BlockPos(pos.getX() + x * 16, pos.getY(), pos.getZ() + z * 16));
+        for (int type = 0; type < specialTypes.length; type++) {
+            if (specialTypes[type] == block) {
+                for (int i = specialStart[type]; i < specialStart[type + 1]; i++) {
+                    out.add(specialPositions[i]);
+                }
+                return;
+            }
         }
-        return res;
     }
 
     /**
      * @return Returns the raw packed chunk data as a byte array
      */
     public final byte[] toByteArray() {
-        return this.data.toByteArray();
+        byte[] bytes = new byte[sizeInBytes];
+        data.get(0, bytes);
+        return bytes;
     }
 
     /**
@@ -287,16 +469,30 @@ public final class CachedChunk {
     }
 
     /**
-     * Validates the size of an input {@link BitSet} containing the raw
-     * packed chunk data. Sizes that exceed {@link CachedChunk#size} are
+     * Validates the size of an input buffer containing the raw
+     * packed chunk data. Sizes other than {@link CachedChunk#sizeInBytes} are
      * considered invalid, and thus, an exception will be thrown.
      *
      * @param data The raw data
-     * @throws IllegalArgumentException if the bitset size exceeds the maximum size
+     * @throws IllegalArgumentException if the buffer isn't exactly the size of the data
      */
-    private void validateSize(BitSet data) {
-        if (data.size() > size) {
-            throw new IllegalArgumentException("BitSet of invalid length provided");
+    private void validateSize(ByteBuffer data) {
+        if (data.capacity() != sizeInBytes) {
+            throw new IllegalArgumentException("Chunk data of invalid length provided");
+        }
+    }
+
+    private static final class TrackedBlocks {
+
+        /**
+         * The value of the setting these were made from
+         */
+        final List<Block> resources;
+        final Set<Block> blocks;
+
+        TrackedBlocks(List<Block> resources, Set<Block> blocks) {
+            this.resources = resources;
+            this.blocks = blocks;
         }
     }
 }
@@ -20,17 +20,25 @@ package baritone.cache;
 import baritone.Baritone;
 import baritone.api.cache.ICachedRegion;
 import baritone.api.utils.BlockUtils;
+import baritone.utils.jfr.RegionLoadEvent;
+import baritone.utils.jfr.RegionSaveEvent;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.dimension.DimensionType;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * @author Brady
@@ -42,10 +50,23 @@ public final class CachedRegion implements ICachedRegion {
     private static final byte CHUNK_PRESENT = 1;
 
     /**
-     * Magic value to detect invalid cache files, or incompatible cache files saved in an old version of Baritone
+     * Magic value to detect invalid cache files, or incompatible cache files saved in an old version of Baritone.
+     * <p>
+     * This is the old gzip compressed format, which is still read but no longer written, see {@link CachedRegionFile}
+     * for the current one.
      */
     private static final int CACHED_REGION_MAGIC = 456022911;
 
+    /**
+     * How many chunks of packed data fit in one off heap slab
+     */
+    private static final int SLAB_CHUNKS = 16;
+
+    /**
+     * The region x and z coordinates, and the generation if it isn't the first, see {@link #generation}
+     */
+    static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)(?:\\.(\\d+))?\\.bcr");
+
     /**
      * All of the chunks in this region: A 32x32 array of them.
      */
@@ -68,6 +89,68 @@ public final class CachedRegion implements ICachedRegion {
      */
     private boolean hasUnsavedChanges;
 
+    /**
+     * Which chunks were replaced or removed since the most recent load or save, these are what the next save appends
+     * to the {@link CachedRegionJournal}
+     */
+    private final boolean[][] unsaved = new boolean[32][32];
+
+    /**
+     * Whether the next save has to write the whole region file instead of appending to the journal, because the file
+     * is in the old format
+     */
+    private boolean rewrite;
+
+    /**
+     * Held for the whole of a save, so that saves of this region happen one at a time. The lock on the region itself
+     * is only held for long enough to see what changed, so packing never waits on the disk.
+     */
+    private final Object saveLock = new Object();
+
+    /**
+     * The file this region was loaded from, if it's in the current format. Chunks are only read from it the first time
+     * they're used.
+     */
+    private volatile CachedRegionFile file;
+
+    /**
+     * The newest generation of region file on disk, or -1 if there isn't one. A region file is never replaced while
+     * it's mapped, so rewriting the region writes the next generation instead and deletes the older ones when it can.
+     * The first generation is {@code r.x.z.bcr}, which is also the name of files in the old format, and generation n
+     * after that is {@code r.x.z.n.bcr}.
+     */
+    private int generation = -1;
+
+    /**
+     * Which chunks have been read from {@link #file}, replaced, or removed since it was loaded, and so shouldn't be
+     * read from it anymore
+     */
+    private final boolean[][] detached = new boolean[32][32];
+
+    /**
+     * Which chunks have each special block in them, one bit per chunk, so that searches only look at those. Null
+     * until the first search, and kept up to date from then on.
+     */
+    private Reference2ObjectOpenHashMap<Block, long[]> specialChunks;
+
+    /**
+     * Roughly how much memory the chunks in {@link #chunks} take up, in bytes. Chunks that are still only in the file
+     * don't count, they're mapped and not on the heap.
+     */
+    private volatile long memoryUsage;
+
+    /**
+     * When this region was last used, from {@link System#currentTimeMillis()}
+     */
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    /**
+     * Where the packed data of chunks goes when {@link baritone.api.Settings#cachedChunksOffHeap} is on, handed out a
+     * chunk at a time from the front. A full slab is forgotten, and its memory is freed once none of the chunks in it
+     * are used anymore, by this region or by a search that's still holding on to one.
+     */
+    private ByteBuffer slab;
+
     CachedRegion(int x, int z, DimensionType dimension) {
         this.x = x;
         this.z = z;
@@ -78,7 +161,7 @@ public final class CachedRegion implements ICachedRegion {
     @Override
     public final BlockState getBlock(int x, int y, int z) {
         int adjY = y - dimension.minY();
-        CachedChunk chunk = chunks[x >> 4][z >> 4];
+        CachedChunk chunk = chunk(x >> 4, z >> 4);
         if (chunk != null) {
             return chunk.getBlock(x & 15, adjY, z & 15, dimension);
         }
@@ -87,122 +170,379 @@ public final class CachedRegion implements ICachedRegion {
 
     @Override
     public final boolean isCached(int x, int z) {
-        return chunks[x >> 4][z >> 4] != null;
+        return chunks[x >> 4][z >> 4] != null || isInFile(x >> 4, z >> 4);
     }
 
-    public final ArrayList<BlockPos> getLocationsOf(String block) {
-        ArrayList<BlockPos> res = new ArrayList<>();
-        for (int chunkX = 0; chunkX < 32; chunkX++) {
-            for (int chunkZ = 0; chunkZ < 32; chunkZ++) {
-                if (chunks[chunkX][chunkZ] == null) {
-                    continue;
+    /**
+     * @param x The x coordinate of a block, relative to this region
+     * @param z The z coordinate of a block, relative to this region
+     * @return The cached chunk containing that block, or null if it isn't cached
+     */
+    public final CachedChunk getChunk(int x, int z) {
+        return chunk(x >> 4, z >> 4);
+    }
+
+    /**
+     * Adds the positions of the specified special block in this region, as {@link BlockPos#asLong}
+     *
+     * @param block The special block
+     * @param out   Where to add them
+     */
+    public final void getLocationsOf(Block block, LongList out) {
+        long[] inChunks;
+        synchronized (this) {
+            if (specialChunks == null) {
+                indexSpecialBlocks();
+            }
+            inChunks = specialChunks.get(block);
+            if (inChunks == null) {
+                return;
+            }
+            inChunks = inChunks.clone();
+        }
+        for (int word = 0; word < inChunks.length; word++) {
+            for (long bits = inChunks[word]; bits != 0; bits &= bits - 1) {
+                int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                CachedChunk chunk = chunk(index >> 5, index & 31);
+                if (chunk != null) {
+                    chunk.getAbsoluteBlocks(block, out);
                 }
-                ArrayList<BlockPos> locs = chunks[chunkX][chunkZ].getAbsoluteBlocks(block);
-                if (locs != null) {
-                    res.addAll(locs);
+            }
+        }
+    }
+
+    private void indexSpecialBlocks() {
+        // the first search has to look at every chunk, the ones after only look where there's something to find
+        specialChunks = new Reference2ObjectOpenHashMap<>();
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                CachedChunk chunk = chunk(x, z);
+                if (chunk != null) {
+                    indexSpecialBlocks(x, z, chunk);
                 }
             }
         }
-        return res;
+    }
+
+    private void indexSpecialBlocks(int x, int z, CachedChunk chunk) {
+        int index = x << 5 | z;
+        for (Block block : chunk.getSpecialTypes()) {
+            specialChunks.computeIfAbsent(block, b -> new long[16])[index >> 6] |= 1L << index;
+        }
     }
 
     public final synchronized void updateCachedChunk(int chunkX, int chunkZ, CachedChunk chunk) {
-        this.chunks[chunkX][chunkZ] = chunk;
+        setChunk(chunkX, chunkZ, chunk);
+        this.detached[chunkX][chunkZ] = true;
+        this.unsaved[chunkX][chunkZ] = true;
         hasUnsavedChanges = true;
+        if (specialChunks != null) {
+            int index = chunkX << 5 | chunkZ;
+            for (long[] inChunks : specialChunks.values()) {
+                inChunks[index >> 6] &= ~(1L << index);
+            }
+            indexSpecialBlocks(chunkX, chunkZ, chunk);
+        }
+    }
+
+    /**
+     * @param x The chunk x coordinate, relative to this region
+     * @param z The chunk z coordinate, relative to this region
+     * @return The chunk, read from the file first if it hasn't been yet
+     */
+    private CachedChunk chunk(int x, int z) {
+        CachedChunk chunk = chunks[x][z];
+        if (chunk == null && isInFile(x, z)) {
+            chunk = readFromFile(x, z);
+        }
+        return chunk;
     }
 
+    /**
+     * Has to be called with the lock held
+     */
+    private void setChunk(int x, int z, CachedChunk chunk) {
+        if (chunk != null && !chunk.isOffHeap() && Baritone.settings().cachedChunksOffHeap.value) {
+            chunk = chunk.withData(allocate(chunk.sizeInBytes));
+        }
+        CachedChunk previous = chunks[x][z];
+        long usage = memoryUsage;
+        if (previous != null) {
+            usage -= previous.memoryUsage();
+        }
+        if (chunk != null) {
+            usage += chunk.memoryUsage();
+        }
+        chunks[x][z] = chunk;
+        memoryUsage = usage;
+    }
 
-    public synchronized final void save(String directory) {
-        if (!hasUnsavedChanges) {
-            return;
+    /**
+     * Has to be called with the lock held
+     *
+     * @return The next bit of the off heap slab, exactly the specified size
+     */
+    private ByteBuffer allocate(int size) {
+        if (slab == null || slab.remaining() < size) {
+            slab = ByteBuffer.allocateDirect(size * SLAB_CHUNKS);
+        }
+        ByteBuffer data = slab.slice(slab.position(), size);
+        slab.position(slab.position() + size);
+        return data;
+    }
+
+    /**
+     * @return Roughly how much memory the chunks of this region that have been read take up, in bytes
+     */
+    public final long memoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Marks this region as just used, so that it's among the last to be evicted
+     */
+    final void touch() {
+        lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * @return When this region was last used, from {@link System#currentTimeMillis()}
+     */
+    final long lastUsed() {
+        return lastUsed;
+    }
+
+    final synchronized boolean hasUnsavedChanges() {
+        return hasUnsavedChanges;
+    }
+
+    private boolean isInFile(int x, int z) {
+        CachedRegionFile file = this.file;
+        return file != null && !detached[x][z] && file.isPresent(x, z);
+    }
+
+    private synchronized CachedChunk readFromFile(int x, int z) {
+        if (!isInFile(x, z)) {
+            // another thread got here first
+            return chunks[x][z];
         }
-        removeExpired();
+        detached[x][z] = true;
         try {
-            Path path = Paths.get(directory);
-            if (!Files.exists(path)) {
-                Files.createDirectories(path);
+            setChunk(x, z, file.read(x, z));
+        } catch (Exception ex) { // same as load, a corrupted chunk is just not cached
+            ex.printStackTrace();
+        }
+        return chunks[x][z];
+    }
 
+    /**
+     * Appends the chunks that changed since the last save to the journal, or writes the whole region to a new file if
+     * the journal has gotten bigger than the region file
+     */
+    public final void save(String directory) {
+        synchronized (saveLock) {
+            int generation;
+            synchronized (this) {
+                if (!hasUnsavedChanges) {
+                    return;
+                }
+                generation = this.generation;
             }
-            System.out.println("Saving region " + x + "," + z + " to disk " + path);
-            Path regionFile = getRegionFile(path, this.x, this.z);
-            if (!Files.exists(regionFile)) {
-                Files.createFile(regionFile);
+            Path path = Paths.get(directory);
+            Path journal = getJournalFile(path, this.x, this.z);
+            boolean compact;
+            try {
+                if (!Files.exists(path)) {
+                    Files.createDirectories(path);
+                }
+                Path regionFile = getRegionFile(path, this.x, this.z, generation);
+                compact = generation < 0 || !Files.exists(regionFile) || (Files.exists(journal) && Files.size(journal) > Files.size(regionFile));
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                return;
             }
-            try (
-                    FileOutputStream fileOut = new FileOutputStream(regionFile.toFile());
-                    GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, 16384);
-                    DataOutputStream out = new DataOutputStream(gzipOut)
-            ) {
-                out.writeInt(CACHED_REGION_MAGIC);
+            CachedChunk[][] all = null;
+            boolean[][] inFile = null;
+            CachedRegionFile previous = null;
+            boolean legacy;
+            List<CachedRegionJournal.Change> changes = new ArrayList<>();
+            synchronized (this) {
+                removeExpired();
+                legacy = rewrite;
+                compact |= rewrite;
+                // what changed is always collected, so it can still go to the journal if writing the whole region fails
+                long now = System.currentTimeMillis();
                 for (int x = 0; x < 32; x++) {
                     for (int z = 0; z < 32; z++) {
-                        CachedChunk chunk = this.chunks[x][z];
-                        if (chunk == null) {
-                            out.write(CHUNK_NOT_PRESENT);
-                        } else {
-                            out.write(CHUNK_PRESENT);
-                            byte[] chunkBytes = chunk.toByteArray();
-                            out.write(chunkBytes);
-                            // Messy, but fills the empty 0s that should be trailing to fill up the space.
-                            out.write(new byte[chunk.sizeInBytes - chunkBytes.length]);
+                        if (unsaved[x][z]) {
+                            CachedChunk chunk = chunks[x][z];
+                            changes.add(new CachedRegionJournal.Change(x, z, chunk == null ? now : chunk.cacheTimestamp, chunk));
                         }
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            for (int i = 0; i < 256; i++) {
-                                out.writeUTF(BlockUtils.blockToString(chunks[x][z].getOverview()[i].getBlock()));
-                            }
+                if (compact) {
+                    // chunks that are only in the file are copied from it as they are, without being read
+                    all = new CachedChunk[32][32];
+                    inFile = new boolean[32][32];
+                    previous = file;
+                    for (int x = 0; x < 32; x++) {
+                        for (int z = 0; z < 32; z++) {
+                            all[x][z] = chunks[x][z];
+                            inFile[x][z] = all[x][z] == null && isInFile(x, z);
                         }
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            Map<String, List<BlockPos>> locs = chunks[x][z].getRelativeBlocks();
-                            out.writeShort(locs.entrySet().size());
-                            for (Map.Entry<String, List<BlockPos>> entry : locs.entrySet()) {
-                                out.writeUTF(entry.getKey());
-                                out.writeShort(entry.getValue().size());
-                                for (BlockPos pos : entry.getValue()) {
-                                    out.writeByte((byte) (pos.getZ() << 4 | pos.getX()));
-                                    out.writeInt(pos.getY()-dimension.minY());
-                                }
-                            }
+                for (boolean[] column : unsaved) {
+                    Arrays.fill(column, false);
+                }
+                hasUnsavedChanges = false;
+                rewrite = false;
+            }
+            RegionSaveEvent event = new RegionSaveEvent();
+            event.begin();
+            int saved = 0;
+            try {
+                if (compact) {
+                    try {
+                        saved = compact(path, generation, all, previous, inFile);
+                    } catch (Exception ex) {
+                        ex.printStackTrace();
+                        compact = false;
+                        // nothing has been lost yet, the changes go to the journal instead and the next save tries again
+                        synchronized (this) {
+                            rewrite |= legacy;
+                            hasUnsavedChanges |= legacy;
                         }
                     }
                 }
-                for (int x = 0; x < 32; x++) {
-                    for (int z = 0; z < 32; z++) {
-                        if (chunks[x][z] != null) {
-                            out.writeLong(chunks[x][z].cacheTimestamp);
-                        }
+                if (!compact) {
+                    System.out.println("Saving " + changes.size() + " changed chunks of region " + x + "," + z + " to disk " + path);
+                    CachedRegionJournal.append(journal, changes, dimension);
+                    saved = changes.size();
+                }
+                System.out.println("Saved region successfully");
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                synchronized (this) {
+                    // try again next time
+                    for (CachedRegionJournal.Change change : changes) {
+                        unsaved[change.x][change.z] = true;
+                    }
+                    hasUnsavedChanges = true;
+                }
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.regionX = this.x;
+                    event.regionZ = this.z;
+                    event.rewritten = compact;
+                    event.chunks = saved;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the whole region to the next generation of region file, and reads from that from now on
+     *
+     * @return How many chunks were written
+     */
+    private int compact(Path path, int generation, CachedChunk[][] all, CachedRegionFile previous, boolean[][] inFile) throws IOException {
+        System.out.println("Saving region " + x + "," + z + " to disk " + path);
+        Path regionFile = getRegionFile(path, this.x, this.z, generation + 1);
+        int written = CachedRegionFile.write(regionFile, all, previous, inFile, dimension);
+        CachedRegionFile file = CachedRegionFile.open(regionFile, dimension, this.x, this.z);
+        synchronized (this) {
+            this.file = file;
+            this.generation = generation + 1;
+            // what was written and hasn't changed since can be read from the new file again when it's used
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    if (all[x][z] != null && chunks[x][z] == all[x][z] && !unsaved[x][z]) {
+                        setChunk(x, z, null);
+                        detached[x][z] = false;
                     }
                 }
             }
-            hasUnsavedChanges = false;
-            System.out.println("Saved region successfully");
-        } catch (Exception ex) {
-            ex.printStackTrace();
         }
+        // everything in the journal is in the new file now, if this doesn't happen it's replayed harmlessly
+        Files.deleteIfExists(getJournalFile(path, this.x, this.z));
+        deleteOldGenerations(path, generation + 1);
+        return written;
     }
 
     public synchronized void load(String directory) {
+        RegionLoadEvent event = new RegionLoadEvent();
+        event.begin();
+        try {
+            load0(directory);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.regionX = this.x;
+                event.regionZ = this.z;
+                event.commit();
+            }
+        }
+    }
+
+    private void load0(String directory) {
         try {
             Path path = Paths.get(directory);
             if (!Files.exists(path)) {
                 Files.createDirectories(path);
             }
 
-            Path regionFile = getRegionFile(path, this.x, this.z);
-            if (!Files.exists(regionFile)) {
+            List<Integer> generations = generations(path);
+            this.generation = generations.isEmpty() ? -1 : generations.get(0);
+            Path regionFile = null;
+            CachedRegionFile file = null;
+            for (int generation : generations) {
+                Path candidate = getRegionFile(path, this.x, this.z, generation);
+                try {
+                    if (CachedRegionFile.isCurrentFormat(candidate)) {
+                        file = CachedRegionFile.open(candidate, dimension, this.x, this.z);
+                    } else if (generation != 0) {
+                        throw new IOException("Region file " + candidate + " isn't in the current format");
+                    }
+                    regionFile = candidate;
+                    deleteOldGenerations(path, generation);
+                    break;
+                } catch (IOException ex) {
+                    // the newest one is broken, which shouldn't be possible, but an older one might still be readable
+                    ex.printStackTrace();
+                }
+            }
+            if (regionFile == null) {
+                replayJournal(path);
                 return;
             }
 
             System.out.println("Loading region " + x + "," + z + " from disk " + path);
             long start = System.nanoTime() / 1000000L;
 
+            if (file != null) {
+                for (int x = 0; x < 32; x++) {
+                    for (int z = 0; z < 32; z++) {
+                        if (file.isPresent(x, z)) {
+                            // same as the old format, what's on disk replaces what's in memory
+                            setChunk(x, z, null);
+                            this.detached[x][z] = false;
+                            this.unsaved[x][z] = false;
+                        }
+                    }
+                }
+                this.file = file;
+                this.specialChunks = null;
+                replayJournal(path);
+                removeExpired();
+                hasUnsavedChanges = anyUnsaved();
+                long end = System.nanoTime() / 1000000L;
+                System.out.println("Mapped region successfully in " + (end - start) + "ms");
+                return;
+            }
+
             try (
                     FileInputStream fileIn = new FileInputStream(regionFile.toFile());
                     GZIPInputStream gzipIn = new GZIPInputStream(fileIn, 32768);
@@ -216,7 +556,7 @@ public final class CachedRegion implements ICachedRegion {
                     throw new IOException("Bad magic value " + magic);
                 }
                 boolean[][] present = new boolean[32][32];
-                BitSet[][] bitSets = new BitSet[32][32];
+                ByteBuffer[][] data = new ByteBuffer[32][32];
                 Map<String, List<BlockPos>>[][] location = new Map[32][32];
                 BlockState[][][] overview = new BlockState[32][32][];
                 long[][] cacheTimestamp = new long[32][32];
@@ -227,7 +567,7 @@ public final class CachedRegion implements ICachedRegion {
                             case CHUNK_PRESENT:
                                 byte[] bytes = new byte[CachedChunk.sizeInBytes(CachedChunk.size(dimension.height()))];
                                 in.readFully(bytes);
-                                bitSets[x][z] = BitSet.valueOf(bytes);
+                                data[x][z] = ByteBuffer.wrap(bytes);
                                 location[x][z] = new HashMap<>();
                                 //this is top block in columns
                                 overview[x][z] = new BlockState[256];
@@ -293,13 +633,18 @@ public final class CachedRegion implements ICachedRegion {
                             int regionZ = this.z;
                             int chunkX = x + 32 * regionX;
                             int chunkZ = z + 32 * regionZ;
-                            this.chunks[x][z] = new CachedChunk(chunkX, chunkZ, dimension.height(), bitSets[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]);
+                            setChunk(x, z, new CachedChunk(chunkX, chunkZ, dimension.height(), data[x][z], overview[x][z], location[x][z], cacheTimestamp[x][z]));
+                            this.detached[x][z] = true;
                         }
                     }
                 }
             }
+            this.specialChunks = null;
+            replayJournal(path);
             removeExpired();
-            hasUnsavedChanges = false;
+            // still in the old format, so that it's converted on the next save
+            hasUnsavedChanges = true;
+            rewrite = true;
             long end = System.nanoTime() / 1000000L;
             System.out.println("Loaded region successfully in " + (end - start) + "ms");
         } catch (Exception ex) { // corrupted files can cause NullPointerExceptions as well as IOExceptions
@@ -307,6 +652,36 @@ public final class CachedRegion implements ICachedRegion {
         }
     }
 
+    /**
+     * Applies the chunks saved to the journal since the region file was written
+     */
+    private void replayJournal(Path path) throws IOException {
+        Path journal = getJournalFile(path, this.x, this.z);
+        if (!Files.exists(journal)) {
+            return;
+        }
+        CachedRegionJournal.replay(journal, dimension, this.x, this.z, (x, z, cacheTimestamp, chunk) -> {
+            long current = cacheTimestamp(x, z);
+            if (chunk == null ? current != -1 && current <= cacheTimestamp : cacheTimestamp >= current) {
+                setChunk(x, z, chunk);
+                this.detached[x][z] = true;
+                this.unsaved[x][z] = false;
+                this.specialChunks = null;
+            }
+        });
+    }
+
+    private boolean anyUnsaved() {
+        for (boolean[] column : unsaved) {
+            for (boolean chunk : column) {
+                if (chunk) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public synchronized final void removeExpired() {
         long expiry = Baritone.settings().cachedChunksExpirySeconds.value;
         if (expiry < 0) {
@@ -316,27 +691,82 @@ public final class CachedRegion implements ICachedRegion {
         long oldestAcceptableAge = now - expiry * 1000L;
         for (int x = 0; x < 32; x++) {
             for (int z = 0; z < 32; z++) {
-                if (this.chunks[x][z] != null && this.chunks[x][z].cacheTimestamp < oldestAcceptableAge) {
-                    System.out.println("Removing chunk " + (x + 32 * this.x) + "," + (z + 32 * this.z) + " because it was cached " + (now - this.chunks[x][z].cacheTimestamp) / 1000L + " seconds ago, and max age is " + expiry);
-                    this.chunks[x][z] = null;
+                long cacheTimestamp = cacheTimestamp(x, z);
+                if (cacheTimestamp != -1 && cacheTimestamp < oldestAcceptableAge) {
+                    System.out.println("Removing chunk " + (x + 32 * this.x) + "," + (z + 32 * this.z) + " because it was cached " + (now - cacheTimestamp) / 1000L + " seconds ago, and max age is " + expiry);
+                    setChunk(x, z, null);
+                    this.detached[x][z] = true;
+                    this.unsaved[x][z] = true;
+                    this.specialChunks = null;
                 }
             }
         }
     }
 
     public synchronized final CachedChunk mostRecentlyModified() {
-        CachedChunk recent = null;
+        int recentX = -1;
+        int recentZ = -1;
+        long recent = -1;
         for (int x = 0; x < 32; x++) {
             for (int z = 0; z < 32; z++) {
-                if (this.chunks[x][z] == null) {
-                    continue;
+                long cacheTimestamp = cacheTimestamp(x, z);
+                if (cacheTimestamp != -1 && (recentX == -1 || cacheTimestamp > recent)) {
+                    recentX = x;
+                    recentZ = z;
+                    recent = cacheTimestamp;
                 }
-                if (recent == null || this.chunks[x][z].cacheTimestamp > recent.cacheTimestamp) {
-                    recent = this.chunks[x][z];
+            }
+        }
+        // only the most recent one has to be read from the file
+        return recentX == -1 ? null : chunk(recentX, recentZ);
+    }
+
+    /**
+     * @return When the chunk was cached, without reading it from the file, or -1 if it isn't cached
+     */
+    private long cacheTimestamp(int x, int z) {
+        CachedChunk chunk = chunks[x][z];
+        if (chunk != null) {
+            return chunk.cacheTimestamp;
+        }
+        if (isInFile(x, z)) {
+            return file.cacheTimestamp(x, z);
+        }
+        return -1;
+    }
+
+    /**
+     * Rewrites every region file in the directory that's still in the old gzip compressed format into the current
+     * one. Regions in the old format are also converted one by one as they're loaded and saved, this just does them
+     * all at once, for example for a cache directory that's only ever going to be read.
+     *
+     * @param directory The directory the region files are in, for example {@code baritone/<server>/DIM-1}
+     * @param dimension The dimension the regions were cached in
+     * @return How many region files were converted
+     * @throws IOException If the directory couldn't be listed
+     */
+    public static int convertLegacyFiles(Path directory, DimensionType dimension) throws IOException {
+        List<CachedRegion> legacy = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r.*.bcr")) {
+            for (Path file : files) {
+                Matcher matcher = REGION_FILE.matcher(file.getFileName().toString());
+                // only the first generation can be in the old format
+                if (!matcher.matches() || matcher.group(3) != null || CachedRegionFile.isCurrentFormat(file)) {
+                    continue;
                 }
+                legacy.add(new CachedRegion(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), dimension));
+            }
+        }
+        int converted = 0;
+        for (CachedRegion region : legacy) {
+            region.load(directory.toString());
+            if (!region.rewrite || region.mostRecentlyModified() == null) {
+                continue; // failed to load, a newer generation was loaded instead, or everything in it expired
             }
+            region.save(directory.toString());
+            converted++;
         }
-        return recent;
+        return converted;
     }
 
     /**
@@ -355,7 +785,44 @@ public final class CachedRegion implements ICachedRegion {
         return this.z;
     }
 
-    private static Path getRegionFile(Path cacheDir, int regionX, int regionZ) {
-        return Paths.get(cacheDir.toString(), "r." + regionX + "." + regionZ + ".bcr");
+    /**
+     * @return The generations of region file of this region in the directory, newest first
+     */
+    private List<Integer> generations(Path directory) throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r." + this.x + "." + this.z + "*.bcr")) {
+            for (Path file : files) {
+                Matcher matcher = REGION_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) == this.x && Integer.parseInt(matcher.group(2)) == this.z) {
+                    generations.add(matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3)));
+                }
+            }
+        }
+        generations.sort(Comparator.reverseOrder());
+        return generations;
+    }
+
+    /**
+     * Deletes the region files of this region older than the specified generation. One that's still mapped can't be
+     * deleted on Windows, that one is left to be deleted by a later load or save.
+     */
+    private void deleteOldGenerations(Path directory, int keep) {
+        try {
+            for (int generation : generations(directory)) {
+                if (generation < keep) {
+                    Files.deleteIfExists(getRegionFile(directory, this.x, this.z, generation));
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Couldn't delete the old files of region " + this.x + "," + this.z + " yet: " + ex);
+        }
+    }
+
+    private static Path getRegionFile(Path cacheDir, int regionX, int regionZ, int generation) {
+        return Paths.get(cacheDir.toString(), "r." + regionX + "." + regionZ + (generation > 0 ? "." + generation : "") + ".bcr");
+    }
+
+    private static Path getJournalFile(Path cacheDir, int regionX, int regionZ) {
+        return Paths.get(cacheDir.toString(), "r." + regionX + "." + regionZ + ".bcj");
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.IBlockSource;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+
+/**
+ * Every cached region in a directory of region files, opened up front. Unlike {@link CachedWorld} there
+ * are no packer or save threads, nothing is ever written back, and nothing needs a running game, so saved cache data
+ * can be pathed through anywhere.
+ */
+public final class CachedRegionBlockSource implements IBlockSource {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final Long2ObjectMap<CachedRegion> regions = new Long2ObjectOpenHashMap<>();
+    private final DimensionType dimension;
+
+    /**
+     * The most recently used region. Only ever a region from the map, so a stale read from another thread is still
+     * correct, it just costs a map lookup.
+     */
+    private CachedRegion prev;
+
+    /**
+     * @param directory The directory the region files are in, for example {@code baritone/<server>/DIM-1}
+     * @param dimension The dimension the regions were cached in
+     * @throws IOException If the directory couldn't be listed
+     */
+    public CachedRegionBlockSource(Path directory, DimensionType dimension) throws IOException {
+        this.dimension = dimension;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r.*.bcr")) {
+            for (Path file : files) {
+                Matcher matcher = CachedRegion.REGION_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int regionX = Integer.parseInt(matcher.group(1));
+                int regionZ = Integer.parseInt(matcher.group(2));
+                if (regions.containsKey(getRegionID(regionX, regionZ))) {
+                    continue; // another generation of the same region, loading it picks the newest
+                }
+                CachedRegion region = new CachedRegion(regionX, regionZ, dimension);
+                region.load(directory.toString());
+                regions.put(getRegionID(regionX, regionZ), region);
+            }
+        }
+    }
+
+    /**
+     * @return How many regions were loaded
+     */
+    public int size() {
+        return regions.size();
+    }
+
+    @Override
+    public BlockState get(int x, int y, int z) {
+        CachedRegion region = getRegion(x >> 9, z >> 9);
+        if (region == null) {
+            return AIR;
+        }
+        BlockState state = region.getBlock(x & 511, y, z & 511);
+        return state == null ? AIR : state;
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        CachedRegion region = getRegion(x >> 9, z >> 9);
+        return region != null && region.isCached(x & 511, z & 511);
+    }
+
+    @Override
+    public int minY() {
+        return dimension.minY();
+    }
+
+    @Override
+    public int height() {
+        return dimension.height();
+    }
+
+    private CachedRegion getRegion(int regionX, int regionZ) {
+        CachedRegion region = prev;
+        if (region != null && region.getX() == regionX && region.getZ() == regionZ) {
+            return region;
+        }
+        region = regions.get(getRegionID(regionX, regionZ));
+        if (region != null) {
+            prev = region;
+        }
+        return region;
+    }
+
+    private static long getRegionID(int regionX, int regionZ) {
+        return (long) regionX & 0xFFFFFFFFL | ((long) regionZ & 0xFFFFFFFFL) << 32;
+    }
+}
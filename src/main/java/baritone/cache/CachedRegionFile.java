@@ -0,0 +1,367 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockUtils;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.DimensionType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A region file in the current format, memory mapped so that chunks are only read and decompressed when they're used.
+ * <p>
+ * The file starts with a header and an offset table with an entry for each of the 1024 chunks, followed by the chunk
+ * records. Each record is compressed on its own, or stored as is if compressing didn't help, so one chunk can be read
+ * without touching the rest of the file:
+ * <pre>
+ * int magic, int version, int height
+ * 1024 times: long cacheTimestamp, int offset (0 if not present), int length, int uncompressed length
+ * records:    packed chunk data, overview palette and indices, special block locations
+ * </pre>
+ * Chunks that changed since the file was written are in a {@link CachedRegionJournal} next to it.
+ * <p>
+ * A file is never written again once it's been mapped, because a mapped file can't be replaced on Windows, and other
+ * threads may still be reading from the old mapping. Instead every rewrite of a region goes to a new file with the next
+ * generation number in its name, see {@link CachedRegion}, and older generations are deleted once that's possible.
+ */
+final class CachedRegionFile {
+
+    /**
+     * Different from {@link CachedRegion}'s old magic value, which starts gzip compressed files that can never start
+     * with this
+     */
+    static final int MAGIC = 0x42435246;
+
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 20;
+    private static final int DATA_START = HEADER_SIZE + ENTRY_SIZE * 1024;
+
+    private final MappedByteBuffer buffer;
+    private final DimensionType dimension;
+    private final int regionX;
+    private final int regionZ;
+
+    private CachedRegionFile(MappedByteBuffer buffer, DimensionType dimension, int regionX, int regionZ) {
+        this.buffer = buffer;
+        this.dimension = dimension;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+    }
+
+    /**
+     * @return Whether the file is in this format, as opposed to the old gzip compressed one
+     */
+    static boolean isCurrentFormat(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) {
+                    return false;
+                }
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Maps the file and checks the header. Nothing else is read until a chunk is asked for.
+     */
+    static CachedRegionFile open(Path file, DimensionType dimension, int regionX, int regionZ) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < DATA_START) {
+            throw new IOException("Truncated region file " + file);
+        }
+        int magic = buffer.getInt(0);
+        if (magic != MAGIC) {
+            throw new IOException("Bad magic value " + magic);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported region file version " + version);
+        }
+        int height = buffer.getInt(8);
+        if (height != dimension.height()) {
+            throw new IOException("Region file is for height " + height + " but the dimension is " + dimension.height());
+        }
+        return new CachedRegionFile(buffer, dimension, regionX, regionZ);
+    }
+
+    boolean isPresent(int x, int z) {
+        return buffer.getInt(entry(x, z) + 8) != 0;
+    }
+
+    long cacheTimestamp(int x, int z) {
+        return buffer.getLong(entry(x, z));
+    }
+
+    /**
+     * Reads and decompresses one chunk
+     *
+     * @param x The chunk x coordinate, relative to the region
+     * @param z The chunk z coordinate, relative to the region
+     * @return The chunk, or null if it isn't in the file
+     */
+    CachedChunk read(int x, int z) throws IOException {
+        byte[] bytes = stored(x, z);
+        if (bytes == null) {
+            return null;
+        }
+        int entry = entry(x, z);
+        int rawLength = buffer.getInt(entry + 16);
+        if (bytes.length != rawLength) {
+            bytes = inflate(bytes, rawLength);
+        }
+        return decode(bytes, x + 32 * regionX, z + 32 * regionZ, buffer.getLong(entry), dimension);
+    }
+
+    /**
+     * @return The record of a chunk as it's stored, possibly compressed, or null if it isn't in the file
+     */
+    private byte[] stored(int x, int z) throws IOException {
+        int entry = entry(x, z);
+        int offset = buffer.getInt(entry + 8);
+        int length = buffer.getInt(entry + 12);
+        if (offset == 0) {
+            return null;
+        }
+        if (offset < DATA_START || length < 0 || (long) offset + length > buffer.capacity()) {
+            throw new IOException("Chunk " + x + "," + z + " is outside of the file");
+        }
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(offset).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @param bytes The uncompressed record of a chunk, as made by {@link #encode}
+     */
+    static CachedChunk decode(byte[] bytes, int chunkX, int chunkZ, long cacheTimestamp, DimensionType dimension) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        byte[] data = new byte[CachedChunk.sizeInBytes(CachedChunk.size(dimension.height()))];
+        in.readFully(data);
+
+        BlockState[] palette = new BlockState[in.readUnsignedByte() + 1];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = BlockUtils.stringToBlockRequired(in.readUTF()).defaultBlockState();
+        }
+        BlockState[] overview = new BlockState[256];
+        for (int i = 0; i < 256; i++) {
+            int id = in.readUnsignedByte();
+            if (id >= palette.length) {
+                throw new IOException("Malformed overview");
+            }
+            overview[i] = palette[id];
+        }
+
+        Map<String, List<BlockPos>> location = new HashMap<>();
+        int numSpecialBlockTypes = in.readUnsignedShort();
+        for (int i = 0; i < numSpecialBlockTypes; i++) {
+            String blockName = in.readUTF();
+            BlockUtils.stringToBlockRequired(blockName);
+            List<BlockPos> locs = new ArrayList<>();
+            location.put(blockName, locs);
+            int numLocations = in.readUnsignedShort();
+            if (numLocations == 0) {
+                // same as the old format, an entire chunk full of air can happen in the end
+                numLocations = 65536;
+            }
+            for (int j = 0; j < numLocations; j++) {
+                byte xz = in.readByte();
+                int X = xz & 0x0f;
+                int Z = (xz >>> 4) & 0x0f;
+                int Y = in.readInt();
+                locs.add(new BlockPos(X, Y + dimension.minY(), Z));
+            }
+        }
+        return new CachedChunk(chunkX, chunkZ, dimension.height(), ByteBuffer.wrap(data), overview, location, cacheTimestamp);
+    }
+
+    /**
+     * Writes all of the specified chunks to a temporary file next to the specified one, then moves it into place, so
+     * that a crash halfway through never leaves a broken file behind. The file mustn't be mapped, since a mapped file
+     * can't be replaced on Windows.
+     *
+     * @param chunks   A 32x32 array of chunks, null where a chunk isn't cached
+     * @param previous The file the region was loaded from, or null
+     * @param copy     Where a chunk is null, whether to copy it from the previous file as it's stored there, so that
+     *                 chunks that were never read don't need to be read to be written
+     * @return How many chunks were written
+     */
+    static int write(Path file, CachedChunk[][] chunks, CachedRegionFile previous, boolean[][] copy, DimensionType dimension) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        ByteArrayOutputStream table = new ByteArrayOutputStream(ENTRY_SIZE * 1024);
+        DataOutputStream tableOut = new DataOutputStream(table);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        int written = 0;
+        try {
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    CachedChunk chunk = chunks[x][z];
+                    byte[] copied = chunk == null && previous != null && copy[x][z] ? previous.stored(x, z) : null;
+                    if (copied != null) {
+                        int entry = entry(x, z);
+                        tableOut.writeLong(previous.buffer.getLong(entry));
+                        tableOut.writeInt(DATA_START + records.size());
+                        tableOut.writeInt(copied.length);
+                        tableOut.writeInt(previous.buffer.getInt(entry + 16));
+                        records.write(copied);
+                        written++;
+                        continue;
+                    }
+                    if (chunk == null) {
+                        tableOut.writeLong(0);
+                        tableOut.writeInt(0);
+                        tableOut.writeInt(0);
+                        tableOut.writeInt(0);
+                        continue;
+                    }
+                    byte[] raw = encode(chunk, dimension);
+                    byte[] compressed = deflate(deflater, raw);
+                    byte[] stored = compressed.length < raw.length ? compressed : raw;
+                    tableOut.writeLong(chunk.cacheTimestamp);
+                    tableOut.writeInt(DATA_START + records.size());
+                    tableOut.writeInt(stored.length);
+                    tableOut.writeInt(raw.length);
+                    records.write(stored);
+                    written++;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimension.height());
+            table.writeTo(out);
+            records.writeTo(out);
+        }
+        try {
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        return written;
+    }
+
+    static byte[] encode(CachedChunk chunk, DimensionType dimension) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.sizeInBytes + 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.write(chunk.toByteArray());
+
+        // 256 columns can't have more than 256 different surface blocks, so the indices fit in a byte
+        Reference2IntOpenHashMap<Block> ids = new Reference2IntOpenHashMap<>();
+        List<Block> palette = new ArrayList<>();
+        BlockState[] overview = chunk.getOverview();
+        for (BlockState state : overview) {
+            if (!ids.containsKey(state.getBlock())) {
+                ids.put(state.getBlock(), palette.size());
+                palette.add(state.getBlock());
+            }
+        }
+        out.writeByte(palette.size() - 1);
+        for (Block block : palette) {
+            out.writeUTF(BlockUtils.blockToString(block));
+        }
+        for (BlockState state : overview) {
+            out.writeByte(ids.getInt(state.getBlock()));
+        }
+
+        Map<String, List<BlockPos>> locs = chunk.getRelativeBlocks();
+        out.writeShort(locs.size());
+        for (Map.Entry<String, List<BlockPos>> entry : locs.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeShort(entry.getValue().size());
+            for (BlockPos pos : entry.getValue()) {
+                out.writeByte((byte) (pos.getZ() << 4 | pos.getX()));
+                out.writeInt(pos.getY() - dimension.minY());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        byte[] buf = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Malformed compressed chunk");
+            }
+            return raw;
+        } catch (DataFormatException ex) {
+            throw new IOException("Malformed compressed chunk", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int entry(int x, int z) {
+        return HEADER_SIZE + (x * 32 + z) * ENTRY_SIZE;
+    }
+}
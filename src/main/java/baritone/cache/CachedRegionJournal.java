@@ -0,0 +1,206 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import net.minecraft.world.level.dimension.DimensionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The chunks of a region that changed since its {@link CachedRegionFile} was written, appended to a file next to it on
+ * every save, so that saving takes time proportional to what changed instead of rewriting the whole region. Once the
+ * journal is bigger than the region file, the next save writes the region file from scratch and deletes the journal.
+ * <p>
+ * Each record has a checksum, so a record that was cut off by a crash is recognized, and it and everything after it
+ * are dropped the next time the journal is read:
+ * <pre>
+ * int magic, int version, int height
+ * records: int chunk (x * 32 + z), long cacheTimestamp, int length (-1 if the chunk was removed),
+ *          int uncompressed length, int crc32 of all of the above and the record, record as in the region file
+ * </pre>
+ * A record only replaces what's there if its cache timestamp is at least as new, and a removal only removes what's at
+ * least as old. That way a journal that outlives the region file it was written against, because of a crash between
+ * writing the new region file and deleting the journal, can't undo anything newer.
+ */
+final class CachedRegionJournal {
+
+    /**
+     * Different from {@link CachedRegionFile#MAGIC}, so one can never be mistaken for the other
+     */
+    static final int MAGIC = 0x42434a4c;
+
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_HEADER_SIZE = 24;
+
+    private CachedRegionJournal() {}
+
+    /**
+     * Appends the specified changes to the journal, creating it if it doesn't exist yet
+     */
+    static void append(Path file, List<Change> changes, DimensionType dimension) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(1024);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        CRC32 crc = new CRC32();
+        try {
+            for (Change change : changes) {
+                byte[] stored = new byte[0];
+                int length = -1;
+                int rawLength = 0;
+                if (change.chunk != null) {
+                    byte[] raw = CachedRegionFile.encode(change.chunk, dimension);
+                    byte[] compressed = CachedRegionFile.deflate(deflater, raw);
+                    stored = compressed.length < raw.length ? compressed : raw;
+                    length = stored.length;
+                    rawLength = raw.length;
+                }
+                if (records.remaining() < RECORD_HEADER_SIZE + stored.length) {
+                    records = ByteBuffer.allocate(Math.max(records.capacity() * 2, records.position() + RECORD_HEADER_SIZE + stored.length)).put(records.flip());
+                }
+                int start = records.position();
+                records.putInt(change.x * 32 + change.z);
+                records.putLong(change.cacheTimestamp);
+                records.putInt(length);
+                records.putInt(rawLength);
+                crc.reset();
+                crc.update(records.array(), start, 20);
+                crc.update(stored);
+                records.putInt((int) crc.getValue());
+                records.put(stored);
+            }
+        } finally {
+            deflater.end();
+        }
+        records.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(dimension.height()).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        }
+    }
+
+    /**
+     * Reads every record in the journal, in the order they were appended. A journal that's unreadable is emptied, and
+     * one that ends in a broken record is cut off before it, so that what's appended next can be read.
+     *
+     * @param replay Called with each record, the chunk is null if it was removed
+     */
+    static void replay(Path file, DimensionType dimension, int regionX, int regionZ, Replay replay) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Journal " + file + " is too big");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != dimension.height()) {
+                System.out.println("Discarding unreadable journal " + file);
+                channel.truncate(0);
+                return;
+            }
+            CRC32 crc = new CRC32();
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                int chunk = buffer.getInt(position);
+                long cacheTimestamp = buffer.getLong(position + 4);
+                int length = buffer.getInt(position + 12);
+                int rawLength = buffer.getInt(position + 16);
+                int stored = Math.max(length, 0);
+                if (chunk < 0 || chunk >= 1024 || length < -1 || position + RECORD_HEADER_SIZE + (long) stored > size) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.array(), position, 20);
+                crc.update(buffer.array(), position + RECORD_HEADER_SIZE, stored);
+                if ((int) crc.getValue() != buffer.getInt(position + 20)) {
+                    break;
+                }
+                int x = chunk >> 5;
+                int z = chunk & 31;
+                CachedChunk decoded = null;
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    buffer.get(position + RECORD_HEADER_SIZE, bytes);
+                    try {
+                        if (length != rawLength) {
+                            bytes = CachedRegionFile.inflate(bytes, rawLength);
+                        }
+                        decoded = CachedRegionFile.decode(bytes, x + 32 * regionX, z + 32 * regionZ, cacheTimestamp, dimension);
+                    } catch (Exception ex) { // same as the region file, a corrupted chunk is just not cached
+                        ex.printStackTrace();
+                        break;
+                    }
+                }
+                replay.apply(x, z, cacheTimestamp, decoded);
+                position += RECORD_HEADER_SIZE + stored;
+            }
+            if (position < size) {
+                System.out.println("Dropping the last " + (size - position) + " bytes of journal " + file + ", they were cut off or corrupted");
+                channel.truncate(position);
+            }
+        }
+    }
+
+    /**
+     * A chunk that changed since the last save
+     */
+    static final class Change {
+
+        final int x;
+        final int z;
+
+        /**
+         * The cache timestamp of the chunk, or when it was noticed to be removed
+         */
+        final long cacheTimestamp;
+
+        /**
+         * The chunk, or null if it was removed
+         */
+        final CachedChunk chunk;
+
+        Change(int x, int z, long cacheTimestamp, CachedChunk chunk) {
+            this.x = x;
+            this.z = z;
+            this.cacheTimestamp = cacheTimestamp;
+            this.chunk = chunk;
+        }
+    }
+
+    @FunctionalInterface
+    interface Replay {
+
+        void apply(int x, int z, long cacheTimestamp, CachedChunk chunk);
+    }
+}
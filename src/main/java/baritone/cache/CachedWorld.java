@@ -21,13 +21,15 @@ import baritone.Baritone;
 import baritone.api.BaritoneAPI;
 import baritone.api.IBaritone;
 import baritone.api.cache.ICachedWorld;
+import baritone.api.cache.IChunkPackerStats;
+import baritone.api.cache.IRegionCacheStats;
 import baritone.api.cache.IWorldData;
+import baritone.api.utils.BlockUtils;
 import baritone.api.utils.Helper;
-import com.google.common.cache.CacheBuilder;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.dimension.DimensionType;
 
@@ -35,9 +37,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Brady
@@ -51,9 +58,23 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private static final int REGION_MAX = 30_000_000 / 512 + 1;
 
     /**
-     * A map of all of the cached regions.
+     * Region files are read on these threads, so that whoever first needs a region isn't stuck doing it
      */
-    private Long2ObjectMap<CachedRegion> cachedRegions = new Long2ObjectOpenHashMap<>();
+    private static final ExecutorService REGION_LOADER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "Baritone region loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A map of all of the cached regions that are done loading.
+     */
+    private final Map<Long, CachedRegion> cachedRegions = new ConcurrentHashMap<>();
+
+    /**
+     * The regions that are being loaded from disk right now, they're moved into {@link #cachedRegions} when they're done
+     */
+    private final Map<Long, CompletableFuture<CachedRegion>> loadingRegions = new ConcurrentHashMap<>();
 
     /**
      * The directory that the cached region files are saved to
@@ -61,16 +82,16 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private final String directory;
 
     /**
-     * Queue of positions to pack. Refers to the toPackMap, in that every element of this queue will be a
-     * key in that map.
+     * The chunks waiting to be packed
      */
-    private final LinkedBlockingQueue<ChunkPos> toPackQueue = new LinkedBlockingQueue<>();
+    private final ChunkPackerQueue toPack = new ChunkPackerQueue(this::playerPosition);
+
+    private final RegionCacheStats stats = new RegionCacheStats(cachedRegions);
 
     /**
-     * All chunk positions pending packing. This map will be updated in-place if a new update to the chunk occurs
-     * while waiting in the queue for the packer thread to get to it.
+     * Whether a thread is in {@link #evictOverBudget()}, so that the others don't all pick the same regions to evict
      */
-    private final Map<ChunkPos, LevelChunk> toPackMap = CacheBuilder.newBuilder().softValues().<ChunkPos, LevelChunk>build().asMap();
+    private final AtomicBoolean evicting = new AtomicBoolean();
 
     private final DimensionType dimension;
 
@@ -84,7 +105,9 @@ public final class CachedWorld implements ICachedWorld, Helper {
         this.directory = directory.toString();
         this.dimension = dimension;
         System.out.println("Cached world directory: " + directory);
-        Baritone.getExecutor().execute(new PackerThread());
+        for (int i = 0; i < Math.max(1, Baritone.settings().chunkPackerThreads.value); i++) {
+            Baritone.getExecutor().execute(new PackerThread());
+        }
         Baritone.getExecutor().execute(() -> {
             try {
                 Thread.sleep(30000);
@@ -103,9 +126,17 @@ public final class CachedWorld implements ICachedWorld, Helper {
 
     @Override
     public final void queueForPacking(LevelChunk chunk) {
-        if (toPackMap.put(chunk.getPos(), chunk) == null) {
-            toPackQueue.add(chunk.getPos());
-        }
+        toPack.offer(chunk, Baritone.settings().chunkPackerQueueMaxSize.value);
+    }
+
+    @Override
+    public final IChunkPackerStats getPackerStats() {
+        return toPack;
+    }
+
+    @Override
+    public final IRegionCacheStats getRegionCacheStats() {
+        return stats;
     }
 
     @Override
@@ -124,6 +155,11 @@ public final class CachedWorld implements ICachedWorld, Helper {
     @Override
     public final ArrayList<BlockPos> getLocationsOf(String block, int maximum, int centerX, int centerZ, int maxRegionDistanceSq) {
         ArrayList<BlockPos> res = new ArrayList<>();
+        Block type = BlockUtils.stringToBlockNullable(block);
+        if (type == null) {
+            return res;
+        }
+        LongArrayList found = new LongArrayList();
         int centerRegionX = centerX >> 9;
         int centerRegionZ = centerZ >> 9;
 
@@ -137,24 +173,43 @@ public final class CachedWorld implements ICachedWorld, Helper {
                     }
                     int regionX = xoff + centerRegionX;
                     int regionZ = zoff + centerRegionZ;
-                    CachedRegion region = getOrCreateRegion(regionX, regionZ);
-                    if (region != null) {
-                        // TODO: 100% verify if this or addAll is faster.
-                        res.addAll(region.getLocationsOf(block));
+                    // regions that aren't loaded yet will be next time, until then they're just not cached
+                    CachedRegion region = getRegion(regionX, regionZ);
+                    if (region == null) {
+                        tryLoadFromDisk(regionX, regionZ);
+                    } else {
+                        region.getLocationsOf(type, found);
                     }
                 }
             }
-            if (res.size() >= maximum) {
-                return res;
+            if (found.size() >= maximum) {
+                break;
             }
             searchRadius++;
         }
+        res.ensureCapacity(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            res.add(BlockPos.of(found.getLong(i)));
+        }
         return res;
     }
 
     private void updateCachedChunk(CachedChunk chunk) {
-        CachedRegion region = getOrCreateRegion(chunk.x >> 5, chunk.z >> 5);
-        region.updateCachedChunk(chunk.x & 31, chunk.z & 31, chunk);
+        // this is on the packer thread so it can wait, and it has to, or the chunk would be overwritten by the load
+        long id = getRegionID(chunk.x >> 5, chunk.z >> 5);
+        while (true) {
+            CachedRegion region = tryLoadFromDisk(chunk.x >> 5, chunk.z >> 5).join();
+            synchronized (region) {
+                // evict removes regions under this lock, if it got to this one first the chunk has to go into a fresh load
+                if (cachedRegions.get(id) != region) {
+                    continue;
+                }
+                region.updateCachedChunk(chunk.x & 31, chunk.z & 31, chunk);
+            }
+            region.touch();
+            break;
+        }
+        evictOverBudget();
     }
 
     @Override
@@ -183,7 +238,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
     /**
      * Delete regions that are too far from the player
      */
-    private synchronized void prune() {
+    private void prune() {
         if (!Baritone.settings().pruneRegionsFromRAM.value) {
             return;
         }
@@ -202,15 +257,83 @@ public final class CachedWorld implements ICachedWorld, Helper {
         }
     }
 
+    /**
+     * Removes the regions that were used longest ago until the rest fit in
+     * {@link baritone.api.Settings#cachedRegionsMaxMegabytes}. The regions around the player are always kept. Regions
+     * with unsaved changes are saved on a region loader thread first, and only removed if nothing changed meanwhile.
+     */
+    private void evictOverBudget() {
+        long budget = Baritone.settings().cachedRegionsMaxMegabytes.value * 1024L * 1024L;
+        if (budget <= 0 || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<CachedRegion> regions = allRegions();
+            long total = 0;
+            for (CachedRegion region : regions) {
+                total += region.memoryUsage();
+            }
+            if (total <= budget) {
+                return;
+            }
+            // lastUsed keeps changing, so sort by what it was at one point or the sort could see it contradict itself
+            Reference2LongOpenHashMap<CachedRegion> lastUsed = new Reference2LongOpenHashMap<>(regions.size());
+            for (CachedRegion region : regions) {
+                lastUsed.put(region, region.lastUsed());
+            }
+            regions.sort(Comparator.comparingLong(lastUsed::getLong));
+            BlockPos center = guessPosition();
+            for (CachedRegion region : regions) {
+                if (total <= budget) {
+                    break;
+                }
+                if (Math.abs(region.getX() - (center.getX() >> 9)) <= 1 && Math.abs(region.getZ() - (center.getZ() >> 9)) <= 1) {
+                    continue;
+                }
+                total -= region.memoryUsage();
+                evict(region);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void evict(CachedRegion region) {
+        long id = getRegionID(region.getX(), region.getZ());
+        if (!Baritone.settings().chunkCaching.value) {
+            synchronized (region) {
+                if (cachedRegions.remove(id, region)) {
+                    stats.evictions.increment();
+                }
+            }
+            return;
+        }
+        synchronized (region) {
+            if (!region.hasUnsavedChanges()) {
+                if (cachedRegions.remove(id, region)) {
+                    stats.evictions.increment();
+                }
+                return;
+            }
+        }
+        CompletableFuture.runAsync(() -> {
+            region.save(this.directory);
+            synchronized (region) {
+                // a chunk could have been packed into it while it was saving, then it has to stay until the next try
+                if (!region.hasUnsavedChanges() && cachedRegions.remove(id, region)) {
+                    stats.evictions.increment();
+                }
+            }
+        }, REGION_LOADER);
+    }
+
     /**
      * If we are still in this world and dimension, return player feet, otherwise return most recently modified chunk
      */
     private BlockPos guessPosition() {
-        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
-            IWorldData data = ibaritone.getWorldProvider().getCurrentWorld();
-            if (data != null && data.getCachedWorld() == this && ibaritone.getPlayerContext().player() != null) {
-                return ibaritone.getPlayerContext().playerFeet();
-            }
+        BlockPos playerPosition = playerPosition();
+        if (playerPosition != null) {
+            return playerPosition;
         }
         CachedChunk mostRecentlyModified = null;
         for (CachedRegion region : allRegions()) {
@@ -231,7 +354,20 @@ public final class CachedWorld implements ICachedWorld, Helper {
         return new BlockPos((mostRecentlyModified.x << 4) + 8, 0, (mostRecentlyModified.z << 4) + 8);
     }
 
-    private synchronized List<CachedRegion> allRegions() {
+    /**
+     * @return The feet of a player in this world and dimension, or null if there isn't one
+     */
+    private BlockPos playerPosition() {
+        for (IBaritone ibaritone : BaritoneAPI.getProvider().getAllBaritones()) {
+            IWorldData data = ibaritone.getWorldProvider().getCurrentWorld();
+            if (data != null && data.getCachedWorld() == this && ibaritone.getPlayerContext().player() != null) {
+                return ibaritone.getPlayerContext().playerFeet();
+            }
+        }
+        return null;
+    }
+
+    private List<CachedRegion> allRegions() {
         return new ArrayList<>(this.cachedRegions.values());
     }
 
@@ -247,29 +383,53 @@ public final class CachedWorld implements ICachedWorld, Helper {
         System.out.println("World load took " + (now - start) + "ms");
     }
 
+    /**
+     * Never waits on disk I/O, a region that's still being loaded is treated as not cached yet
+     *
+     * @return The region at the specified region coordinates, or null if it isn't loaded
+     */
     @Override
-    public final synchronized CachedRegion getRegion(int regionX, int regionZ) {
-        return cachedRegions.get(getRegionID(regionX, regionZ));
+    public final CachedRegion getRegion(int regionX, int regionZ) {
+        CachedRegion region = cachedRegions.get(getRegionID(regionX, regionZ));
+        if (region == null) {
+            stats.misses.increment();
+        } else {
+            stats.hits.increment();
+            region.touch();
+        }
+        return region;
     }
 
     /**
-     * Returns the region at the specified region coordinates. If a
-     * region is not found, then a new one is created.
+     * Starts loading the region at the specified region coordinates from disk, unless it's already loaded or loading.
+     * If there's no file for it, it's loaded as an empty region.
      *
      * @param regionX The region X coordinate
      * @param regionZ The region Z coordinate
-     * @return The region located at the specified coordinates
+     * @return The region, once it's loaded
      */
-    private synchronized CachedRegion getOrCreateRegion(int regionX, int regionZ) {
-        return cachedRegions.computeIfAbsent(getRegionID(regionX, regionZ), id -> {
-            CachedRegion newRegion = new CachedRegion(regionX, regionZ, dimension);
-            newRegion.load(this.directory);
-            return newRegion;
-        });
-    }
-
-    public void tryLoadFromDisk(int regionX, int regionZ) {
-        getOrCreateRegion(regionX, regionZ);
+    public CompletableFuture<CachedRegion> tryLoadFromDisk(int regionX, int regionZ) {
+        long id = getRegionID(regionX, regionZ);
+        CachedRegion region = cachedRegions.get(id);
+        if (region != null) {
+            region.touch();
+            return CompletableFuture.completedFuture(region);
+        }
+        return loadingRegions.computeIfAbsent(id, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                CachedRegion loaded = cachedRegions.get(id);
+                if (loaded != null) {
+                    return loaded; // finished loading between the check above and now
+                }
+                CachedRegion newRegion = new CachedRegion(regionX, regionZ, dimension);
+                newRegion.load(this.directory);
+                stats.loads.increment();
+                return cachedRegions.computeIfAbsent(id, i -> newRegion);
+            } finally {
+                loadingRegions.remove(id);
+                evictOverBudget();
+            }
+        }, REGION_LOADER));
     }
 
     /**
@@ -280,7 +440,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
      * @param regionZ The region Z coordinate
      * @return The region ID
      */
-    private long getRegionID(int regionX, int regionZ) {
+    private static long getRegionID(int regionX, int regionZ) {
         if (!isRegionInWorld(regionX, regionZ)) {
             return 0;
         }
@@ -295,23 +455,35 @@ public final class CachedWorld implements ICachedWorld, Helper {
      * @param regionZ The region Z coordinate
      * @return Whether or not the region is in world bounds
      */
-    private boolean isRegionInWorld(int regionX, int regionZ) {
+    private static boolean isRegionInWorld(int regionX, int regionZ) {
         return regionX <= REGION_MAX && regionX >= -REGION_MAX && regionZ <= REGION_MAX && regionZ >= -REGION_MAX;
     }
 
     private class PackerThread implements Runnable {
 
+        private final ChunkPacker.Scratch scratch = new ChunkPacker.Scratch();
+
         public void run() {
             while (true) {
                 try {
-                    ChunkPos pos = toPackQueue.take();
-                    LevelChunk chunk = toPackMap.remove(pos);
-                    if (toPackQueue.size() > Baritone.settings().chunkPackerQueueMaxSize.value) {
-                        continue;
+                    ChunkPackerQueue.Pending pending = toPack.take();
+                    boolean stored = false;
+                    try {
+                        LevelChunk chunk = pending.chunk();
+                        if (chunk == null) {
+                            continue; // garbage collected since it was taken, done counts it as dropped
+                        }
+                        CachedChunk cached = ChunkPacker.pack(chunk, scratch);
+                        if (Baritone.settings().hierarchicalPathing.value) {
+                            // do this here instead of making a long distance search wait on it
+                            cached.getPortals(scratch);
+                        }
+                        CachedWorld.this.updateCachedChunk(cached);
+                        stored = true;
+                        //System.out.println("Processed chunk at " + chunk.x + "," + chunk.z);
+                    } finally {
+                        toPack.done(pending, stored);
                     }
-                    CachedChunk cached = ChunkPacker.pack(chunk);
-                    CachedWorld.this.updateCachedChunk(cached);
-                    //System.out.println("Processed chunk at " + chunk.x + "," + chunk.z);
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                     break;
@@ -19,8 +19,11 @@ package baritone.cache;
 
 import baritone.api.utils.BlockUtils;
 import baritone.pathing.movement.MovementHelper;
+import baritone.utils.accessor.IPalettedContainer;
+import baritone.utils.jfr.ChunkPackEvent;
 import baritone.utils.pathing.PathingBlockType;
 import net.minecraft.core.BlockPos;
+import net.minecraft.util.BitStorage;
 import net.minecraft.world.level.block.AirBlock;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
@@ -28,13 +31,18 @@ import net.minecraft.world.level.block.DoublePlantBlock;
 import net.minecraft.world.level.block.FlowerBlock;
 import net.minecraft.world.level.block.TallGrassBlock;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.GlobalPalette;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.Palette;
 import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.SingleValuePalette;
 import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.phys.Vec3;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
 
 import static baritone.utils.BlockStateInterface.getFromChunk;
@@ -48,16 +56,40 @@ public final class ChunkPacker {
     private ChunkPacker() {}
 
     public static CachedChunk pack(LevelChunk chunk) {
+        return pack(chunk, new Scratch());
+    }
+
+    /**
+     * @param scratch Reused between calls on the same thread, so that packing doesn't allocate and grow a fresh bitset
+     *                for every chunk
+     */
+    static CachedChunk pack(LevelChunk chunk, Scratch scratch) {
+        ChunkPackEvent event = new ChunkPackEvent();
+        event.begin();
+        try {
+            return pack0(chunk, scratch);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.chunkX = chunk.getPos().x;
+                event.chunkZ = chunk.getPos().z;
+                event.commit();
+            }
+        }
+    }
+
+    private static CachedChunk pack0(LevelChunk chunk, Scratch scratch) {
         //long start = System.nanoTime() / 1000000L;
 
         Map<String, List<BlockPos>> specialBlocks = new HashMap<>();
+        Set<Block> tracked = CachedChunk.trackedBlocks();
         final int height = chunk.getLevel().dimensionType().height();
-        BitSet bitSet = new BitSet(CachedChunk.size(height));
+        long[] words = scratch.words(CachedChunk.size(height));
         try {
             LevelChunkSection[] chunkInternalStorageArray = chunk.getSections();
             for (int y0 = 0; y0 < height / 16; y0++) {
                 LevelChunkSection extendedblockstorage = chunkInternalStorageArray[y0];
-                if (extendedblockstorage == null) {
+                if (extendedblockstorage == null || extendedblockstorage.hasOnlyAir()) {
                     // any 16x16x16 area that's all air will have null storage
                     // for example, in an ocean biome, with air from y=64 to y=256
                     // the first 4 extended blocks storages will be full
@@ -68,26 +100,9 @@ public final class ChunkPacker {
                     // since a bitset is initialized to all zero, and air is saved as zeros
                     continue;
                 }
-                PalettedContainer<BlockState> bsc = extendedblockstorage.getStates();
                 int yReal = y0 << 4;
-                // the mapping of BlockStateContainer.getIndex from xyz to index is y << 8 | z << 4 | x;
-                // for better cache locality, iterate in that order
-                for (int y1 = 0; y1 < 16; y1++) {
-                    int y = y1 | yReal;
-                    for (int z = 0; z < 16; z++) {
-                        for (int x = 0; x < 16; x++) {
-                            int index = CachedChunk.getPositionIndex(x, y, z);
-                            BlockState state = bsc.get(x, y1, z);
-                            boolean[] bits = getPathingBlockType(state, chunk, x, y, z).getBits();
-                            bitSet.set(index, bits[0]);
-                            bitSet.set(index + 1, bits[1]);
-                            Block block = state.getBlock();
-                            if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
-                                String name = BlockUtils.blockToString(block);
-                                specialBlocks.computeIfAbsent(name, b -> new ArrayList<>()).add(new BlockPos(x, y+chunk.getMinY(), z));
-                            }
-                        }
-                    }
+                if (!packSectionFromPalette(chunk, extendedblockstorage, yReal, words, specialBlocks, tracked)) {
+                    packSection(chunk, extendedblockstorage, yReal, words, specialBlocks, tracked);
                 }
             }
         } catch (Exception e) {
@@ -104,7 +119,7 @@ public final class ChunkPacker {
             for (int x = 0; x < 16; x++) {
                 for (int y = height - 1; y >= 0; y--) {
                     int index = CachedChunk.getPositionIndex(x, y, z);
-                    if (bitSet.get(index) || bitSet.get(index + 1)) {
+                    if ((words[index >> 6] >>> (index & 63) & 3) != 0) {
                         blocks[z << 4 | x] = getFromChunk(chunk, x, y, z);
                         continue https;
                     }
@@ -113,7 +128,187 @@ public final class ChunkPacker {
             }
         }
         // @formatter:on
-        return new CachedChunk(chunk.getPos().x, chunk.getPos().z, height, bitSet, blocks, specialBlocks, System.currentTimeMillis());
+        // copied, so the scratch words can be reused right away
+        ByteBuffer data = ByteBuffer.allocate(CachedChunk.sizeInBytes(CachedChunk.size(height))).order(ByteOrder.LITTLE_ENDIAN);
+        data.asLongBuffer().put(words, 0, data.capacity() / 8);
+        return new CachedChunk(chunk.getPos().x, chunk.getPos().z, height, data, blocks, specialBlocks, System.currentTimeMillis());
+    }
+
+    /**
+     * Buffers for packing and for {@link ChunkPortals#compute}, one per packer thread and one per long distance search
+     */
+    public static final class Scratch {
+
+        private long[] words = new long[0];
+        private byte[] types = new byte[0];
+        private int[] components = new int[0];
+        private int[] queue = new int[0];
+
+        /**
+         * @param bits How many bits the chunk needs
+         * @return Zeroed words to pack the chunk into
+         */
+        long[] words(int bits) {
+            int length = (bits + 63) >> 6;
+            if (words.length != length) {
+                words = new long[length];
+            } else {
+                Arrays.fill(words, 0L);
+            }
+            return words;
+        }
+
+        /**
+         * @return The pathing block type of every block of a chunk, filled in completely by the caller
+         */
+        byte[] types(int blocks) {
+            if (types.length != blocks) {
+                types = new byte[blocks];
+            }
+            return types;
+        }
+
+        /**
+         * @return Zeroed component ids for every block of a chunk
+         */
+        int[] components(int blocks) {
+            if (components.length != blocks) {
+                components = new int[blocks];
+            } else {
+                Arrays.fill(components, 0);
+            }
+            return components;
+        }
+
+        /**
+         * @return A flood fill queue for every block of a chunk, only read where it was written
+         */
+        int[] queue(int blocks) {
+            if (queue.length != blocks) {
+                queue = new int[blocks];
+            }
+            return queue;
+        }
+    }
+
+    /**
+     * Packs a section block by block
+     */
+    private static void packSection(LevelChunk chunk, LevelChunkSection section, int yReal, long[] words, Map<String, List<BlockPos>> specialBlocks, Set<Block> tracked) {
+        PalettedContainer<BlockState> bsc = section.getStates();
+        // the mapping of BlockStateContainer.getIndex from xyz to index is y << 8 | z << 4 | x;
+        // for better cache locality, iterate in that order
+        for (int y1 = 0; y1 < 16; y1++) {
+            int y = y1 | yReal;
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int index = CachedChunk.getPositionIndex(x, y, z);
+                    BlockState state = bsc.get(x, y1, z);
+                    // index is always even, so both bits are in the same word
+                    words[index >> 6] |= code(getPathingBlockType(state, chunk, x, y, z)) << (index & 63);
+                    Block block = state.getBlock();
+                    if (tracked.contains(block)) {
+                        String name = BlockUtils.blockToString(block);
+                        specialBlocks.computeIfAbsent(name, b -> new ArrayList<>()).add(new BlockPos(x, y + chunk.getMinY(), z));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs a section by classifying each entry of its palette once, then reading the palette indices straight out
+     * of the packed longs. Only still water has to be looked at block by block, because whether it's flowing depends on
+     * its neighbors, and in a section of nothing but still water only the edges of the chunk do.
+     *
+     * @return Whether it worked, if not the section has to be packed block by block
+     */
+    private static boolean packSectionFromPalette(LevelChunk chunk, LevelChunkSection section, int yReal, long[] words, Map<String, List<BlockPos>> specialBlocks, Set<Block> tracked) {
+        IPalettedContainer<BlockState> container = (IPalettedContainer<BlockState>) section.getStates();
+        Palette<BlockState> palette = container.getPalette();
+        BitStorage storage = container.getStorage();
+        if (storage == null || palette instanceof GlobalPalette) {
+            // a global palette is the entire registry, classifying all of it for one section isn't worth it
+            return false;
+        }
+        int size = palette.getSize();
+        BlockState[] states = new BlockState[size];
+        long[] codes = new long[size];
+        boolean[] perBlock = new boolean[size];
+        String[] special = new String[size];
+        for (int i = 0; i < size; i++) {
+            BlockState state = palette.valueFor(i);
+            states[i] = state;
+            if (MovementHelper.isWater(state) && !MovementHelper.possiblyFlowing(state)) {
+                perBlock[i] = true;
+            } else {
+                // everything other than still water is classified the same no matter where it is
+                codes[i] = code(getPathingBlockType(state, chunk, 0, 0, 0));
+            }
+            if (tracked.contains(state.getBlock())) {
+                special[i] = BlockUtils.blockToString(state.getBlock());
+            }
+        }
+
+        if (palette instanceof SingleValuePalette) {
+            if (special[0] != null) {
+                return false;
+            }
+            // every 2 bit slot in the section gets the same code, and each layer is 8 whole words
+            long pattern = (perBlock[0] ? code(PathingBlockType.WATER) : codes[0]) * 0x5555555555555555L;
+            if (pattern != 0) {
+                int from = CachedChunk.getPositionIndex(0, yReal, 0) >> 6;
+                Arrays.fill(words, from, from + 16 * 8, pattern);
+            }
+            if (perBlock[0]) {
+                // a section of nothing but still water has no flowing neighbors inside the chunk, so only the columns on
+                // the edge of the chunk, which look at the flow, can be anything other than water
+                for (int y1 = 0; y1 < 16; y1++) {
+                    int y = y1 | yReal;
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x += z == 0 || z == 15 ? 1 : 15) {
+                            int index = CachedChunk.getPositionIndex(x, y, z);
+                            long code = code(getPathingBlockType(states[0], chunk, x, y, z));
+                            words[index >> 6] = (words[index >> 6] & ~(3L << (index & 63))) | code << (index & 63);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        long[] raw = storage.getRaw();
+        int bitsPerEntry = storage.getBits();
+        long maxEntryValue = (1L << bitsPerEntry) - 1L;
+        int arraySize = storage.getSize();
+        // same layout as FasterWorldScanner.visitSection, entries never span two longs
+        for (int i = 0, idx = 0; i < raw.length && idx < arraySize; ++i) {
+            long l = raw[i];
+            for (int offset = 0; offset <= (64 - bitsPerEntry) && idx < arraySize; offset += bitsPerEntry, ++idx) {
+                int value = (int) ((l >> offset) & maxEntryValue);
+                if (codes[value] == 0 && !perBlock[value] && special[value] == null) {
+                    continue; // air, the most common by far
+                }
+                int x = idx & 15;
+                int z = (idx >> 4) & 15;
+                int y = (idx >> 8) | yReal;
+                int index = CachedChunk.getPositionIndex(x, y, z);
+                long code = perBlock[value] ? code(getPathingBlockType(states[value], chunk, x, y, z)) : codes[value];
+                words[index >> 6] |= code << (index & 63);
+                if (special[value] != null) {
+                    specialBlocks.computeIfAbsent(special[value], b -> new ArrayList<>()).add(new BlockPos(x, y + chunk.getMinY(), z));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The 2 bits of the type, in the order they go in the packed data
+     */
+    private static long code(PathingBlockType type) {
+        boolean[] bits = type.getBits();
+        return (bits[0] ? 1L : 0L) | (bits[1] ? 2L : 0L);
     }
 
     private static PathingBlockType getPathingBlockType(BlockState state, LevelChunk chunk, int x, int y, int z) {
@@ -0,0 +1,245 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.cache.IChunkPackerStats;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.lang.ref.SoftReference;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The chunks waiting for a packer thread. A chunk that's queued again before it's packed is only packed once, with
+ * its newest contents. Packers take the chunk closest to the player first, and when the queue is full the chunk
+ * furthest from the player is discarded, so that wherever the player is gets cached even when flying faster than the
+ * packers can keep up.
+ * <p>
+ * Chunks are only softly reachable from here. Most of them have been unloaded by the client already, and the queue
+ * shouldn't be what runs the game out of memory, so they're dropped if the garbage collector needs them back.
+ */
+final class ChunkPackerQueue implements IChunkPackerStats {
+
+    /**
+     * In insertion order, so that without a player to measure distance from it's oldest first
+     */
+    private final LinkedHashMap<ChunkPos, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * The chunks a packer is packing right now. A chunk that's queued again meanwhile waits for that to be done, so
+     * that its older contents can't be stored after its newer ones.
+     */
+    private final Set<ChunkPos> packing = new HashSet<>();
+
+    /**
+     * Where the player is, or null if there's no player in this world
+     */
+    private final Supplier<BlockPos> center;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder packed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    ChunkPackerQueue(Supplier<BlockPos> center) {
+        this.center = center;
+    }
+
+    void offer(LevelChunk chunk, int maxSize) {
+        maxSize = Math.max(0, maxSize);
+        synchronized (pending) {
+            Pending existing = pending.get(chunk.getPos());
+            if (existing != null) {
+                existing.chunk = new SoftReference<>(chunk);
+                return;
+            }
+            pending.put(chunk.getPos(), new Pending(chunk, System.nanoTime()));
+            queued.increment();
+            if (pending.size() > maxSize) {
+                BlockPos center = this.center.get();
+                while (pending.size() > maxSize) {
+                    pending.remove(furthest(center));
+                    dropped.increment();
+                }
+            }
+            pending.notify();
+        }
+    }
+
+    /**
+     * Waits for a chunk to be queued if there isn't one
+     *
+     * @return The queued chunk closest to the player
+     */
+    Pending take() throws InterruptedException {
+        synchronized (pending) {
+            Pending closest;
+            while ((closest = closest(center.get())) == null) {
+                pending.wait();
+            }
+            pending.remove(closest.pos);
+            packing.add(closest.pos);
+            return closest;
+        }
+    }
+
+    /**
+     * Called when a packer is done with a chunk from {@link #take()}, whether it worked or not
+     *
+     * @param stored Whether the chunk was packed and stored
+     */
+    void done(Pending chunk, boolean stored) {
+        synchronized (pending) {
+            packing.remove(chunk.pos);
+            // someone could be waiting on this chunk being done
+            pending.notifyAll();
+        }
+        if (!stored && chunk.chunk() == null) {
+            dropped.increment();
+        }
+        if (stored) {
+            long latency = System.nanoTime() - chunk.queuedAt;
+            packed.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Also discards the chunks that were garbage collected while they waited
+     *
+     * @return The queued chunk closest to the center that isn't being packed already, or null if there isn't one
+     */
+    private Pending closest(BlockPos center) {
+        Pending closest = null;
+        long closestDist = Long.MAX_VALUE;
+        for (Iterator<Pending> it = pending.values().iterator(); it.hasNext(); ) {
+            Pending next = it.next();
+            if (next.chunk() == null) {
+                it.remove();
+                dropped.increment();
+                continue;
+            }
+            if (packing.contains(next.pos)) {
+                continue;
+            }
+            if (center == null) {
+                return next;
+            }
+            long dist = distSq(next, center);
+            if (dist < closestDist) {
+                closest = next;
+                closestDist = dist;
+            }
+        }
+        return closest;
+    }
+
+    private ChunkPos furthest(BlockPos center) {
+        Iterator<Pending> it = pending.values().iterator();
+        Pending furthest = it.next();
+        if (center == null) {
+            return furthest.pos;
+        }
+        long furthestDist = distSq(furthest, center);
+        while (it.hasNext()) {
+            Pending next = it.next();
+            long dist = distSq(next, center);
+            if (dist > furthestDist) {
+                furthest = next;
+                furthestDist = dist;
+            }
+        }
+        return furthest.pos;
+    }
+
+    private static long distSq(Pending chunk, BlockPos center) {
+        long dx = chunk.pos.x - (center.getX() >> 4);
+        long dz = chunk.pos.z - (center.getZ() >> 4);
+        return dx * dx + dz * dz;
+    }
+
+    @Override
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    @Override
+    public long getPacked() {
+        return packed.sum();
+    }
+
+    @Override
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public int getPending() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public double getAverageLatencyMillis() {
+        long packed = this.packed.sum();
+        return packed == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / packed;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1000000L;
+    }
+
+    static final class Pending {
+
+        final ChunkPos pos;
+
+        /**
+         * The newest contents of the chunk, replaced if it's queued again before it's packed
+         */
+        private SoftReference<LevelChunk> chunk;
+
+        /**
+         * When the chunk was first queued, from {@link System#nanoTime()}
+         */
+        final long queuedAt;
+
+        Pending(LevelChunk chunk, long queuedAt) {
+            this.pos = chunk.getPos();
+            this.chunk = new SoftReference<>(chunk);
+            this.queuedAt = queuedAt;
+        }
+
+        /**
+         * @return The newest contents of the chunk, or null if they were garbage collected before being packed
+         */
+        LevelChunk chunk() {
+            return chunk.get();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.pathing.PathingBlockType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Where a cached chunk can be walked into and out of, for planning long routes a chunk at a time instead of a block
+ * at a time.
+ * <p>
+ * A portal is a run of neighbouring standable blocks along one edge of the chunk. Portals with the same component can
+ * be walked between without leaving the chunk, and a portal on one edge connects to the portals of the neighbouring
+ * chunk that overlap it on the opposite edge. This only knows what the 2 bit cache knows, so it's an estimate: it
+ * ignores falls, breaking and placing, it's only there to point the real search in a sensible direction.
+ * <p>
+ * Immutable, and computed from a {@link CachedChunk} which is itself immutable, so a chunk that's packed again gets
+ * new portals along with it.
+ */
+public final class ChunkPortals {
+
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int WEST = 2;
+    public static final int EAST = 3;
+
+    /**
+     * The chunk x coordinate
+     */
+    public final int chunkX;
+
+    /**
+     * The chunk z coordinate
+     */
+    public final int chunkZ;
+
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final int[] side;
+    private final int[] from;
+    private final int[] to;
+    private final int[] component;
+
+    private ChunkPortals(int chunkX, int chunkZ, IntArrayList portals) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        int size = portals.size() / 7;
+        this.x = new int[size];
+        this.y = new int[size];
+        this.z = new int[size];
+        this.side = new int[size];
+        this.from = new int[size];
+        this.to = new int[size];
+        this.component = new int[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = portals.getInt(i * 7);
+            y[i] = portals.getInt(i * 7 + 1);
+            z[i] = portals.getInt(i * 7 + 2);
+            side[i] = portals.getInt(i * 7 + 3);
+            from[i] = portals.getInt(i * 7 + 4);
+            to[i] = portals.getInt(i * 7 + 5);
+            component[i] = portals.getInt(i * 7 + 6);
+        }
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return The x coordinate of the middle of the portal, relative to the chunk
+     */
+    public int x(int i) {
+        return x[i];
+    }
+
+    /**
+     * @return The y coordinate of the feet at the middle of the portal, relative to the bottom of the world
+     */
+    public int y(int i) {
+        return y[i];
+    }
+
+    /**
+     * @return The z coordinate of the middle of the portal, relative to the chunk
+     */
+    public int z(int i) {
+        return z[i];
+    }
+
+    /**
+     * @return Which edge of the chunk the portal is on, one of {@link #NORTH}, {@link #SOUTH}, {@link #WEST} or {@link #EAST}
+     */
+    public int side(int i) {
+        return side[i];
+    }
+
+    /**
+     * @return The first position along the edge that the portal covers, from 0 to 15
+     */
+    public int from(int i) {
+        return from[i];
+    }
+
+    /**
+     * @return The last position along the edge that the portal covers, from 0 to 15
+     */
+    public int to(int i) {
+        return to[i];
+    }
+
+    /**
+     * @return Which part of the chunk the portal belongs to. Portals in the same component are connected within the chunk.
+     */
+    public int component(int i) {
+        return component[i];
+    }
+
+    /**
+     * @return The side opposite to the specified side, the one a portal on the specified side leads into
+     */
+    public static int opposite(int side) {
+        return side ^ 1;
+    }
+
+    static ChunkPortals compute(CachedChunk chunk, ChunkPacker.Scratch scratch) {
+        int height = chunk.height;
+        byte[] types = scratch.types(256 * height);
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    types[index(x, y, z)] = (byte) chunk.getType(x, y, z).ordinal();
+                }
+            }
+        }
+        int[] components = scratch.components(types.length);
+        int[] queue = scratch.queue(types.length);
+        int count = 0;
+        for (int i = 0; i < types.length; i++) {
+            if (components[i] != 0 || !standable(types, i, height)) {
+                continue;
+            }
+            // flood fill everything walkable from here without leaving the chunk
+            components[i] = ++count;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = i;
+            while (head < tail) {
+                int current = queue[head++];
+                int cx = current & 15;
+                int cz = (current >> 4) & 15;
+                int cy = current >> 8;
+                for (int dir = 0; dir < 4; dir++) {
+                    int nx = cx + (dir == 2 ? -1 : dir == 3 ? 1 : 0);
+                    int nz = cz + (dir == 0 ? -1 : dir == 1 ? 1 : 0);
+                    if (nx < 0 || nx > 15 || nz < 0 || nz > 15) {
+                        continue;
+                    }
+                    for (int ny = cy - 1; ny <= cy + 1; ny++) {
+                        if (ny < 0 || ny >= height) {
+                            continue;
+                        }
+                        int neighbor = index(nx, ny, nz);
+                        if (components[neighbor] == 0 && standable(types, neighbor, height) && canStep(types, current, neighbor, height)) {
+                            components[neighbor] = count;
+                            queue[tail++] = neighbor;
+                        }
+                    }
+                }
+            }
+        }
+        IntArrayList portals = new IntArrayList();
+        LongArrayList cells = new LongArrayList();
+        for (int side = 0; side < 4; side++) {
+            cells.clear();
+            for (int t = 0; t < 16; t++) {
+                int x = side == WEST ? 0 : side == EAST ? 15 : t;
+                int z = side == NORTH ? 0 : side == SOUTH ? 15 : t;
+                for (int y = 0; y < height; y++) {
+                    int component = components[index(x, y, z)];
+                    if (component != 0) {
+                        cells.add((long) component << 32 | t << 16 | y);
+                    }
+                }
+            }
+            cells.sort(null);
+            int start = 0;
+            for (int i = 1; i <= cells.size(); i++) {
+                if (i < cells.size()) {
+                    long prev = cells.getLong(i - 1);
+                    long cell = cells.getLong(i);
+                    if (prev >>> 32 == cell >>> 32 && ((cell >> 16) & 0xffff) - ((prev >> 16) & 0xffff) <= 1 && Math.abs((cell & 0xffff) - (prev & 0xffff)) <= 1) {
+                        continue;
+                    }
+                }
+                // the run from start to i is one portal, use the middle of it
+                long middle = cells.getLong((start + i - 1) >>> 1);
+                int t = (int) (middle >> 16) & 0xffff;
+                portals.add(side == WEST ? 0 : side == EAST ? 15 : t);
+                portals.add((int) (middle & 0xffff));
+                portals.add(side == NORTH ? 0 : side == SOUTH ? 15 : t);
+                portals.add(side);
+                portals.add((int) (cells.getLong(start) >> 16) & 0xffff);
+                portals.add((int) (cells.getLong(i - 1) >> 16) & 0xffff);
+                portals.add((int) (middle >>> 32));
+                start = i;
+            }
+        }
+        return new ChunkPortals(chunk.x, chunk.z, portals);
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    private static boolean standable(byte[] types, int index, int height) {
+        int y = index >> 8;
+        return y >= 1 && y + 1 < height
+                && types[index - 256] == PathingBlockType.SOLID.ordinal()
+                && types[index] == PathingBlockType.AIR.ordinal()
+                && types[index + 256] == PathingBlockType.AIR.ordinal();
+    }
+
+    private static boolean canStep(byte[] types, int from, int to, int height) {
+        int dy = (to >> 8) - (from >> 8);
+        if (dy == 0) {
+            return true;
+        }
+        // going up or down a block needs room to jump above whichever side is lower
+        int lower = dy > 0 ? from : to;
+        return (lower >> 8) + 2 < height && types[lower + 512] == PathingBlockType.AIR.ordinal();
+    }
+}
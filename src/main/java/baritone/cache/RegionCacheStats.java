@@ -0,0 +1,74 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.cache.IRegionCacheStats;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters behind {@link CachedWorld#getRegionCacheStats()}
+ */
+final class RegionCacheStats implements IRegionCacheStats {
+
+    private final Map<Long, CachedRegion> regions;
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder loads = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    RegionCacheStats(Map<Long, CachedRegion> regions) {
+        this.regions = regions;
+    }
+
+    @Override
+    public int getResidentRegions() {
+        return regions.size();
+    }
+
+    @Override
+    public long getResidentBytes() {
+        long bytes = 0;
+        for (CachedRegion region : regions.values()) {
+            bytes += region.memoryUsage();
+        }
+        return bytes;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
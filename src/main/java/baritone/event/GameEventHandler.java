@@ -27,6 +27,7 @@ import baritone.api.utils.Pair;
 import baritone.cache.CachedChunk;
 import baritone.cache.WorldProvider;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.LoadedChunks;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
@@ -89,6 +90,8 @@ public final class GameEventHandler implements IEventBus, Helper {
         EventState state = event.getState();
         ChunkEvent.Type type = event.getType();
 
+        LoadedChunks.invalidate();
+
         Level world = baritone.getPlayerContext().world();
 
         // Whenever the server sends us to another dimension, chunks are unloaded
@@ -114,7 +117,7 @@ public final class GameEventHandler implements IEventBus, Helper {
         if (Baritone.settings().repackOnAnyBlockChange.value) {
             final boolean keepingTrackOf = event.getBlocks().stream()
                     .map(Pair::second).map(BlockState::getBlock)
-                    .anyMatch(CachedChunk.BLOCKS_TO_KEEP_TRACK_OF::contains);
+                    .anyMatch(CachedChunk::isTracked);
 
             if (keepingTrackOf) {
                 baritone.getWorldProvider().ifWorldLoaded(worldData -> {
@@ -138,6 +141,7 @@ public final class GameEventHandler implements IEventBus, Helper {
         WorldProvider cache = baritone.getWorldProvider();
 
         if (event.getState() == EventState.POST) {
+            LoadedChunks.clear();
             cache.closeWorld();
             if (event.getWorld() != null) {
                 cache.initWorld(event.getWorld());
@@ -20,13 +20,11 @@ package baritone.pathing.calc;
 import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.goals.Goal;
-import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.SettingsUtil;
 import baritone.pathing.calc.openset.BinaryHeapOpenSet;
 import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.Moves;
-import baritone.utils.pathing.BetterWorldBorder;
 import baritone.utils.pathing.Favoring;
 import baritone.utils.pathing.MutableMoveResult;
 
@@ -41,17 +39,24 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
 
     private final Favoring favoring;
     private final CalculationContext calcContext;
+    private final SearchGraph graph;
 
     public AStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context) {
+        this(realStart, startX, startY, startZ, goal, favoring, context, null);
+    }
+
+    /**
+     * @param graph Movements kept from previous searches, to reuse and add to. Null to evaluate every movement.
+     */
+    public AStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, SearchGraph graph) {
         super(realStart, startX, startY, startZ, goal, context);
         this.favoring = favoring;
         this.calcContext = context;
+        this.graph = graph;
     }
 
     @Override
     protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
-        int minY = calcContext.world.dimensionType().minY();
-        int height = calcContext.world.dimensionType().height();
         startNode = getNodeAtPosition(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
         startNode.cost = 0;
         startNode.combinedCost = startNode.estimatedCostToGoal;
@@ -62,8 +67,7 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
             bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
             bestSoFar[i] = startNode;
         }
-        MutableMoveResult res = new MutableMoveResult();
-        BetterWorldBorder worldBorder = new BetterWorldBorder(calcContext.world.getWorldBorder());
+        MovementEvaluator evaluator = new MovementEvaluator(calcContext, graph, metrics);
         long startTime = System.currentTimeMillis();
         boolean slowPath = Baritone.settings().slowPath.value;
         if (slowPath) {
@@ -73,14 +77,11 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
         long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
         boolean failing = true;
         int numNodes = 0;
-        int numMovementsConsidered = 0;
-        int numEmptyChunk = 0;
         boolean isFavoring = !favoring.isEmpty();
         int timeCheckInterval = 1 << 6;
         int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
         double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
-        Moves[] allMoves = Moves.values();
-        while (!openSet.isEmpty() && numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
+        while (!openSet.isEmpty() && evaluator.numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
             if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this once every 64 nodes (about half a millisecond)
                 long now = System.currentTimeMillis(); // since nanoTime is slow on windows (takes many microseconds)
                 if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
@@ -95,77 +96,25 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
             PathNode currentNode = openSet.removeLowest();
             mostRecentConsidered = currentNode;
             numNodes++;
+            metrics.nodes++;
             if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
-                logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+                metrics.foundSegment();
+                logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + metrics.getMovementsConsidered() + " movements considered");
                 return Optional.of(new Path(realStart, startNode, currentNode, numNodes, goal, calcContext));
             }
-            for (Moves moves : allMoves) {
-                int newX = currentNode.x + moves.xOffset;
-                int newZ = currentNode.z + moves.zOffset;
-                if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
-                    // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
-                    if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
-                        numEmptyChunk++;
-                    }
-                    continue;
-                }
-                if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
-                    continue;
-                }
-                if (currentNode.y + moves.yOffset > height || currentNode.y + moves.yOffset < minY) {
-                    continue;
-                }
-                res.reset();
-                moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
-                numMovementsConsidered++;
-                double actionCost = res.cost;
-                if (actionCost >= ActionCosts.COST_INF) {
-                    continue;
-                }
-                if (actionCost <= 0 || Double.isNaN(actionCost)) {
-                    throw new IllegalStateException(String.format(
-                            "%s from %s %s %s calculated implausible cost %s",
-                            moves,
-                            SettingsUtil.maybeCensor(currentNode.x),
-                            SettingsUtil.maybeCensor(currentNode.y),
-                            SettingsUtil.maybeCensor(currentNode.z),
-                            actionCost));
-                }
-                // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
-                if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
-                    continue;
-                }
-                if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
-                    throw new IllegalStateException(String.format(
-                            "%s from %s %s %s ended at x z %s %s instead of %s %s",
-                            moves,
-                            SettingsUtil.maybeCensor(currentNode.x),
-                            SettingsUtil.maybeCensor(currentNode.y),
-                            SettingsUtil.maybeCensor(currentNode.z),
-                            SettingsUtil.maybeCensor(res.x),
-                            SettingsUtil.maybeCensor(res.z),
-                            SettingsUtil.maybeCensor(newX),
-                            SettingsUtil.maybeCensor(newZ)));
-                }
-                if (!moves.dynamicY && res.y != currentNode.y + moves.yOffset) {
-                    throw new IllegalStateException(String.format(
-                            "%s from %s %s %s ended at y %s instead of %s",
-                            moves,
-                            SettingsUtil.maybeCensor(currentNode.x),
-                            SettingsUtil.maybeCensor(currentNode.y),
-                            SettingsUtil.maybeCensor(currentNode.z),
-                            SettingsUtil.maybeCensor(res.y),
-                            SettingsUtil.maybeCensor(currentNode.y + moves.yOffset)));
-                }
-                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
+            SearchGraph.Successors successors = evaluator.successors(currentNode.x, currentNode.y, currentNode.z);
+            for (int j = 0; j < successors.size(); j++) {
+                double actionCost = successors.cost(j);
+                long hashCode = BetterBlockPos.longHash(successors.x(j), successors.y(j), successors.z(j));
                 if (isFavoring) {
                     // see issue #18
                     actionCost *= favoring.calculate(hashCode);
                 }
-                PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, hashCode);
+                PathNode neighbor = getNodeAtPosition(successors.x(j), successors.y(j), successors.z(j), hashCode);
                 double tentativeCost = currentNode.cost + actionCost;
                 if (neighbor.cost - tentativeCost > minimumImprovement) {
                     neighbor.previous = currentNode;
+                    neighbor.move = successors.move(j);
                     neighbor.cost = tentativeCost;
                     neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
                     if (neighbor.isOpen()) {
@@ -180,23 +129,62 @@ public final class AStarPathFinder extends AbstractNodeCostSearch {
                             bestSoFar[i] = neighbor;
                             if (failing && getDistFromStartSq(neighbor) > MIN_DIST_PATH * MIN_DIST_PATH) {
                                 failing = false;
+                                metrics.foundSegment();
                             }
                         }
                     }
                 }
             }
+            metrics.openSetSize(openSet.size());
         }
         if (cancelRequested) {
             return Optional.empty();
         }
-        System.out.println(numMovementsConsidered + " movements considered");
+        System.out.println(metrics.getMovementsConsidered() + " movements considered");
         System.out.println("Open set size: " + openSet.size());
         System.out.println("PathNode map size: " + mapSize());
         System.out.println((int) (numNodes * 1.0 / ((System.currentTimeMillis() - startTime) / 1000F)) + " nodes per second");
         Optional<IPath> result = bestSoFar(true, numNodes);
         if (result.isPresent()) {
-            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + metrics.getMovementsConsidered() + " movements considered");
         }
         return result;
     }
+
+    static void checkCost(Moves moves, int x, int y, int z, double actionCost) {
+        if (actionCost <= 0 || Double.isNaN(actionCost)) {
+            throw new IllegalStateException(String.format(
+                    "%s from %s %s %s calculated implausible cost %s",
+                    moves,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z),
+                    actionCost));
+        }
+    }
+
+    static void checkDestination(Moves moves, int x, int y, int z, int newX, int newZ, MutableMoveResult res) {
+        if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
+            throw new IllegalStateException(String.format(
+                    "%s from %s %s %s ended at x z %s %s instead of %s %s",
+                    moves,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z),
+                    SettingsUtil.maybeCensor(res.x),
+                    SettingsUtil.maybeCensor(res.z),
+                    SettingsUtil.maybeCensor(newX),
+                    SettingsUtil.maybeCensor(newZ)));
+        }
+        if (!moves.dynamicY && res.y != y + moves.yOffset) {
+            throw new IllegalStateException(String.format(
+                    "%s from %s %s %s ended at y %s instead of %s",
+                    moves,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z),
+                    SettingsUtil.maybeCensor(res.y),
+                    SettingsUtil.maybeCensor(y + moves.yOffset)));
+        }
+    }
 }
@@ -20,11 +20,13 @@ package baritone.pathing.calc;
 import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.IPathingMetrics;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.Helper;
 import baritone.api.utils.PathCalculationResult;
 import baritone.pathing.movement.CalculationContext;
+import baritone.utils.jfr.PathSearchEvent;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 import java.util.Optional;
@@ -60,6 +62,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     protected boolean cancelRequested;
 
+    /**
+     * What this search did, counted as it goes
+     */
+    protected final PathingMetrics metrics = new PathingMetrics();
+
     /**
      * This is really complicated and hard to explain. I wrote a comment in the old version of MineBot but it was so
      * long it was easier as a Google Doc (because I could insert charts).
@@ -102,6 +109,26 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
             throw new IllegalStateException("Path finder cannot be reused!");
         }
         cancelRequested = false;
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        metrics.start();
+        PathCalculationResult result = calculate1(primaryTimeout, failureTimeout);
+        metrics.finish(mapSize());
+        event.end();
+        if (event.shouldCommit()) {
+            event.result = result.getType().name();
+            event.nodes = metrics.getNodesConsidered();
+            event.movements = metrics.getMovementsConsidered();
+            event.chunkBorderMisses = metrics.getChunkBorderMisses();
+            event.peakOpenSetSize = metrics.getPeakOpenSetSize();
+            event.peakNodeMapSize = metrics.getPeakNodeMapSize();
+            event.timeToFirstSegment = metrics.getTimeToFirstSegmentMillis();
+            event.commit();
+        }
+        return new PathCalculationResult(result.getType(), result.getPath().orElse(null), metrics);
+    }
+
+    private PathCalculationResult calculate1(long primaryTimeout, long failureTimeout) {
         try {
             IPath path = calculate0(primaryTimeout, failureTimeout).map(IPath::postProcess).orElse(null);
             if (cancelRequested) {
@@ -140,6 +167,13 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
 
     protected abstract Optional<IPath> calculate0(long primaryTimeout, long failureTimeout);
 
+    /**
+     * @return What this search did, only complete once it's finished
+     */
+    public final IPathingMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Determines the distance squared from the specified node to the start
      * node. Intended for use in distance comparison, rather than anything that
@@ -149,9 +183,13 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
      * @return The distance, squared
      */
     protected double getDistFromStartSq(PathNode n) {
-        int xDiff = n.x - startX;
-        int yDiff = n.y - startY;
-        int zDiff = n.z - startZ;
+        return getDistFromStartSq(n.x, n.y, n.z);
+    }
+
+    protected double getDistFromStartSq(int x, int y, int z) {
+        int xDiff = x - startX;
+        int yDiff = y - startY;
+        int zDiff = z - startZ;
         return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
     }
 
@@ -188,15 +226,15 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
     }
 
     protected Optional<IPath> bestSoFar(boolean logInfo, int numNodes) {
-        if (startNode == null) {
+        if (!hasStartNode()) {
             return Optional.empty();
         }
         double bestDist = 0;
         for (int i = 0; i < COEFFICIENTS.length; i++) {
-            if (bestSoFar[i] == null) {
+            if (!hasBestSoFar(i)) {
                 continue;
             }
-            double dist = getDistFromStartSq(bestSoFar[i]);
+            double dist = getBestSoFarDistFromStartSq(i);
             if (dist > bestDist) {
                 bestDist = dist;
             }
@@ -210,7 +248,7 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
                     System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
                     logDebug("A* cost coefficient " + COEFFICIENTS[i]);
                 }
-                return Optional.of(new Path(realStart, startNode, bestSoFar[i], numNodes, goal, context));
+                return Optional.of(bestSoFarPath(i, numNodes));
             }
         }
         // instead of returning bestSoFar[0], be less misleading
@@ -223,6 +261,29 @@ public abstract class AbstractNodeCostSearch implements IPathFinder, Helper {
         return Optional.empty();
     }
 
+    /**
+     * @return Whether the start node has been created yet, i.e. whether {@link #calculate0} has started
+     */
+    protected boolean hasStartNode() {
+        return startNode != null;
+    }
+
+    /**
+     * @param coefficient The index into {@link #COEFFICIENTS}
+     * @return Whether there is a best node so far for that coefficient
+     */
+    protected boolean hasBestSoFar(int coefficient) {
+        return bestSoFar[coefficient] != null;
+    }
+
+    protected double getBestSoFarDistFromStartSq(int coefficient) {
+        return getDistFromStartSq(bestSoFar[coefficient]);
+    }
+
+    protected IPath bestSoFarPath(int coefficient, int numNodes) {
+        return new Path(realStart, startNode, bestSoFar[coefficient], numNodes, goal, context);
+    }
+
     @Override
     public final boolean isFinished() {
         return isFinished;
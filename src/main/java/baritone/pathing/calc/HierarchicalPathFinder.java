@@ -0,0 +1,343 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalComposite;
+import baritone.api.pathing.goals.GoalNear;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.cache.CachedChunk;
+import baritone.cache.CachedRegion;
+import baritone.cache.CachedWorld;
+import baritone.cache.ChunkPacker;
+import baritone.cache.ChunkPortals;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.path.SegmentPath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import static baritone.api.pathing.movement.ActionCosts.WALK_ONE_BLOCK_COST;
+
+/**
+ * Paths to far away goals in two steps. First a rough route is planned through the cached chunks between here and
+ * the goal, going from chunk edge to chunk edge using {@link ChunkPortals}, which takes a few thousand steps where
+ * the normal search would take millions. Then the normal search is run towards a point along that route, at most
+ * {@link baritone.api.Settings#hierarchicalPathingSegmentLength} blocks away, or towards the goal itself, whichever
+ * it gets to first.
+ * <p>
+ * If there's no rough route, because the goal isn't a position or is close or there isn't enough cached, this is
+ * exactly the normal search.
+ */
+public final class HierarchicalPathFinder extends AbstractNodeCostSearch {
+
+    private final CalculationContext context;
+    private final Function<Goal, AbstractNodeCostSearch> segmentFinder;
+
+    private volatile AbstractNodeCostSearch segment;
+
+    /**
+     * @param segmentFinder Makes the normal search from the same start, towards the specified goal
+     */
+    public HierarchicalPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, CalculationContext context, Function<Goal, AbstractNodeCostSearch> segmentFinder) {
+        super(realStart, startX, startY, startZ, goal, context);
+        this.context = context;
+        this.segmentFinder = segmentFinder;
+    }
+
+    @Override
+    protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
+        long startTime = System.currentTimeMillis();
+        return searchSegment(planWaypoint(startTime + primaryTimeout / 2), startTime, primaryTimeout, failureTimeout);
+    }
+
+    /**
+     * @param waypoint  Where to aim the normal search, or null to aim it at the goal
+     * @param startTime When this search started, the timeouts are from then
+     * @return The path the normal search found, which reports {@link #goal} as its goal either way
+     */
+    Optional<IPath> searchSegment(BetterBlockPos waypoint, long startTime, long primaryTimeout, long failureTimeout) {
+        Goal target = goal;
+        if (waypoint != null) {
+            logDebug("Aiming this segment at " + waypoint + " along a route through cached chunks");
+            target = new GoalComposite(new GoalNear(waypoint, 2), goal);
+        }
+        AbstractNodeCostSearch segment = segmentFinder.apply(target);
+        this.segment = segment;
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        long spent = System.currentTimeMillis() - startTime;
+        try {
+            return segment.calculate0(Math.max(primaryTimeout - spent, primaryTimeout / 2), Math.max(failureTimeout - spent, failureTimeout / 2)).map(this::towardsGoal);
+        } finally {
+            segment.metrics.finish(segment.mapSize());
+            metrics.addDelegated(segment.metrics);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        AbstractNodeCostSearch segment = this.segment;
+        if (segment != null) {
+            segment.cancel();
+        }
+    }
+
+    @Override
+    public Optional<IPath> pathToMostRecentNodeConsidered() {
+        AbstractNodeCostSearch segment = this.segment;
+        return segment == null ? Optional.empty() : segment.pathToMostRecentNodeConsidered().map(this::towardsGoal);
+    }
+
+    @Override
+    public Optional<IPath> bestPathSoFar() {
+        AbstractNodeCostSearch segment = this.segment;
+        return segment == null ? Optional.empty() : segment.bestPathSoFar().map(this::towardsGoal);
+    }
+
+    /**
+     * The segment search was aimed at a waypoint as well as the goal, but processes check the path's goal against
+     * theirs, and the waypoint would look like the goal changed
+     */
+    private IPath towardsGoal(IPath path) {
+        return path.getGoal() == goal ? path : new SegmentPath(path, goal);
+    }
+
+    /**
+     * A* over chunk portals, from the start to the chunk the goal is in, or as close to it as the cache goes
+     *
+     * @param deadline When to give up
+     * @return Where to aim the normal search, or null to aim it at the goal
+     */
+    private BetterBlockPos planWaypoint(long deadline) {
+        if (context.worldData == null) {
+            return null;
+        }
+        BlockPos goalPos;
+        if (goal instanceof IGoalRenderPos) {
+            goalPos = ((IGoalRenderPos) goal).getGoalPos();
+        } else if (goal instanceof GoalXZ) {
+            goalPos = new BlockPos(((GoalXZ) goal).getX(), startY, ((GoalXZ) goal).getZ());
+        } else {
+            return null;
+        }
+        int segmentLength = Baritone.settings().hierarchicalPathingSegmentLength.value;
+        if (horizontalDist(startX, startZ, goalPos.getX(), goalPos.getZ()) <= segmentLength) {
+            return null;
+        }
+        Portals portals = new Portals(context.worldData.cache);
+        ChunkPortals first = portals.get(startX >> 4, startZ >> 4);
+        if (first == null) {
+            return null;
+        }
+        int minY = context.bsi.minY;
+        int goalChunkX = goalPos.getX() >> 4;
+        int goalChunkZ = goalPos.getZ() >> 4;
+        Long2ObjectOpenHashMap<Node[]> nodes = new Long2ObjectOpenHashMap<>();
+        PriorityQueue<Entry> openSet = new PriorityQueue<>();
+        for (int i = 0; i < first.size(); i++) {
+            Node node = node(nodes, first, i, minY);
+            node.update(null, dist(startX, startY, startZ, node) * WALK_ONE_BLOCK_COST, goalPos);
+            openSet.add(new Entry(node));
+        }
+        Node best = null;
+        int maxPortals = Baritone.settings().hierarchicalPathingMaxPortals.value;
+        int considered = 0;
+        while (!openSet.isEmpty() && considered < maxPortals && !cancelRequested) {
+            if ((considered & 1023) == 0 && System.currentTimeMillis() > deadline) {
+                break;
+            }
+            Entry entry = openSet.poll();
+            Node current = entry.node;
+            if (entry.cost > current.cost) {
+                continue; // stale, it was improved after this was queued
+            }
+            considered++;
+            if (best == null || current.estimate < best.estimate) {
+                best = current;
+            }
+            if (current.chunk.chunkX == goalChunkX && current.chunk.chunkZ == goalChunkZ) {
+                best = current;
+                break;
+            }
+            ChunkPortals chunk = current.chunk;
+            int side = chunk.side(current.index);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i != current.index && chunk.component(i) == chunk.component(current.index)) {
+                    relax(openSet, current, node(nodes, chunk, i, minY), goalPos);
+                }
+            }
+            ChunkPortals next = portals.get(chunk.chunkX + (side == ChunkPortals.WEST ? -1 : side == ChunkPortals.EAST ? 1 : 0), chunk.chunkZ + (side == ChunkPortals.NORTH ? -1 : side == ChunkPortals.SOUTH ? 1 : 0));
+            if (next == null) {
+                continue;
+            }
+            for (int i = 0; i < next.size(); i++) {
+                if (next.side(i) == ChunkPortals.opposite(side)
+                        && next.from(i) <= chunk.to(current.index) && chunk.from(current.index) <= next.to(i)
+                        && Math.abs(next.y(i) - chunk.y(current.index)) <= 2) {
+                    relax(openSet, current, node(nodes, next, i, minY), goalPos);
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        List<Node> route = new ArrayList<>();
+        for (Node node = best; node != null; node = node.previous) {
+            route.add(0, node);
+        }
+        Node waypoint = null;
+        for (Node node : route) {
+            if (horizontalDist(startX, startZ, node.x, node.z) > segmentLength) {
+                break;
+            }
+            waypoint = node;
+        }
+        if (waypoint == null || (waypoint == best && best.chunk.chunkX == goalChunkX && best.chunk.chunkZ == goalChunkZ)) {
+            return null;
+        }
+        logDebug("Route through cached chunks considered " + considered + " chunk edges, the route is " + route.size() + " long");
+        return new BetterBlockPos(waypoint.x, waypoint.y, waypoint.z);
+    }
+
+    private static void relax(PriorityQueue<Entry> openSet, Node from, Node to, BlockPos goalPos) {
+        double cost = from.cost + Math.max(1, dist(from.x, from.y, from.z, to)) * WALK_ONE_BLOCK_COST;
+        if (cost < to.cost) {
+            to.update(from, cost, goalPos);
+            openSet.add(new Entry(to));
+        }
+    }
+
+    private static Node node(Long2ObjectOpenHashMap<Node[]> nodes, ChunkPortals chunk, int index, int minY) {
+        // not keyed by position, a corner of a chunk can be a portal on two sides
+        Node[] inChunk = nodes.computeIfAbsent(ChunkPos.asLong(chunk.chunkX, chunk.chunkZ), k -> new Node[chunk.size()]);
+        Node node = inChunk[index];
+        if (node == null) {
+            node = new Node(chunk, index, (chunk.chunkX << 4) + chunk.x(index), chunk.y(index) + minY, (chunk.chunkZ << 4) + chunk.z(index));
+            inChunk[index] = node;
+        }
+        return node;
+    }
+
+    private static double dist(int x, int y, int z, Node to) {
+        int dx = to.x - x;
+        int dy = to.y - y;
+        int dz = to.z - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static double horizontalDist(int x1, int z1, int x2, int z2) {
+        double dx = x2 - x1;
+        double dz = z2 - z1;
+        return Math.sqrt(dx * dx + dz * dz);
+    }
+
+    /**
+     * A portal in the rough route
+     */
+    private static final class Node {
+
+        final ChunkPortals chunk;
+        final int index;
+        final int x;
+        final int y;
+        final int z;
+        double cost = Double.POSITIVE_INFINITY;
+        double estimate;
+        Node previous;
+
+        Node(ChunkPortals chunk, int index, int x, int y, int z) {
+            this.chunk = chunk;
+            this.index = index;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        void update(Node previous, double cost, BlockPos goalPos) {
+            this.previous = previous;
+            this.cost = cost;
+            this.estimate = horizontalDist(x, z, goalPos.getX(), goalPos.getZ()) * WALK_ONE_BLOCK_COST;
+        }
+
+    }
+
+    /**
+     * A node in the open set, with its cost as of when it was queued. Improving a node queues it again instead of
+     * reordering the heap under it, and entries that were improved on since are skipped.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        final Node node;
+        final double cost;
+        final double combinedCost;
+
+        Entry(Node node) {
+            this.node = node;
+            this.cost = node.cost;
+            this.combinedCost = node.cost + node.estimate;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            return Double.compare(combinedCost, o.combinedCost);
+        }
+    }
+
+    /**
+     * The portals of cached chunks, starting to load regions from disk as the route gets to them
+     */
+    private static final class Portals {
+
+        private final CachedWorld cache;
+        private final Long2ObjectOpenHashMap<ChunkPortals> chunks = new Long2ObjectOpenHashMap<>();
+        private final ChunkPacker.Scratch scratch = new ChunkPacker.Scratch();
+
+        Portals(CachedWorld cache) {
+            this.cache = cache;
+        }
+
+        ChunkPortals get(int chunkX, int chunkZ) {
+            long key = ChunkPos.asLong(chunkX, chunkZ);
+            if (chunks.containsKey(key)) {
+                return chunks.get(key);
+            }
+            CachedRegion region = cache.getRegion(chunkX >> 5, chunkZ >> 5);
+            if (region == null) {
+                // not cached as far as this search is concerned, but it will be for the next one
+                cache.tryLoadFromDisk(chunkX >> 5, chunkZ >> 5);
+            }
+            CachedChunk chunk = region == null ? null : region.getChunk((chunkX & 31) << 4, (chunkZ & 31) << 4);
+            ChunkPortals portals = chunk == null ? null : chunk.getPortals(scratch);
+            chunks.put(key, portals);
+            return portals;
+        }
+    }
+}
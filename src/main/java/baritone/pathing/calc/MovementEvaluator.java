@@ -0,0 +1,119 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.MutableMoveResult;
+
+/**
+ * Works out where every movement from a node leads and what it costs, for the single threaded searches. Takes them
+ * from the {@link SearchGraph} instead when it already has them, and adds the ones it works out to it.
+ */
+final class MovementEvaluator {
+
+    private final CalculationContext calcContext;
+    private final SearchGraph graph;
+    private final PathingMetrics metrics;
+    private final BetterWorldBorder worldBorder;
+    private final int minY;
+    private final int height;
+    private final boolean timings;
+    private final MutableMoveResult res = new MutableMoveResult();
+    private final SearchGraph.Successors scratch = new SearchGraph.Successors();
+    private final Moves[] allMoves = Moves.values();
+
+    /**
+     * How many movements were skipped because they would have gone into an unloaded chunk no matter what
+     */
+    int numEmptyChunk;
+
+    /**
+     * @param graph Movements kept from previous searches, or null to evaluate every movement
+     */
+    MovementEvaluator(CalculationContext calcContext, SearchGraph graph, PathingMetrics metrics) {
+        this.calcContext = calcContext;
+        this.graph = graph;
+        this.metrics = metrics;
+        this.worldBorder = calcContext.worldBorder;
+        this.minY = calcContext.bsi.minY;
+        this.height = calcContext.bsi.height;
+        this.timings = Baritone.settings().pathingMovementTimings.value;
+    }
+
+    /**
+     * @return The movements from this position that aren't impossible. Reused by the next call, so read it before then.
+     */
+    SearchGraph.Successors successors(int x, int y, int z) {
+        long hashCode = BetterBlockPos.longHash(x, y, z);
+        SearchGraph.Successors successors = graph == null ? null : graph.get(hashCode);
+        if (successors != null) {
+            return successors;
+        }
+        long generation = graph == null ? 0 : graph.generation();
+        boolean touchedUnloaded = false;
+        successors = scratch;
+        successors.clear(x, y, z);
+        for (Moves moves : allMoves) {
+            int newX = x + moves.xOffset;
+            int newZ = z + moves.zOffset;
+            if ((newX >> 4 != x >> 4 || newZ >> 4 != z >> 4) && !calcContext.isLoaded(newX, newZ)) {
+                // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+                if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
+                    numEmptyChunk++;
+                    metrics.chunkBorderMisses++;
+                }
+                touchedUnloaded = true;
+                continue;
+            }
+            if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
+                continue;
+            }
+            if (y + moves.yOffset > height || y + moves.yOffset < minY) {
+                continue;
+            }
+            res.reset();
+            long before = timings ? System.nanoTime() : 0;
+            moves.apply(calcContext, x, y, z, res);
+            if (timings) {
+                metrics.nanos[moves.ordinal()] += System.nanoTime() - before;
+            }
+            metrics.movements[moves.ordinal()]++;
+            double actionCost = res.cost;
+            if (actionCost >= ActionCosts.COST_INF) {
+                continue;
+            }
+            AStarPathFinder.checkCost(moves, x, y, z, actionCost);
+            // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
+            if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
+                continue;
+            }
+            AStarPathFinder.checkDestination(moves, x, y, z, newX, newZ, res);
+            successors.add(res.x, res.y, res.z, actionCost, (byte) moves.ordinal());
+        }
+        if (graph != null && !touchedUnloaded) {
+            // nodes at the edge of loaded chunks are evaluated every time, so they keep counting towards pathingMaxChunkBorderFetch
+            graph.put(hashCode, successors.copy(), generation);
+        }
+        return successors;
+    }
+}
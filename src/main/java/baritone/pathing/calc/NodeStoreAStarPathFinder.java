@@ -0,0 +1,195 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.openset.IntBinaryHeapOpenSet;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The same A* as {@link AStarPathFinder}, except nodes are kept in a {@link PathNodeStore} instead of being
+ * allocated as {@link PathNode} objects. Movements are worked out by the same {@link MovementEvaluator}, so this reuses
+ * and adds to the {@link SearchGraph} the same way.
+ */
+public final class NodeStoreAStarPathFinder extends AbstractNodeCostSearch {
+
+    private final Favoring favoring;
+    private final CalculationContext calcContext;
+    private final SearchGraph graph;
+    private final PathNodeStore store;
+
+    private volatile int startId = PathNodeStore.NONE;
+    private volatile int mostRecentConsideredId = PathNodeStore.NONE;
+    private final int[] bestSoFarIds = new int[COEFFICIENTS.length];
+
+    public NodeStoreAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context) {
+        this(realStart, startX, startY, startZ, goal, favoring, context, null);
+    }
+
+    /**
+     * @param graph Movements kept from previous searches, to reuse and add to. Null to evaluate every movement.
+     */
+    public NodeStoreAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, SearchGraph graph) {
+        super(realStart, startX, startY, startZ, goal, context);
+        this.favoring = favoring;
+        this.calcContext = context;
+        this.graph = graph;
+        this.store = new PathNodeStore(goal, Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.value);
+        Arrays.fill(bestSoFarIds, PathNodeStore.NONE);
+    }
+
+    @Override
+    protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
+        int startNode = store.getOrCreate(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
+        store.setCost(startNode, 0);
+        store.setCombinedCost(startNode, store.estimatedCostToGoal(startNode));
+        IntBinaryHeapOpenSet openSet = new IntBinaryHeapOpenSet(store);
+        openSet.insert(startNode);
+        double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
+        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
+            bestHeuristicSoFar[i] = store.estimatedCostToGoal(startNode);
+            bestSoFarIds[i] = startNode;
+        }
+        startId = startNode;
+        MovementEvaluator evaluator = new MovementEvaluator(calcContext, graph, metrics);
+        long startTime = System.currentTimeMillis();
+        boolean slowPath = Baritone.settings().slowPath.value;
+        if (slowPath) {
+            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
+        }
+        long primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
+        long failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
+        boolean failing = true;
+        int numNodes = 0;
+        boolean isFavoring = !favoring.isEmpty();
+        int timeCheckInterval = 1 << 6;
+        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+        double minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+        while (!openSet.isEmpty() && evaluator.numEmptyChunk < pathingMaxChunkBorderFetch && !cancelRequested) {
+            if ((numNodes & (timeCheckInterval - 1)) == 0) { // only call this once every 64 nodes (about half a millisecond)
+                long now = System.currentTimeMillis(); // since nanoTime is slow on windows (takes many microseconds)
+                if (now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
+                    break;
+                }
+            }
+            if (slowPath) {
+                try {
+                    Thread.sleep(Baritone.settings().slowPathTimeDelayMS.value);
+                } catch (InterruptedException ignored) {}
+            }
+            int currentNode = openSet.removeLowest();
+            mostRecentConsideredId = currentNode;
+            numNodes++;
+            metrics.nodes++;
+            int currentX = store.x(currentNode);
+            int currentY = store.y(currentNode);
+            int currentZ = store.z(currentNode);
+            if (goal.isInGoal(currentX, currentY, currentZ)) {
+                metrics.foundSegment();
+                logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + metrics.getMovementsConsidered() + " movements considered");
+                return Optional.of(new Path(realStart, store, currentNode, numNodes, goal, calcContext));
+            }
+            double currentCost = store.cost(currentNode);
+            SearchGraph.Successors successors = evaluator.successors(currentX, currentY, currentZ);
+            for (int j = 0; j < successors.size(); j++) {
+                double actionCost = successors.cost(j);
+                long hashCode = BetterBlockPos.longHash(successors.x(j), successors.y(j), successors.z(j));
+                if (isFavoring) {
+                    // see issue #18
+                    actionCost *= favoring.calculate(hashCode);
+                }
+                int neighbor = store.getOrCreate(successors.x(j), successors.y(j), successors.z(j), hashCode);
+                double tentativeCost = currentCost + actionCost;
+                if (store.cost(neighbor) - tentativeCost > minimumImprovement) {
+                    double estimatedCostToGoal = store.estimatedCostToGoal(neighbor);
+                    store.setPrevious(neighbor, currentNode);
+                    store.setMove(neighbor, successors.move(j));
+                    store.setCost(neighbor, tentativeCost);
+                    store.setCombinedCost(neighbor, tentativeCost + estimatedCostToGoal);
+                    if (store.isOpen(neighbor)) {
+                        openSet.update(neighbor);
+                    } else {
+                        openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                    }
+                    for (int i = 0; i < COEFFICIENTS.length; i++) {
+                        double heuristic = estimatedCostToGoal + tentativeCost / COEFFICIENTS[i];
+                        if (bestHeuristicSoFar[i] - heuristic > minimumImprovement) {
+                            bestHeuristicSoFar[i] = heuristic;
+                            bestSoFarIds[i] = neighbor;
+                            if (failing && getDistFromStartSq(successors.x(j), successors.y(j), successors.z(j)) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                                failing = false;
+                                metrics.foundSegment();
+                            }
+                        }
+                    }
+                }
+            }
+            metrics.openSetSize(openSet.size());
+        }
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        Optional<IPath> result = bestSoFar(true, numNodes);
+        if (result.isPresent()) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + metrics.getMovementsConsidered() + " movements considered");
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<IPath> pathToMostRecentNodeConsidered() {
+        int mostRecent = mostRecentConsideredId;
+        if (mostRecent == PathNodeStore.NONE) {
+            return Optional.empty();
+        }
+        return Optional.of(new Path(realStart, store, mostRecent, 0, goal, calcContext));
+    }
+
+    @Override
+    protected boolean hasStartNode() {
+        return startId != PathNodeStore.NONE;
+    }
+
+    @Override
+    protected boolean hasBestSoFar(int coefficient) {
+        return bestSoFarIds[coefficient] != PathNodeStore.NONE;
+    }
+
+    @Override
+    protected double getBestSoFarDistFromStartSq(int coefficient) {
+        int id = bestSoFarIds[coefficient];
+        return getDistFromStartSq(store.x(id), store.y(id), store.z(id));
+    }
+
+    @Override
+    protected IPath bestSoFarPath(int coefficient, int numNodes) {
+        return new Path(realStart, store, bestSoFarIds[coefficient], numNodes, goal, calcContext);
+    }
+
+    @Override
+    protected int mapSize() {
+        return store.size();
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.Moves;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.Favoring;
+import baritone.utils.pathing.MutableMoveResult;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A*. Every node belongs to exactly one of several workers, each with its own node map and open set.
+ * A worker expands its cheapest open node like {@link AStarPathFinder} does, and hands every neighbor that belongs to
+ * another worker over to that worker, who relaxes it into its own open set.
+ * <p>
+ * A worker taking a node in the goal off its open set doesn't end the search, since another worker can still have a
+ * cheaper way there in its open set. It becomes the best goal node so far, and a worker goes idle once nothing left in
+ * its open set is cheaper than that. The search ends when every worker is idle with nothing handed over still in
+ * flight, at which point no open node anywhere can lead to a cheaper path, so it's as cheap as the one the single
+ * threaded search would find. Idle workers park until something is handed to them. The timeouts and the
+ * {@link #COEFFICIENTS} fallback behave the same as in {@link AStarPathFinder}.
+ */
+public final class ParallelAStarPathFinder extends AbstractNodeCostSearch {
+
+    private static final int TIME_CHECK_INTERVAL = 1 << 6;
+
+    /**
+     * How long an idle worker parks before checking the timeouts again, in case nothing wakes it up
+     */
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final Favoring favoring;
+    private final CalculationContext calcContext;
+    private final Worker[] workers;
+
+    /**
+     * Busy workers plus batches of neighbors that have been handed over but not relaxed yet. Once this reaches zero,
+     * no worker has anything left to expand and nothing more can arrive.
+     */
+    private final AtomicInteger work = new AtomicInteger();
+    private final AtomicInteger numEmptyChunk = new AtomicInteger();
+
+    /**
+     * The cheapest node in the goal that a worker has taken off its open set, guarded by itself along with
+     * {@link #goalCost}
+     */
+    private final PathNode[] goalNode = new PathNode[1];
+
+    /**
+     * The cost of {@link #goalNode} when it was reached, infinite until one is
+     */
+    private volatile double goalCost = Double.POSITIVE_INFINITY;
+
+    /**
+     * Guarded by itself. Read without the lock as a cheap first check, then checked again while holding it.
+     */
+    private final double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];
+
+    private volatile boolean failing;
+    private volatile boolean stop;
+    private volatile Throwable exception;
+
+    private long primaryTimeoutTime;
+    private long failureTimeoutTime;
+    private boolean slowPath;
+    private boolean timings;
+    private int pathingMaxChunkBorderFetch;
+    private double minimumImprovement;
+
+    public ParallelAStarPathFinder(BetterBlockPos realStart, int startX, int startY, int startZ, Goal goal, Favoring favoring, CalculationContext context, int threads) {
+        super(realStart, startX, startY, startZ, goal, context);
+        if (threads < 1) {
+            throw new IllegalArgumentException("Can't search with " + threads + " threads");
+        }
+        this.favoring = favoring;
+        this.calcContext = context;
+        this.workers = new Worker[threads];
+        int mapSize = Math.max(16, Baritone.settings().pathingMapDefaultSize.value / threads);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i, mapSize, Baritone.settings().pathingMapLoadFactor.value);
+        }
+    }
+
+    @Override
+    protected Optional<IPath> calculate0(long primaryTimeout, long failureTimeout) {
+        Worker first = workers[owner(startX, startY, startZ)];
+        startNode = first.getNodeAtPosition(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
+        startNode.cost = 0;
+        startNode.combinedCost = startNode.estimatedCostToGoal;
+        first.openSet.insert(startNode);
+        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
+            bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
+            bestSoFar[i] = startNode;
+        }
+        failing = true;
+        long startTime = System.currentTimeMillis();
+        slowPath = Baritone.settings().slowPath.value;
+        timings = Baritone.settings().pathingMovementTimings.value;
+        if (slowPath) {
+            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.value + "ms instead of " + primaryTimeout + "ms");
+        }
+        primaryTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : primaryTimeout);
+        failureTimeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.value : failureTimeout);
+        pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.value; // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+        minimumImprovement = Baritone.settings().minimumImprovementRepropagation.value ? MIN_IMPROVEMENT : 0;
+
+        work.set(workers.length);
+        CountDownLatch done = new CountDownLatch(workers.length);
+        for (int i = 1; i < workers.length; i++) {
+            Worker worker = workers[i];
+            Baritone.getExecutor().execute(() -> worker.run(done));
+        }
+        workers[0].run(done); // this thread is a worker too, rather than sitting around waiting
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+                stop = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (exception != null) {
+            if (exception instanceof RuntimeException) {
+                throw (RuntimeException) exception;
+            }
+            throw new IllegalStateException("Pathing worker failed", exception);
+        }
+        for (Worker worker : workers) {
+            metrics.addConcurrent(worker.metrics);
+        }
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        int numNodes = metrics.getNodesConsidered();
+        long numMovementsConsidered = metrics.getMovementsConsidered();
+        PathNode reached;
+        synchronized (goalNode) {
+            reached = goalNode[0];
+        }
+        if (reached != null) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered over " + workers.length + " threads");
+            return Optional.of(new Path(realStart, startNode, reached, numNodes, goal, calcContext));
+        }
+        Optional<IPath> result = bestSoFar(true, numNodes);
+        if (result.isPresent()) {
+            logDebug("Took " + (System.currentTimeMillis() - startTime) + "ms, " + numMovementsConsidered + " movements considered over " + workers.length + " threads");
+        }
+        return result;
+    }
+
+    /**
+     * Nodes are handed out in 4x4x4 cubes rather than one at a time, so that most of a node's neighbors belong to the
+     * same worker and don't have to be handed over at all
+     */
+    private int owner(int x, int y, int z) {
+        long hash = HashCommon.mix(BetterBlockPos.longHash(x >> 2, y >> 2, z >> 2));
+        return (int) ((hash >>> 1) % workers.length);
+    }
+
+    private void improveBestSoFar(int coefficient, PathNode node, double heuristic) {
+        synchronized (bestHeuristicSoFar) {
+            if (bestHeuristicSoFar[coefficient] - heuristic > minimumImprovement) {
+                bestHeuristicSoFar[coefficient] = heuristic;
+                bestSoFar[coefficient] = node;
+                if (failing && getDistFromStartSq(node) > MIN_DIST_PATH * MIN_DIST_PATH) {
+                    failing = false;
+                    metrics.foundSegment();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether this is the first node in the goal that was reached
+     */
+    private boolean reachedGoal(PathNode node) {
+        synchronized (goalNode) {
+            if (node.cost >= goalCost) {
+                return false;
+            }
+            boolean first = goalNode[0] == null;
+            goalNode[0] = node;
+            goalCost = node.cost;
+            return first;
+        }
+    }
+
+    private void wakeAll() {
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    protected int mapSize() {
+        int size = 0;
+        for (Worker worker : workers) {
+            size += worker.map.size();
+        }
+        return size;
+    }
+
+    /**
+     * A neighbor found by one worker that belongs to another
+     */
+    private static final class Neighbor {
+
+        final int x;
+        final int y;
+        final int z;
+        final long hashCode;
+        final double cost;
+        final PathNode previous;
+        final byte move;
+
+        Neighbor(int x, int y, int z, long hashCode, double cost, PathNode previous, byte move) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.hashCode = hashCode;
+            this.cost = cost;
+            this.previous = previous;
+            this.move = move;
+        }
+    }
+
+    private final class Worker {
+
+        private final int index;
+        private final Long2ObjectOpenHashMap<PathNode> map;
+        private final BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
+        private final ConcurrentLinkedQueue<List<Neighbor>> inbox = new ConcurrentLinkedQueue<>();
+        private final List<Neighbor>[] outbox;
+        private final MutableMoveResult res = new MutableMoveResult();
+
+        /**
+         * The thread running this worker, to unpark it when something is handed over. Null until it starts, but it
+         * looks in its inbox before parking the first time anyway.
+         */
+        private volatile Thread thread;
+
+        /**
+         * What this worker did, added to the metrics of the search once it's done
+         */
+        final PathingMetrics metrics = new PathingMetrics();
+
+        @SuppressWarnings("unchecked")
+        Worker(int index, int mapSize, float loadFactor) {
+            this.index = index;
+            this.map = new Long2ObjectOpenHashMap<>(mapSize, loadFactor);
+            this.outbox = new List[workers.length];
+            for (int i = 0; i < outbox.length; i++) {
+                outbox[i] = new ArrayList<>();
+            }
+        }
+
+        PathNode getNodeAtPosition(int x, int y, int z, long hashCode) {
+            PathNode node = map.get(hashCode);
+            if (node == null) {
+                node = new PathNode(x, y, z, goal);
+                map.put(hashCode, node);
+            }
+            return node;
+        }
+
+        void run(CountDownLatch done) {
+            thread = Thread.currentThread();
+            try {
+                search();
+            } catch (Throwable t) {
+                exception = t;
+                stop = true;
+            } finally {
+                thread = null;
+                wakeAll();
+                done.countDown();
+            }
+        }
+
+        private void search() {
+            boolean busy = true;
+            int iterations = 0;
+            while (!stop) {
+                if ((iterations++ & (TIME_CHECK_INTERVAL - 1)) == 0 || !busy) {
+                    long now = System.currentTimeMillis();
+                    if (cancelRequested || now - failureTimeoutTime >= 0 || (!failing && now - primaryTimeoutTime >= 0)) {
+                        stop = true;
+                        break;
+                    }
+                }
+                // always take in everything handed over before expanding, the cheapest node might be in there
+                List<Neighbor> batch = inbox.poll();
+                if (batch != null) {
+                    if (!busy) {
+                        work.incrementAndGet();
+                        busy = true;
+                    }
+                    for (Neighbor neighbor : batch) {
+                        relax(neighbor.x, neighbor.y, neighbor.z, neighbor.hashCode, neighbor.cost, neighbor.previous, neighbor.move);
+                    }
+                    metrics.openSetSize(openSet.size());
+                    work.decrementAndGet();
+                    continue;
+                }
+                // nothing left here can be part of a cheaper path than the goal node already reached, unless a cheaper
+                // neighbor is handed over
+                if (openSet.isEmpty() || openSet.peekLowest().combinedCost >= goalCost) {
+                    if (busy) {
+                        busy = false;
+                        if (work.decrementAndGet() == 0) {
+                            wakeAll(); // every other worker will see this too, without waiting out the park
+                        }
+                    }
+                    if (work.get() == 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                expand(openSet.removeLowest());
+            }
+        }
+
+        private void expand(PathNode currentNode) {
+            if (slowPath) {
+                try {
+                    Thread.sleep(Baritone.settings().slowPathTimeDelayMS.value);
+                } catch (InterruptedException ignored) {}
+            }
+            mostRecentConsidered = currentNode;
+            metrics.nodes++;
+            if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
+                if (reachedGoal(currentNode)) {
+                    metrics.foundSegment();
+                }
+                return;
+            }
+            int minY = calcContext.bsi.minY;
+            int height = calcContext.bsi.height;
+            BetterWorldBorder worldBorder = calcContext.worldBorder;
+            for (Moves moves : Moves.values()) {
+                int newX = currentNode.x + moves.xOffset;
+                int newZ = currentNode.z + moves.zOffset;
+                if ((newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) && !calcContext.isLoaded(newX, newZ)) {
+                    // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+                    if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
+                        metrics.chunkBorderMisses++;
+                        if (numEmptyChunk.incrementAndGet() >= pathingMaxChunkBorderFetch) {
+                            stop = true;
+                        }
+                    }
+                    continue;
+                }
+                if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
+                    continue;
+                }
+                if (currentNode.y + moves.yOffset > height || currentNode.y + moves.yOffset < minY) {
+                    continue;
+                }
+                res.reset();
+                long before = timings ? System.nanoTime() : 0;
+                moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
+                if (timings) {
+                    metrics.nanos[moves.ordinal()] += System.nanoTime() - before;
+                }
+                metrics.movements[moves.ordinal()]++;
+                double actionCost = res.cost;
+                if (actionCost >= ActionCosts.COST_INF) {
+                    continue;
+                }
+                AStarPathFinder.checkCost(moves, currentNode.x, currentNode.y, currentNode.z, actionCost);
+                // check destination after verifying it's not COST_INF -- some movements return COST_INF without adjusting the destination
+                if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
+                    continue;
+                }
+                AStarPathFinder.checkDestination(moves, currentNode.x, currentNode.y, currentNode.z, newX, newZ, res);
+                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
+                if (!favoring.isEmpty()) {
+                    // see issue #18
+                    actionCost *= favoring.calculate(hashCode);
+                }
+                double tentativeCost = currentNode.cost + actionCost;
+                int owner = owner(res.x, res.y, res.z);
+                if (owner == index) {
+                    relax(res.x, res.y, res.z, hashCode, tentativeCost, currentNode, (byte) moves.ordinal());
+                } else {
+                    outbox[owner].add(new Neighbor(res.x, res.y, res.z, hashCode, tentativeCost, currentNode, (byte) moves.ordinal()));
+                }
+            }
+            for (int i = 0; i < outbox.length; i++) {
+                if (!outbox[i].isEmpty()) {
+                    work.incrementAndGet(); // before handing it over, so that work never drops to zero while it's in flight
+                    workers[i].inbox.add(outbox[i]);
+                    LockSupport.unpark(workers[i].thread);
+                    outbox[i] = new ArrayList<>();
+                }
+            }
+            metrics.openSetSize(openSet.size());
+        }
+
+        private void relax(int x, int y, int z, long hashCode, double tentativeCost, PathNode previous, byte move) {
+            PathNode neighbor = getNodeAtPosition(x, y, z, hashCode);
+            if (neighbor.cost - tentativeCost > minimumImprovement) {
+                neighbor.previous = previous;
+                neighbor.move = move;
+                neighbor.cost = tentativeCost;
+                neighbor.combinedCost = tentativeCost + neighbor.estimatedCostToGoal;
+                if (neighbor.isOpen()) {
+                    openSet.update(neighbor);
+                } else {
+                    openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                }
+                for (int i = 0; i < COEFFICIENTS.length; i++) {
+                    double heuristic = neighbor.estimatedCostToGoal + neighbor.cost / COEFFICIENTS[i];
+                    if (bestHeuristicSoFar[i] - heuristic > minimumImprovement) {
+                        improveBestSoFar(i, neighbor, heuristic);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -28,10 +28,11 @@ import baritone.pathing.movement.Moves;
 import baritone.pathing.path.CutoffPath;
 import baritone.utils.pathing.PathBase;
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -41,6 +42,8 @@ import java.util.List;
  */
 class Path extends PathBase {
 
+    private static final Moves[] MOVES = Moves.values();
+
     /**
      * The start position of this path
      */
@@ -59,7 +62,15 @@ class Path extends PathBase {
 
     private final List<Movement> movements;
 
-    private final List<PathNode> nodes;
+    /**
+     * The cost of getting from the start to each position in {@link #path}
+     */
+    private final double[] costs;
+
+    /**
+     * The ordinal of the {@link Moves} that got to each position in {@link #path}, or -1 if it isn't known
+     */
+    private final byte[] moves;
 
     private final Goal goal;
 
@@ -70,31 +81,34 @@ class Path extends PathBase {
     private volatile boolean verified;
 
     Path(BetterBlockPos realStart, PathNode start, PathNode end, int numNodes, Goal goal, CalculationContext context) {
-        this.end = new BetterBlockPos(end.x, end.y, end.z);
+        this(realStart, backtrackPositions(end), backtrackCosts(end), backtrackMoves(end), numNodes, goal, context);
+    }
+
+    Path(BetterBlockPos realStart, PathNodeStore store, int end, int numNodes, Goal goal, CalculationContext context) {
+        this(realStart, backtrackPositions(store, end), backtrackCosts(store, end), backtrackMoves(store, end), numNodes, goal, context);
+    }
+
+    /**
+     * @param tempPath  The positions from the end of the path back to the start node
+     * @param tempCosts The costs of the positions in tempPath
+     * @param tempMoves The moves that got to the positions in tempPath
+     */
+    private Path(BetterBlockPos realStart, List<BetterBlockPos> tempPath, DoubleArrayList tempCosts, ByteArrayList tempMoves, int numNodes, Goal goal, CalculationContext context) {
+        this.end = tempPath.get(0);
         this.numNodes = numNodes;
         this.movements = new ArrayList<>();
         this.goal = goal;
         this.context = context;
 
-        PathNode current = end;
-        List<BetterBlockPos> tempPath = new ArrayList<>();
-        List<PathNode> tempNodes = new ArrayList<>();
-        while (current != null) {
-            tempNodes.add(current);
-            tempPath.add(new BetterBlockPos(current.x, current.y, current.z));
-            current = current.previous;
-        }
-
         // If the position the player is at is different from the position we told A* to start from,
         // and A* gave us no movements, then add a fake node that will allow a movement to be created
         // that gets us to the single position in the path.
         // See PathingBehavior#createPathfinder and https://github.com/cabaletta/baritone/pull/4519
-        var startNodePos = new BetterBlockPos(start.x, start.y, start.z);
-        if (!realStart.equals(startNodePos) && start.equals(end)) {
+        var startNodePos = tempPath.get(tempPath.size() - 1);
+        if (!realStart.equals(startNodePos) && tempPath.size() == 1) {
             this.start = realStart;
-            PathNode fakeNode = new PathNode(realStart.x, realStart.y, realStart.z, goal);
-            fakeNode.cost = 0;
-            tempNodes.add(fakeNode);
+            tempCosts.add(0);
+            tempMoves.add((byte) -1);
             tempPath.add(realStart);
         } else {
             this.start = startNodePos;
@@ -102,7 +116,62 @@ class Path extends PathBase {
 
         // Nodes are traversed last to first so we need to reverse the list
         this.path = Lists.reverse(tempPath);
-        this.nodes = Lists.reverse(tempNodes);
+        this.costs = new double[tempCosts.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = tempCosts.getDouble(costs.length - 1 - i);
+        }
+        this.moves = new byte[tempMoves.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = tempMoves.getByte(moves.length - 1 - i);
+        }
+    }
+
+    private static List<BetterBlockPos> backtrackPositions(PathNode end) {
+        List<BetterBlockPos> tempPath = new ArrayList<>();
+        for (PathNode current = end; current != null; current = current.previous) {
+            tempPath.add(new BetterBlockPos(current.x, current.y, current.z));
+        }
+        return tempPath;
+    }
+
+    private static DoubleArrayList backtrackCosts(PathNode end) {
+        DoubleArrayList tempCosts = new DoubleArrayList();
+        for (PathNode current = end; current != null; current = current.previous) {
+            tempCosts.add(current.cost);
+        }
+        return tempCosts;
+    }
+
+    private static ByteArrayList backtrackMoves(PathNode end) {
+        ByteArrayList tempMoves = new ByteArrayList();
+        for (PathNode current = end; current != null; current = current.previous) {
+            tempMoves.add(current.move);
+        }
+        return tempMoves;
+    }
+
+    private static List<BetterBlockPos> backtrackPositions(PathNodeStore store, int end) {
+        List<BetterBlockPos> tempPath = new ArrayList<>();
+        for (int current = end; current != PathNodeStore.NONE; current = store.previous(current)) {
+            tempPath.add(new BetterBlockPos(store.x(current), store.y(current), store.z(current)));
+        }
+        return tempPath;
+    }
+
+    private static DoubleArrayList backtrackCosts(PathNodeStore store, int end) {
+        DoubleArrayList tempCosts = new DoubleArrayList();
+        for (int current = end; current != PathNodeStore.NONE; current = store.previous(current)) {
+            tempCosts.add(store.cost(current));
+        }
+        return tempCosts;
+    }
+
+    private static ByteArrayList backtrackMoves(PathNodeStore store, int end) {
+        ByteArrayList tempMoves = new ByteArrayList();
+        for (int current = end; current != PathNodeStore.NONE; current = store.previous(current)) {
+            tempMoves.add(store.move(current));
+        }
+        return tempMoves;
     }
 
     @Override
@@ -115,8 +184,8 @@ class Path extends PathBase {
             throw new IllegalStateException("Path must not be empty");
         }
         for (int i = 0; i < path.size() - 1; i++) {
-            double cost = nodes.get(i + 1).cost - nodes.get(i).cost;
-            Movement move = runBackwards(path.get(i), path.get(i + 1), cost);
+            double cost = costs[i + 1] - costs[i];
+            Movement move = runBackwards(path.get(i), path.get(i + 1), moves[i + 1], cost);
             if (move == null) {
                 return true;
             } else {
@@ -126,15 +195,18 @@ class Path extends PathBase {
         return false;
     }
 
-    private Movement runBackwards(BetterBlockPos src, BetterBlockPos dest, double cost) {
-        for (Moves moves : Moves.values()) {
+    private Movement runBackwards(BetterBlockPos src, BetterBlockPos dest, byte known, double cost) {
+        if (known != -1) {
+            // the search remembers which move it took, so normally this is the only movement that needs to be made
+            Movement move = MOVES[known].apply0(context, src);
+            if (move.getDest().equals(dest)) {
+                return override(move, cost);
+            }
+        }
+        for (Moves moves : MOVES) {
             Movement move = moves.apply0(context, src);
             if (move.getDest().equals(dest)) {
-                // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
-                // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
-                // so we take the minimum of the path node cost difference, and the calculated cost
-                move.override(Math.min(move.calculateCost(context), cost));
-                return move;
+                return override(move, cost);
             }
         }
         // this is no longer called from bestPathSoFar, now it's in postprocessing
@@ -142,6 +214,14 @@ class Path extends PathBase {
         return null;
     }
 
+    private Movement override(Movement move, double cost) {
+        // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
+        // however, taking into account possible favoring that could skew the node cost, we really want the stricter limit of the two
+        // so we take the minimum of the path node cost difference, and the calculated cost
+        move.override(Math.min(move.calculateCost(context), cost));
+        return move;
+    }
+
     @Override
     public IPath postProcess() {
         if (verified) {
@@ -59,6 +59,12 @@ public final class PathNode {
      */
     public PathNode previous;
 
+    /**
+     * The ordinal of the {@link baritone.pathing.movement.Moves} that got here from {@link #previous}, or -1 for the start
+     * Mutable and changed by PathFinder
+     */
+    public byte move;
+
     /**
      * Where is this node in the array flattenization of the binary heap? Needed for decrease-key operations.
      */
@@ -66,6 +72,7 @@ public final class PathNode {
 
     public PathNode(int x, int y, int z, Goal goal) {
         this.previous = null;
+        this.move = -1;
         this.cost = ActionCosts.COST_INF;
         this.estimatedCostToGoal = goal.heuristic(x, y, z);
         if (Double.isNaN(estimatedCostToGoal)) {
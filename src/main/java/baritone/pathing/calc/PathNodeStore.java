@@ -0,0 +1,200 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.SettingsUtil;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import java.util.Arrays;
+
+/**
+ * A struct-of-arrays alternative to a map of {@link PathNode} objects. Every node is identified by an int id, and
+ * its fields are kept in parallel primitive arrays, so a search allocates a handful of arrays instead of one object
+ * per position considered.
+ * <p>
+ * The fields mirror the ones on {@link PathNode}, and have the same meaning.
+ */
+public final class PathNodeStore {
+
+    /**
+     * The initial capacity of the arrays (2^10)
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Node id for "no node", used for {@link #previous(int)} of the start node
+     */
+    public static final int NONE = -1;
+
+    private final Goal goal;
+
+    /**
+     * Block position hashCode long to node id
+     */
+    private final Long2IntOpenHashMap ids;
+
+    private int[] x;
+    private int[] y;
+    private int[] z;
+    private double[] estimatedCostToGoal;
+    private double[] cost;
+    private double[] combinedCost;
+    private int[] previous;
+    private byte[] move;
+    private int[] heapPosition;
+
+    private int size;
+
+    public PathNodeStore(Goal goal, int expectedSize, float loadFactor) {
+        this.goal = goal;
+        this.ids = new Long2IntOpenHashMap(expectedSize, loadFactor);
+        this.ids.defaultReturnValue(NONE);
+        int capacity = Math.max(INITIAL_CAPACITY, expectedSize);
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.estimatedCostToGoal = new double[capacity];
+        this.cost = new double[capacity];
+        this.combinedCost = new double[capacity];
+        this.previous = new int[capacity];
+        this.move = new byte[capacity];
+        this.heapPosition = new int[capacity];
+    }
+
+    /**
+     * Looks up the node at the specified position, creating it if it doesn't exist yet.
+     *
+     * @param x        The x position of the node
+     * @param y        The y position of the node
+     * @param z        The z position of the node
+     * @param hashCode The hash code of the node, provided by {@link baritone.api.utils.BetterBlockPos#longHash(int, int, int)}
+     * @return The id of the associated node
+     */
+    public int getOrCreate(int x, int y, int z, long hashCode) {
+        int id = ids.get(hashCode);
+        if (id == NONE) {
+            id = create(x, y, z);
+            ids.put(hashCode, id);
+        }
+        return id;
+    }
+
+    private int create(int x, int y, int z) {
+        double heuristic = goal.heuristic(x, y, z);
+        if (Double.isNaN(heuristic)) {
+            throw new IllegalStateException(String.format(
+                    "%s calculated implausible heuristic NaN at %s %s %s",
+                    goal,
+                    SettingsUtil.maybeCensor(x),
+                    SettingsUtil.maybeCensor(y),
+                    SettingsUtil.maybeCensor(z)));
+        }
+        if (size >= this.x.length) {
+            grow();
+        }
+        int id = size++;
+        this.x[id] = x;
+        this.y[id] = y;
+        this.z[id] = z;
+        this.estimatedCostToGoal[id] = heuristic;
+        this.cost[id] = ActionCosts.COST_INF;
+        this.previous[id] = NONE;
+        this.move[id] = -1;
+        this.heapPosition[id] = -1;
+        return id;
+    }
+
+    private void grow() {
+        int capacity = x.length << 1;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        estimatedCostToGoal = Arrays.copyOf(estimatedCostToGoal, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        combinedCost = Arrays.copyOf(combinedCost, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        move = Arrays.copyOf(move, capacity);
+        heapPosition = Arrays.copyOf(heapPosition, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int x(int id) {
+        return x[id];
+    }
+
+    public int y(int id) {
+        return y[id];
+    }
+
+    public int z(int id) {
+        return z[id];
+    }
+
+    public double estimatedCostToGoal(int id) {
+        return estimatedCostToGoal[id];
+    }
+
+    public double cost(int id) {
+        return cost[id];
+    }
+
+    public void setCost(int id, double cost) {
+        this.cost[id] = cost;
+    }
+
+    public double combinedCost(int id) {
+        return combinedCost[id];
+    }
+
+    public void setCombinedCost(int id, double combinedCost) {
+        this.combinedCost[id] = combinedCost;
+    }
+
+    public int previous(int id) {
+        return previous[id];
+    }
+
+    public void setPrevious(int id, int previous) {
+        this.previous[id] = previous;
+    }
+
+    public byte move(int id) {
+        return move[id];
+    }
+
+    public void setMove(int id, byte move) {
+        this.move[id] = move;
+    }
+
+    public int heapPosition(int id) {
+        return heapPosition[id];
+    }
+
+    public void setHeapPosition(int id, int heapPosition) {
+        this.heapPosition[id] = heapPosition;
+    }
+
+    public boolean isOpen(int id) {
+        return heapPosition[id] != -1;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPathingMetrics;
+import baritone.pathing.movement.Moves;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The counters of one search. Written by the thread doing the search without any synchronization, a search on several
+ * threads keeps one of these per thread and adds them up at the end.
+ */
+public final class PathingMetrics implements IPathingMetrics {
+
+    private static final Moves[] MOVES = Moves.values();
+
+    /**
+     * By {@link Moves#ordinal()}
+     */
+    final long[] movements = new long[MOVES.length];
+
+    /**
+     * By {@link Moves#ordinal()}, only if {@link baritone.api.Settings#pathingMovementTimings} is on
+     */
+    final long[] nanos = new long[MOVES.length];
+
+    int nodes;
+    int chunkBorderMisses;
+    int peakOpenSetSize;
+    int peakNodeMapSize;
+
+    /**
+     * From {@link System#nanoTime()}, 0 if not yet
+     */
+    private long started;
+    private long finished;
+    private long firstSegment;
+
+    void start() {
+        started = System.nanoTime();
+    }
+
+    void finish(int nodeMapSize) {
+        finished = System.nanoTime();
+        peakNodeMapSize = Math.max(peakNodeMapSize, nodeMapSize);
+    }
+
+    /**
+     * Called once the search has a path it could return
+     */
+    void foundSegment() {
+        if (firstSegment == 0) {
+            firstSegment = System.nanoTime();
+        }
+    }
+
+    void openSetSize(int size) {
+        if (size > peakOpenSetSize) {
+            peakOpenSetSize = size;
+        }
+    }
+
+    /**
+     * Adds the counters of a part of this search that was done on another thread at the same time as the rest. The
+     * peaks are added up too, since all of the parts held their open sets and node maps at once. That's at most what
+     * they were together, since they didn't necessarily peak at the same moment.
+     */
+    void addConcurrent(PathingMetrics other) {
+        addCounts(other);
+        peakOpenSetSize += other.peakOpenSetSize;
+        peakNodeMapSize += other.peakNodeMapSize;
+    }
+
+    /**
+     * Adds the counters of a search this one delegated to and that was done by itself, so that only the biggest of
+     * their peaks was ever held at once
+     */
+    void addDelegated(PathingMetrics other) {
+        addCounts(other);
+        peakOpenSetSize = Math.max(peakOpenSetSize, other.peakOpenSetSize);
+        peakNodeMapSize = Math.max(peakNodeMapSize, other.peakNodeMapSize);
+    }
+
+    private void addCounts(PathingMetrics other) {
+        for (int i = 0; i < MOVES.length; i++) {
+            movements[i] += other.movements[i];
+            nanos[i] += other.nanos[i];
+        }
+        nodes += other.nodes;
+        chunkBorderMisses += other.chunkBorderMisses;
+        if (other.firstSegment != 0 && (firstSegment == 0 || other.firstSegment < firstSegment)) {
+            firstSegment = other.firstSegment;
+        }
+    }
+
+    @Override
+    public long getDurationMillis() {
+        if (started == 0) {
+            return 0;
+        }
+        return ((finished == 0 ? System.nanoTime() : finished) - started) / 1000000L;
+    }
+
+    @Override
+    public long getTimeToFirstSegmentMillis() {
+        if (started == 0 || firstSegment == 0) {
+            return -1;
+        }
+        return Math.max(0, firstSegment - started) / 1000000L;
+    }
+
+    @Override
+    public int getNodesConsidered() {
+        return nodes;
+    }
+
+    @Override
+    public long getMovementsConsidered() {
+        long total = 0;
+        for (long count : movements) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getMovementsConsideredByType() {
+        return byType(movements);
+    }
+
+    @Override
+    public Map<String, Long> getNanosByType() {
+        return byType(nanos);
+    }
+
+    @Override
+    public int getChunkBorderMisses() {
+        return chunkBorderMisses;
+    }
+
+    @Override
+    public int getPeakOpenSetSize() {
+        return peakOpenSetSize;
+    }
+
+    @Override
+    public int getPeakNodeMapSize() {
+        return peakNodeMapSize;
+    }
+
+    private static Map<String, Long> byType(long[] values) {
+        Map<String, Long> res = new LinkedHashMap<>();
+        for (int i = 0; i < MOVES.length; i++) {
+            if (values[i] != 0) {
+                res.put(MOVES[i].name(), values[i]);
+            }
+        }
+        return Collections.unmodifiableMap(res);
+    }
+}
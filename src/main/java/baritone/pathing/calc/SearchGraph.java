@@ -0,0 +1,297 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The movements evaluated by previous searches, kept around so that the next search only has to evaluate movements
+ * near blocks that changed since. Evaluating movements (all the block lookups in {@link baritone.pathing.movement.Moves})
+ * is almost all of the time A* takes, so a replan through an area that was already searched is mostly heap operations.
+ * <p>
+ * Movement costs don't depend on the goal or on where the search started, only on the blocks around the movement and
+ * on the {@link CalculationContext}, so one graph is good for any number of searches as long as the context costs
+ * things the same way. Favoring is applied on top by each search, it isn't part of the cached cost.
+ * <p>
+ * Filled from the pathing thread, invalidated from the main thread.
+ */
+public final class SearchGraph {
+
+    /**
+     * How far horizontally a movement can look from its source, parkour being the furthest
+     */
+    private static final int REACH_XZ = 5;
+
+    /**
+     * How far above its source a movement can look, breaking into the block above the head of an ascend and checking
+     * for falling blocks above that
+     */
+    private static final int REACH_UP = 4;
+
+    private final Long2ObjectOpenHashMap<Successors> successors = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> byChunk = new Long2ObjectOpenHashMap<>();
+    private final List<Object> costInputs;
+    private final int reachDown;
+    private final int maxNodes;
+
+    /**
+     * Incremented on every invalidation, so that movements evaluated while an invalidation happened are never stored
+     */
+    private long generation;
+
+    public SearchGraph(CalculationContext context, int maxNodes) {
+        this.costInputs = costInputs(context);
+        // falls look all the way down to where they land
+        this.reachDown = Math.max(context.maxFallHeightNoWater, context.maxFallHeightBucket) + 2;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Subclasses of {@link CalculationContext} cost things based on the state of whatever process made them, so only
+     * plain contexts can share movements between searches.
+     *
+     * @return Whether movements evaluated with the specified context would cost the same as the ones in this graph
+     */
+    public boolean isCompatible(CalculationContext context) {
+        return context.getClass() == CalculationContext.class && costInputs.equals(costInputs(context));
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param hashCode The position hash of a node, see {@link BetterBlockPos#longHash(int, int, int)}
+     * @return The successors of that node, or null if they need to be evaluated
+     */
+    public synchronized Successors get(long hashCode) {
+        return successors.get(hashCode);
+    }
+
+    /**
+     * Stores the successors of a node, unless anything was invalidated since they started being evaluated
+     *
+     * @param generation What {@link #generation()} returned before evaluating them
+     */
+    public synchronized void put(long hashCode, Successors evaluated, long generation) {
+        if (generation != this.generation || successors.size() >= maxNodes) {
+            return;
+        }
+        successors.put(hashCode, evaluated);
+        byChunk.computeIfAbsent(ChunkPos.asLong(evaluated.sourceX >> 4, evaluated.sourceZ >> 4), k -> new LongOpenHashSet()).add(hashCode);
+    }
+
+    /**
+     * Forgets every node with a movement that could depend on the block at the specified position
+     */
+    public synchronized void invalidateBlock(int x, int y, int z) {
+        generation++;
+        for (int chunkX = (x - REACH_XZ) >> 4; chunkX <= (x + REACH_XZ) >> 4; chunkX++) {
+            for (int chunkZ = (z - REACH_XZ) >> 4; chunkZ <= (z + REACH_XZ) >> 4; chunkZ++) {
+                LongOpenHashSet nodes = byChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (nodes == null) {
+                    continue;
+                }
+                LongIterator it = nodes.iterator();
+                while (it.hasNext()) {
+                    long hashCode = it.nextLong();
+                    Successors s = successors.get(hashCode);
+                    if (Math.abs(s.sourceX - x) <= REACH_XZ && Math.abs(s.sourceZ - z) <= REACH_XZ
+                            && y <= s.sourceY + REACH_UP && y >= s.sourceY - reachDown) {
+                        successors.remove(hashCode);
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every node with a movement that could depend on any block in the specified chunk, for when it's loaded
+     * or unloaded
+     */
+    public synchronized void invalidateChunk(int chunkX, int chunkZ) {
+        generation++;
+        int minX = (chunkX << 4) - REACH_XZ;
+        int maxX = (chunkX << 4) + 15 + REACH_XZ;
+        int minZ = (chunkZ << 4) - REACH_XZ;
+        int maxZ = (chunkZ << 4) + 15 + REACH_XZ;
+        for (int x = minX >> 4; x <= maxX >> 4; x++) {
+            for (int z = minZ >> 4; z <= maxZ >> 4; z++) {
+                LongOpenHashSet nodes = byChunk.get(ChunkPos.asLong(x, z));
+                if (nodes == null) {
+                    continue;
+                }
+                LongIterator it = nodes.iterator();
+                while (it.hasNext()) {
+                    long hashCode = it.nextLong();
+                    Successors s = successors.get(hashCode);
+                    if (s.sourceX >= minX && s.sourceX <= maxX && s.sourceZ >= minZ && s.sourceZ <= maxZ) {
+                        successors.remove(hashCode);
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        successors.clear();
+        byChunk.clear();
+    }
+
+    public synchronized int size() {
+        return successors.size();
+    }
+
+    private static List<Object> costInputs(CalculationContext context) {
+        return Arrays.asList(
+                context.hasThrowaway,
+                context.hasWaterBucket,
+                context.canSprint,
+                context.allowBreak,
+                context.allowBreakAnyway,
+                context.allowParkour,
+                context.allowParkourPlace,
+                context.allowJumpAt256,
+                context.allowParkourAscend,
+                context.assumeWalkOnWater,
+                context.allowFallIntoLava,
+                context.frostWalker,
+                context.allowDiagonalDescend,
+                context.allowDiagonalAscend,
+                context.allowDownward,
+                context.minFallHeight,
+                context.maxFallHeightNoWater,
+                context.maxFallHeightBucket,
+                context.waterWalkSpeed,
+                context.breakBlockAdditionalCost,
+                context.jumpPenalty,
+                context.walkOnWaterOnePenalty,
+                context.settings,
+                context.toolSet.fingerprint(),
+                context.world
+        );
+    }
+
+    /**
+     * Where the movements from one node lead, and what they cost before favoring
+     */
+    public static final class Successors {
+
+        private int sourceX;
+        private int sourceY;
+        private int sourceZ;
+        private int[] x;
+        private int[] y;
+        private int[] z;
+        private double[] cost;
+        private byte[] move;
+        private int size;
+
+        Successors() {
+            this(16);
+        }
+
+        private Successors(int capacity) {
+            this.x = new int[capacity];
+            this.y = new int[capacity];
+            this.z = new int[capacity];
+            this.cost = new double[capacity];
+            this.move = new byte[capacity];
+        }
+
+        /**
+         * Empties this out so it can be reused as scratch space for the successors of another node
+         */
+        void clear(int sourceX, int sourceY, int sourceZ) {
+            this.sourceX = sourceX;
+            this.sourceY = sourceY;
+            this.sourceZ = sourceZ;
+            this.size = 0;
+        }
+
+        void add(int x, int y, int z, double cost, byte move) {
+            if (size == this.x.length) {
+                int capacity = size * 2;
+                this.x = Arrays.copyOf(this.x, capacity);
+                this.y = Arrays.copyOf(this.y, capacity);
+                this.z = Arrays.copyOf(this.z, capacity);
+                this.cost = Arrays.copyOf(this.cost, capacity);
+                this.move = Arrays.copyOf(this.move, capacity);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            this.z[size] = z;
+            this.cost[size] = cost;
+            this.move[size] = move;
+            size++;
+        }
+
+        /**
+         * @return A copy trimmed to size, to be stored while this keeps being reused
+         */
+        Successors copy() {
+            Successors copy = new Successors(size);
+            copy.clear(sourceX, sourceY, sourceZ);
+            System.arraycopy(x, 0, copy.x, 0, size);
+            System.arraycopy(y, 0, copy.y, 0, size);
+            System.arraycopy(z, 0, copy.z, 0, size);
+            System.arraycopy(cost, 0, copy.cost, 0, size);
+            System.arraycopy(move, 0, copy.move, 0, size);
+            copy.size = size;
+            return copy;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int x(int i) {
+            return x[i];
+        }
+
+        public int y(int i) {
+            return y[i];
+        }
+
+        public int z(int i) {
+            return z[i];
+        }
+
+        public double cost(int i) {
+            return cost[i];
+        }
+
+        /**
+         * @return The ordinal of the {@link baritone.pathing.movement.Moves} that gets to the successor
+         */
+        public byte move(int i) {
+            return move[i];
+        }
+    }
+}
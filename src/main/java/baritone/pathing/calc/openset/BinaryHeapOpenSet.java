@@ -89,6 +89,16 @@ public final class BinaryHeapOpenSet implements IOpenSet {
         return size == 0;
     }
 
+    /**
+     * @return The minimum element in the heap, without removing it
+     */
+    public final PathNode peekLowest() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot peek into empty heap");
+        }
+        return array[1];
+    }
+
     @Override
     public final PathNode removeLowest() {
         if (size == 0) {
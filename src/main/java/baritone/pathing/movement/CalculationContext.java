@@ -21,8 +21,10 @@ import baritone.Baritone;
 import baritone.api.IBaritone;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.cache.WorldData;
+import baritone.pathing.precompute.CompiledSettings;
 import baritone.pathing.precompute.PrecomputedData;
 import baritone.utils.BlockStateInterface;
+import baritone.utils.IBlockSource;
 import baritone.utils.ToolSet;
 import baritone.utils.pathing.BetterWorldBorder;
 import net.minecraft.client.player.LocalPlayer;
@@ -83,6 +85,7 @@ public class CalculationContext {
     public double jumpPenalty;
     public final double walkOnWaterOnePenalty;
     public final BetterWorldBorder worldBorder;
+    public final CompiledSettings settings;
 
     public final PrecomputedData precomputedData;
 
@@ -91,17 +94,47 @@ public class CalculationContext {
     }
 
     public CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread) {
-        this.precomputedData = new PrecomputedData();
+        this(baritone, forUseOnAnotherThread, baritone.getPlayerContext().player(), baritone.getPlayerContext().world());
+    }
+
+    private CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread, LocalPlayer player, Level world) {
+        this(
+                baritone,
+                forUseOnAnotherThread,
+                world,
+                (WorldData) baritone.getPlayerContext().worldData(),
+                new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread),
+                new ToolSet(player),
+                Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway(),
+                Baritone.settings().allowWaterBucketFall.value && Inventory.isHotbarSlot(player.getInventory().findSlotMatchingItem(STACK_BUCKET_WATER)) && world.dimension() != Level.NETHER,
+                Baritone.settings().allowSprint.value && player.getFoodData().getFoodLevel() > 6,
+                frostWalkerLevel(player),
+                waterSpeedMultiplier(player)
+        );
+    }
+
+    /**
+     * For contexts that aren't backed by a player, for example when pathing outside of a running game. Everything that
+     * would come from the player (throwaway blocks, water bucket, tools, enchantments) is assumed absent, everything
+     * else is read from settings as usual.
+     *
+     * @param source The blocks to path through
+     */
+    public CalculationContext(IBlockSource source) {
+        this(null, true, null, null, new BlockStateInterface(source), new ToolSet(null), false, false, Baritone.settings().allowSprint.value, 0, 1.0f);
+    }
+
+    private CalculationContext(IBaritone baritone, boolean forUseOnAnotherThread, Level world, WorldData worldData, BlockStateInterface bsi, ToolSet toolSet,
+                               boolean hasThrowaway, boolean hasWaterBucket, boolean canSprint, int frostWalker, float waterSpeedMultiplier) {
         this.safeForThreadedUse = forUseOnAnotherThread;
         this.baritone = baritone;
-        LocalPlayer player = baritone.getPlayerContext().player();
-        this.world = baritone.getPlayerContext().world();
-        this.worldData = (WorldData) baritone.getPlayerContext().worldData();
-        this.bsi = new BlockStateInterface(baritone.getPlayerContext(), forUseOnAnotherThread);
-        this.toolSet = new ToolSet(player);
-        this.hasThrowaway = Baritone.settings().allowPlace.value && ((Baritone) baritone).getInventoryBehavior().hasGenericThrowaway();
-        this.hasWaterBucket = Baritone.settings().allowWaterBucketFall.value && Inventory.isHotbarSlot(player.getInventory().findSlotMatchingItem(STACK_BUCKET_WATER)) && world.dimension() != Level.NETHER;
-        this.canSprint = Baritone.settings().allowSprint.value && player.getFoodData().getFoodLevel() > 6;
+        this.world = world;
+        this.worldData = worldData;
+        this.bsi = bsi;
+        this.toolSet = toolSet;
+        this.hasThrowaway = hasThrowaway;
+        this.hasWaterBucket = hasWaterBucket;
+        this.canSprint = canSprint;
         this.placeBlockCost = Baritone.settings().blockPlacementPenalty.value;
         this.allowBreak = Baritone.settings().allowBreak.value;
         this.allowBreakAnyway = new ArrayList<>(Baritone.settings().allowBreakAnyway.value);
@@ -111,11 +144,31 @@ public class CalculationContext {
         this.allowParkourAscend = Baritone.settings().allowParkourAscend.value;
         this.assumeWalkOnWater = Baritone.settings().assumeWalkOnWater.value;
         this.allowFallIntoLava = false; // Super secret internal setting for ElytraBehavior
+        this.frostWalker = frostWalker;
+        this.allowDiagonalDescend = Baritone.settings().allowDiagonalDescend.value;
+        this.allowDiagonalAscend = Baritone.settings().allowDiagonalAscend.value;
+        this.allowDownward = Baritone.settings().allowDownward.value;
+        this.minFallHeight = 3; // Minimum fall height used by MovementFall
+        this.maxFallHeightNoWater = Baritone.settings().maxFallHeightNoWater.value;
+        this.maxFallHeightBucket = Baritone.settings().maxFallHeightBucket.value;
+        this.waterWalkSpeed = ActionCosts.WALK_ONE_IN_WATER_COST * (1 - waterSpeedMultiplier) + ActionCosts.WALK_ONE_BLOCK_COST * waterSpeedMultiplier;
+        this.breakBlockAdditionalCost = Baritone.settings().blockBreakAdditionalPenalty.value;
+        this.backtrackCostFavoringCoefficient = Baritone.settings().backtrackCostFavoringCoefficient.value;
+        this.jumpPenalty = Baritone.settings().jumpPenalty.value;
+        this.walkOnWaterOnePenalty = Baritone.settings().walkOnWaterOnePenalty.value;
+        // why cache these things here, why not let the movements just get directly from settings?
+        // because if some movements are calculated one way and others are calculated another way,
+        // then you get a wildly inconsistent path that isn't optimal for either scenario.
+        this.worldBorder = bsi.worldBorder;
+        this.settings = CompiledSettings.compile(this.allowBreakAnyway);
+        this.precomputedData = new PrecomputedData(this);
+    }
+
+    private static int frostWalkerLevel(LocalPlayer player) {
         // todo: technically there can now be datapack enchants that replace blocks with any other at any range
         int frostWalkerLevel = 0;
         for (EquipmentSlot slot : EquipmentSlot.values()) {
-            ItemEnchantments itemEnchantments = baritone.getPlayerContext()
-                .player()
+            ItemEnchantments itemEnchantments = player
                 .getItemBySlot(slot)
                 .getEnchantments();
             for (Holder<Enchantment> enchant : itemEnchantments.keySet()) {
@@ -124,17 +177,12 @@ public class CalculationContext {
                 }
             }
         }
-        this.frostWalker = frostWalkerLevel;
-        this.allowDiagonalDescend = Baritone.settings().allowDiagonalDescend.value;
-        this.allowDiagonalAscend = Baritone.settings().allowDiagonalAscend.value;
-        this.allowDownward = Baritone.settings().allowDownward.value;
-        this.minFallHeight = 3; // Minimum fall height used by MovementFall
-        this.maxFallHeightNoWater = Baritone.settings().maxFallHeightNoWater.value;
-        this.maxFallHeightBucket = Baritone.settings().maxFallHeightBucket.value;
-        float waterSpeedMultiplier = 1.0f;
-        OUTER: for (EquipmentSlot slot : EquipmentSlot.values()) {
-            ItemEnchantments itemEnchantments = baritone.getPlayerContext()
-                .player()
+        return frostWalkerLevel;
+    }
+
+    private static float waterSpeedMultiplier(LocalPlayer player) {
+        for (EquipmentSlot slot : EquipmentSlot.values()) {
+            ItemEnchantments itemEnchantments = player
                 .getItemBySlot(slot)
                 .getEnchantments();
             for (Holder<Enchantment> enchant : itemEnchantments.keySet()) {
@@ -142,21 +190,12 @@ public class CalculationContext {
                     .getEffects(EnchantmentEffectComponents.ATTRIBUTES);
                 for (EnchantmentAttributeEffect effect : effects) {
                     if (effect.attribute().is(Attributes.WATER_MOVEMENT_EFFICIENCY.unwrapKey().get())) {
-                        waterSpeedMultiplier = effect.amount().calculate(itemEnchantments.getLevel(enchant));
-                        break OUTER;
+                        return effect.amount().calculate(itemEnchantments.getLevel(enchant));
                     }
                 }
             }
         }
-        this.waterWalkSpeed = ActionCosts.WALK_ONE_IN_WATER_COST * (1 - waterSpeedMultiplier) + ActionCosts.WALK_ONE_BLOCK_COST * waterSpeedMultiplier;
-        this.breakBlockAdditionalCost = Baritone.settings().blockBreakAdditionalPenalty.value;
-        this.backtrackCostFavoringCoefficient = Baritone.settings().backtrackCostFavoringCoefficient.value;
-        this.jumpPenalty = Baritone.settings().jumpPenalty.value;
-        this.walkOnWaterOnePenalty = Baritone.settings().walkOnWaterOnePenalty.value;
-        // why cache these things here, why not let the movements just get directly from settings?
-        // because if some movements are calculated one way and others are calculated another way,
-        // then you get a wildly inconsistent path that isn't optimal for either scenario.
-        this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
+        return 1.0f;
     }
 
     public final IBaritone getBaritone() {
@@ -199,7 +238,7 @@ public class CalculationContext {
     }
 
     public double breakCostMultiplierAt(int x, int y, int z, BlockState current) {
-        if (!allowBreak && !allowBreakAnyway.contains(current.getBlock())) {
+        if (!allowBreak && !precomputedData.allowBreakAnyway(current)) {
             return COST_INF;
         }
         if (isPossiblyProtected(x, y, z)) {
@@ -26,6 +26,7 @@ import baritone.api.utils.*;
 import baritone.api.utils.Rotation;
 import baritone.api.utils.input.Input;
 import baritone.pathing.movement.MovementState.MovementTarget;
+import baritone.pathing.precompute.CompiledSettings;
 import baritone.pathing.precompute.Ternary;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.ToolSet;
@@ -65,19 +66,24 @@ public interface MovementHelper extends ActionCosts, Helper {
         if (!bsi.worldBorder.canPlaceAt(x, z)) {
             return true;
         }
+        CompiledSettings settings = CompiledSettings.current();
+        return avoidBreakingBlockState(state, settings)
+                // call context.get directly with x,y,z. no need to make 5 new BlockPos for no reason
+                || avoidAdjacentBreaking(bsi, x, y + 1, z, true, settings)
+                || avoidAdjacentBreaking(bsi, x + 1, y, z, false, settings)
+                || avoidAdjacentBreaking(bsi, x - 1, y, z, false, settings)
+                || avoidAdjacentBreaking(bsi, x, y, z + 1, false, settings)
+                || avoidAdjacentBreaking(bsi, x, y, z - 1, false, settings);
+    }
+
+    static boolean avoidBreakingBlockState(BlockState state, CompiledSettings settings) {
         Block b = state.getBlock();
-        return Baritone.settings().blocksToDisallowBreaking.value.contains(b)
+        return settings.disallowBreaking(state)
                 || b == Blocks.ICE // ice becomes water, and water can mess up the path
-                || b instanceof InfestedBlock // obvious reasons
-                // call context.get directly with x,y,z. no need to make 5 new BlockPos for no reason
-                || avoidAdjacentBreaking(bsi, x, y + 1, z, true)
-                || avoidAdjacentBreaking(bsi, x + 1, y, z, false)
-                || avoidAdjacentBreaking(bsi, x - 1, y, z, false)
-                || avoidAdjacentBreaking(bsi, x, y, z + 1, false)
-                || avoidAdjacentBreaking(bsi, x, y, z - 1, false);
+                || b instanceof InfestedBlock; // obvious reasons
     }
 
-    static boolean avoidAdjacentBreaking(BlockStateInterface bsi, int x, int y, int z, boolean directlyAbove) {
+    static boolean avoidAdjacentBreaking(BlockStateInterface bsi, int x, int y, int z, boolean directlyAbove, CompiledSettings settings) {
         // returns true if you should avoid breaking a block that's adjacent to this one (e.g. lava that will start flowing if you give it a path)
         // this is only called for north, south, east, west, and up. this is NOT called for down.
         // we assume that it's ALWAYS okay to break the block thats ABOVE liquid
@@ -86,14 +92,14 @@ public interface MovementHelper extends ActionCosts, Helper {
         if (!directlyAbove // it is fine to mine a block that has a falling block directly above, this (the cost of breaking the stacked fallings) is included in cost calculations
                 // therefore if directlyAbove is true, we will actually ignore if this is falling
                 && block instanceof FallingBlock // obviously, this check is only valid for falling blocks
-                && Baritone.settings().avoidUpdatingFallingBlocks.value // and if the setting is enabled
+                && settings.avoidUpdatingFallingBlocks // and if the setting is enabled
                 && FallingBlock.isFree(bsi.get0(x, y - 1, z))) { // and if it would fall (i.e. it's unsupported)
             return true; // dont break a block that is adjacent to unsupported gravel because it can cause really weird stuff
         }
         // only pure liquids for now
         // waterlogged blocks can have closed bottom sides and such
         if (block instanceof LiquidBlock) {
-            if (directlyAbove || Baritone.settings().strictLiquidCheck.value) {
+            if (directlyAbove || settings.strictLiquidCheck) {
                 return true;
             }
             int level = state.getValue(LiquidBlock.LEVEL);
@@ -123,17 +129,18 @@ public interface MovementHelper extends ActionCosts, Helper {
     }
 
     static boolean canWalkThrough(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        Ternary canWalkThrough = canWalkThroughBlockState(state);
+        CompiledSettings settings = CompiledSettings.current();
+        Ternary canWalkThrough = canWalkThroughBlockState(state, settings);
         if (canWalkThrough == YES) {
             return true;
         }
         if (canWalkThrough == NO) {
             return false;
         }
-        return canWalkThroughPosition(bsi, x, y, z, state);
+        return canWalkThroughPosition(bsi, x, y, z, state, settings);
     }
 
-    static Ternary canWalkThroughBlockState(BlockState state) {
+    static Ternary canWalkThroughBlockState(BlockState state, CompiledSettings settings) {
         Block block = state.getBlock();
         if (block instanceof AirBlock) {
             return YES;
@@ -147,7 +154,7 @@ public interface MovementHelper extends ActionCosts, Helper {
         if (block == Blocks.POWDER_SNOW) {
             return NO;
         }
-        if (Baritone.settings().blocksToAvoid.value.contains(block)) {
+        if (settings.avoid(state)) {
             return NO;
         }
         if (block instanceof DoorBlock || block instanceof FenceGateBlock) {
@@ -183,7 +190,7 @@ public interface MovementHelper extends ActionCosts, Helper {
         }
     }
 
-    static boolean canWalkThroughPosition(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+    static boolean canWalkThroughPosition(BlockStateInterface bsi, int x, int y, int z, BlockState state, CompiledSettings settings) {
         Block block = state.getBlock();
 
         if (block instanceof CarpetBlock) {
@@ -211,7 +218,7 @@ public interface MovementHelper extends ActionCosts, Helper {
                 return false;
             }
             // Everything after this point has to be a special case as it relies on the water not being flowing, which means a special case is needed.
-            if (Baritone.settings().assumeWalkOnWater.value) {
+            if (settings.assumeWalkOnWater) {
                 return false;
             }
 
@@ -368,6 +375,10 @@ public interface MovementHelper extends ActionCosts, Helper {
         return (facing == playerFacing) == open;
     }
 
+    static boolean avoidWalkingInto(CalculationContext context, BlockState state) {
+        return context.precomputedData.avoidWalkingInto(state);
+    }
+
     static boolean avoidWalkingInto(BlockState state) {
         Block block = state.getBlock();
         return !state.getFluidState().isEmpty()
@@ -395,17 +406,18 @@ public interface MovementHelper extends ActionCosts, Helper {
      * @return Whether or not the specified block can be walked on
      */
     static boolean canWalkOn(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
-        Ternary canWalkOn = canWalkOnBlockState(state);
+        CompiledSettings settings = CompiledSettings.current();
+        Ternary canWalkOn = canWalkOnBlockState(state, settings);
         if (canWalkOn == YES) {
             return true;
         }
         if (canWalkOn == NO) {
             return false;
         }
-        return canWalkOnPosition(bsi, x, y, z, state);
+        return canWalkOnPosition(bsi, x, y, z, state, settings);
     }
 
-    static Ternary canWalkOnBlockState(BlockState state) {
+    static Ternary canWalkOnBlockState(BlockState state, CompiledSettings settings) {
         Block block = state.getBlock();
         if (isBlockNormalCube(state) && block != Blocks.MAGMA_BLOCK && block != Blocks.BUBBLE_COLUMN && block != Blocks.HONEY_BLOCK) {
             return YES;
@@ -413,7 +425,7 @@ public interface MovementHelper extends ActionCosts, Helper {
         if (block instanceof AzaleaBlock) {
             return YES;
         }
-        if (block == Blocks.LADDER || (block == Blocks.VINE && Baritone.settings().allowVines.value)) { // TODO reconsider this
+        if (block == Blocks.LADDER || (block == Blocks.VINE && settings.allowVines)) { // TODO reconsider this
             return YES;
         }
         if (block == Blocks.FARMLAND || block == Blocks.DIRT_PATH || block == Blocks.SOUL_SAND) {
@@ -431,11 +443,11 @@ public interface MovementHelper extends ActionCosts, Helper {
         if (isWater(state)) {
             return MAYBE;
         }
-        if (MovementHelper.isLava(state) && Baritone.settings().assumeWalkOnLava.value) {
+        if (MovementHelper.isLava(state) && settings.assumeWalkOnLava) {
             return MAYBE;
         }
         if (block instanceof SlabBlock) {
-            if (!Baritone.settings().allowWalkOnBottomSlab.value) {
+            if (!settings.allowWalkOnBottomSlab) {
                 if (state.getValue(SlabBlock.TYPE) != SlabType.BOTTOM) {
                     return YES;
                 }
@@ -446,7 +458,7 @@ public interface MovementHelper extends ActionCosts, Helper {
         return NO;
     }
 
-    static boolean canWalkOnPosition(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+    static boolean canWalkOnPosition(BlockStateInterface bsi, int x, int y, int z, BlockState state, CompiledSettings settings) {
         Block block = state.getBlock();
         if (isWater(state)) {
             // since this is called literally millions of times per second, the benefit of not allocating millions of useless "pos.up()"
@@ -458,14 +470,14 @@ public interface MovementHelper extends ActionCosts, Helper {
             }
             if (MovementHelper.isFlowing(x, y, z, state, bsi) || upState.getFluidState().getType() == Fluids.FLOWING_WATER) {
                 // the only scenario in which we can walk on flowing water is if it's under still water with jesus off
-                return isWater(upState) && !Baritone.settings().assumeWalkOnWater.value;
+                return isWater(upState) && !settings.assumeWalkOnWater;
             }
             // if assumeWalkOnWater is on, we can only walk on water if there isn't water above it
             // if assumeWalkOnWater is off, we can only walk on water if there is water above it
-            return isWater(upState) ^ Baritone.settings().assumeWalkOnWater.value;
+            return isWater(upState) ^ settings.assumeWalkOnWater;
         }
 
-        if (MovementHelper.isLava(state) && !MovementHelper.isFlowing(x, y, z, state, bsi) && Baritone.settings().assumeWalkOnLava.value) { // if we get here it means that assumeWalkOnLava must be true, so put it last
+        if (MovementHelper.isLava(state) && !MovementHelper.isFlowing(x, y, z, state, bsi) && settings.assumeWalkOnLava) { // if we get here it means that assumeWalkOnLava must be true, so put it last
             return true;
         }
 
@@ -591,28 +603,26 @@ public interface MovementHelper extends ActionCosts, Helper {
     }
 
     static double getMiningDurationTicks(CalculationContext context, int x, int y, int z, BlockState state, boolean includeFalling) {
-        Block block = state.getBlock();
         if (!canWalkThrough(context, x, y, z, state)) {
-            if (!state.getFluidState().isEmpty()) {
+            if (isLiquid(context, state)) {
                 return COST_INF;
             }
             double mult = context.breakCostMultiplierAt(x, y, z, state);
             if (mult >= COST_INF) {
                 return COST_INF;
             }
-            if (avoidBreaking(context.bsi, x, y, z, state)) {
+            if (context.precomputedData.avoidBreaking(context.bsi, x, y, z, state)) {
                 return COST_INF;
             }
-            double strVsBlock = context.toolSet.getStrVsBlock(state);
-            if (strVsBlock <= 0) {
+            double result = context.precomputedData.miningTicks(state);
+            if (result >= COST_INF) {
                 return COST_INF;
             }
-            double result = 1 / strVsBlock;
             result += context.breakBlockAdditionalCost;
             result *= mult;
             if (includeFalling) {
                 BlockState above = context.get(x, y + 1, z);
-                if (above.getBlock() instanceof FallingBlock) {
+                if (isFalling(context, above)) {
                     result += getMiningDurationTicks(context, x, y + 1, z, above, true);
                 }
             }
@@ -698,6 +708,14 @@ public interface MovementHelper extends ActionCosts, Helper {
         return isLiquid(BlockStateInterface.get(ctx, p));
     }
 
+    static boolean isLiquid(CalculationContext context, BlockState state) {
+        return context.precomputedData.isLiquid(state);
+    }
+
+    static boolean isFalling(CalculationContext context, BlockState state) {
+        return context.precomputedData.isFalling(state);
+    }
+
     static boolean isLiquid(BlockState blockState) {
         return !blockState.getFluidState().isEmpty();
     }
@@ -31,7 +31,6 @@ import com.google.common.collect.ImmutableSet;
 import java.util.Set;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.FallingBlock;
 import net.minecraft.world.level.block.state.BlockState;
 
 public class MovementAscend extends Movement {
@@ -93,7 +92,7 @@ public class MovementAscend extends Movement {
             }
         }
         BlockState srcUp2 = context.get(x, y + 2, z); // used lower down anyway
-        if (context.get(x, y + 3, z).getBlock() instanceof FallingBlock && (MovementHelper.canWalkThrough(context, x, y + 1, z) || !(srcUp2.getBlock() instanceof FallingBlock))) {//it would fall on us and possibly suffocate us
+        if (MovementHelper.isFalling(context, context.get(x, y + 3, z)) && (MovementHelper.canWalkThrough(context, x, y + 1, z) || !MovementHelper.isFalling(context, srcUp2))) {//it would fall on us and possibly suffocate us
             // HOWEVER, we assume that we're standing in the start position
             // that means that src and src.up(1) are both air
             // maybe they aren't now, but they will be by the time this starts
@@ -79,7 +79,7 @@ public class MovementParkour extends Movement {
             // second most common case -- we could just traverse not parkour
             return;
         }
-        if (MovementHelper.avoidWalkingInto(adj) && !(adj.getFluidState().getType() instanceof WaterFluid)) { // magma sucks
+        if (MovementHelper.avoidWalkingInto(context, adj) && !(adj.getFluidState().getType() instanceof WaterFluid)) { // magma sucks
             return;
         }
         if (!MovementHelper.fullyPassable(context, x + xDiff, y + 1, z + zDiff)) {
@@ -96,10 +96,10 @@ public class MovementParkour extends Movement {
             return;
         }
         // we can't jump from (frozen) water with assumeWalkOnWater because we can't be sure it will be frozen
-        if (context.assumeWalkOnWater && !standingOn.getFluidState().isEmpty()) {
+        if (context.assumeWalkOnWater && MovementHelper.isLiquid(context, standingOn)) {
             return;
         }
-        if (!context.get(x, y, z).getFluidState().isEmpty()) {
+        if (MovementHelper.isLiquid(context, context.get(x, y, z))) {
             return; // can't jump out of water
         }
         int maxJump;
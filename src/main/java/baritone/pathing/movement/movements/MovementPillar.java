@@ -94,13 +94,13 @@ public class MovementPillar extends Movement {
                 placeCost += 0.1; // slightly (1/200th of a second) penalize pillaring on what's currently air
             }
         }
-        if ((MovementHelper.isLiquid(fromState) && !MovementHelper.canPlaceAgainst(context.bsi, x, y - 1, z, fromDown)) || (MovementHelper.isLiquid(fromDown) && context.assumeWalkOnWater)) {
+        if ((MovementHelper.isLiquid(context, fromState) && !MovementHelper.canPlaceAgainst(context.bsi, x, y - 1, z, fromDown)) || (MovementHelper.isLiquid(context, fromDown) && context.assumeWalkOnWater)) {
             // otherwise, if we're standing in water, we cannot pillar
             // if we're standing on water and assumeWalkOnWater is true, we cannot pillar
             // if we're standing on water and assumeWalkOnWater is false, we must have ascended to here, or sneak backplaced, so it is possible to pillar again
             return COST_INF;
         }
-        if ((from == Blocks.LILY_PAD || from instanceof CarpetBlock) && !fromDown.getFluidState().isEmpty()) {
+        if ((from == Blocks.LILY_PAD || from instanceof CarpetBlock) && MovementHelper.isLiquid(context, fromDown)) {
             // to ascend here we'd have to break the block we are standing on
             return COST_INF;
         }
@@ -113,12 +113,12 @@ public class MovementPillar extends Movement {
                 hardness = 0; // we won't actually need to break the ladder / vine because we're going to use it
             } else {
                 BlockState check = context.get(x, y + 3, z); // the block on top of the one we're going to break, could it fall on us?
-                if (check.getBlock() instanceof FallingBlock) {
+                if (MovementHelper.isFalling(context, check)) {
                     // see MovementAscend's identical check for breaking a falling block above our head
                     if (srcUp == null) {
                         srcUp = context.get(x, y + 1, z);
                     }
-                    if (!(toBreakBlock instanceof FallingBlock) || !(srcUp.getBlock() instanceof FallingBlock)) {
+                    if (!MovementHelper.isFalling(context, toBreak) || !MovementHelper.isFalling(context, srcUp)) {
                         return COST_INF;
                     }
                 }
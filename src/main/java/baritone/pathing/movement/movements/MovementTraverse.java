@@ -158,7 +158,7 @@ public class MovementTraverse extends Movement {
                     return COST_INF; // this is obviously impossible
                 }
                 Block blockSrc = context.getBlock(x, y, z);
-                if ((blockSrc == Blocks.LILY_PAD || blockSrc instanceof CarpetBlock) && !srcDown.getFluidState().isEmpty()) {
+                if ((blockSrc == Blocks.LILY_PAD || blockSrc instanceof CarpetBlock) && MovementHelper.isLiquid(context, srcDown)) {
                     return COST_INF; // we can stand on these but can't place against them
                 }
                 WC = WC * (SNEAK_ONE_BLOCK_COST / WALK_ONE_BLOCK_COST);//since we are sneak backplacing, we are sneaking lol
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.pathing.PathBase;
+
+import java.util.List;
+
+/**
+ * A path from a search that was aimed somewhere on the way to the goal rather than at the goal itself, like a segment
+ * of a {@link baritone.pathing.calc.HierarchicalPathFinder} search. It reports the goal it's on the way to instead of
+ * the one the search was aimed at, so that a process revalidating its goal against the path sees the goal it asked for.
+ */
+public class SegmentPath extends PathBase {
+
+    private final IPath path;
+
+    private final Goal goal;
+
+    public SegmentPath(IPath path, Goal goal) {
+        this.path = path;
+        this.goal = goal;
+    }
+
+    @Override
+    public Goal getGoal() {
+        return goal;
+    }
+
+    @Override
+    public IPath postProcess() {
+        return new SegmentPath(path.postProcess(), goal);
+    }
+
+    @Override
+    public List<IMovement> movements() {
+        return path.movements();
+    }
+
+    @Override
+    public List<BetterBlockPos> positions() {
+        return path.positions();
+    }
+
+    @Override
+    public int getNumNodesConsidered() {
+        return path.getNumNodesConsidered();
+    }
+
+    @Override
+    public BetterBlockPos getSrc() {
+        return path.getSrc();
+    }
+
+    @Override
+    public BetterBlockPos getDest() {
+        return path.getDest();
+    }
+}
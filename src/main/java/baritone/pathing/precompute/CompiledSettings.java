@@ -0,0 +1,200 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.precompute;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The settings that movement costs depend on, read once when a {@link baritone.pathing.movement.CalculationContext} is
+ * made, so that a search sees the same settings from start to finish however they're changed meanwhile. Lists of
+ * blocks become bitsets by state id, so checking a block is a bit lookup instead of a list scan.
+ * <p>
+ * Immutable once constructed, so it's safe to share between the threads of a search.
+ */
+public final class CompiledSettings {
+
+    private static volatile CompiledSettings current;
+
+    /**
+     * The lists this was compiled from, compared by identity to tell whether {@link #current} is stale. The other
+     * settings are compared by value.
+     */
+    private final List<Block> avoidSource;
+    private final List<Block> disallowBreakingSource;
+    private final List<Block> avoidBreakingSource;
+    private final List<Block> allowBreakAnywaySource;
+
+    private final BitSet avoid;
+    private final BitSet disallowBreaking;
+    private final BitSet avoidBreaking;
+    private final BitSet allowBreakAnyway;
+
+    public final double avoidBreakingMultiplier;
+    public final boolean avoidUpdatingFallingBlocks;
+    public final boolean strictLiquidCheck;
+    public final boolean assumeWalkOnWater;
+    public final boolean assumeWalkOnLava;
+    public final boolean allowVines;
+    public final boolean allowWalkOnBottomSlab;
+
+    private CompiledSettings(Settings settings, List<Block> allowBreakAnyway) {
+        this.avoidSource = settings.blocksToAvoid.value;
+        this.disallowBreakingSource = settings.blocksToDisallowBreaking.value;
+        this.avoidBreakingSource = settings.blocksToAvoidBreaking.value;
+        this.allowBreakAnywaySource = allowBreakAnyway;
+        this.avoid = states(settings.blocksToAvoid.value);
+        this.disallowBreaking = states(settings.blocksToDisallowBreaking.value);
+        this.avoidBreaking = states(settings.blocksToAvoidBreaking.value);
+        this.allowBreakAnyway = states(allowBreakAnyway);
+        this.avoidBreakingMultiplier = settings.avoidBreakingMultiplier.value;
+        this.avoidUpdatingFallingBlocks = settings.avoidUpdatingFallingBlocks.value;
+        this.strictLiquidCheck = settings.strictLiquidCheck.value;
+        this.assumeWalkOnWater = settings.assumeWalkOnWater.value;
+        this.assumeWalkOnLava = settings.assumeWalkOnLava.value;
+        this.allowVines = settings.allowVines.value;
+        this.allowWalkOnBottomSlab = settings.allowWalkOnBottomSlab.value;
+    }
+
+    /**
+     * @param allowBreakAnyway The context's copy of {@link Settings#allowBreakAnyway}
+     * @return The settings as they are right now, for a new calculation context
+     */
+    public static CompiledSettings compile(List<Block> allowBreakAnyway) {
+        return new CompiledSettings(Baritone.settings(), allowBreakAnyway);
+    }
+
+    /**
+     * For code that isn't part of a search and has no calculation context, such as a movement checking the world as
+     * it's executed. Compiled again whenever one of the settings is set.
+     *
+     * @return The settings as they are right now
+     */
+    public static CompiledSettings current() {
+        Settings settings = Baritone.settings();
+        CompiledSettings current = CompiledSettings.current;
+        if (current == null || !current.compiledFrom(settings)) {
+            current = new CompiledSettings(settings, settings.allowBreakAnyway.value);
+            CompiledSettings.current = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return Whether this state's block is on {@link Settings#blocksToAvoid}
+     */
+    public boolean avoid(BlockState state) {
+        return has(avoid, state);
+    }
+
+    /**
+     * @return Whether this state's block is on {@link Settings#blocksToDisallowBreaking}
+     */
+    public boolean disallowBreaking(BlockState state) {
+        return has(disallowBreaking, state);
+    }
+
+    /**
+     * @return What breaking this state is multiplied by, {@link #avoidBreakingMultiplier} if its block is on
+     * {@link Settings#blocksToAvoidBreaking}
+     */
+    public double breakingMultiplier(BlockState state) {
+        return has(avoidBreaking, state) ? avoidBreakingMultiplier : 1;
+    }
+
+    /**
+     * @return Whether this state's block is on {@link Settings#allowBreakAnyway}
+     */
+    public boolean allowBreakAnyway(BlockState state) {
+        return has(allowBreakAnyway, state);
+    }
+
+    /**
+     * Checked on every {@link #current()}, which can be once per block looked at, so this mustn't allocate
+     */
+    private boolean compiledFrom(Settings settings) {
+        return avoidSource == settings.blocksToAvoid.value
+                && disallowBreakingSource == settings.blocksToDisallowBreaking.value
+                && avoidBreakingSource == settings.blocksToAvoidBreaking.value
+                && allowBreakAnywaySource == settings.allowBreakAnyway.value
+                && avoidBreakingMultiplier == settings.avoidBreakingMultiplier.value
+                && avoidUpdatingFallingBlocks == settings.avoidUpdatingFallingBlocks.value
+                && strictLiquidCheck == settings.strictLiquidCheck.value
+                && assumeWalkOnWater == settings.assumeWalkOnWater.value
+                && assumeWalkOnLava == settings.assumeWalkOnLava.value
+                && allowVines == settings.allowVines.value
+                && allowWalkOnBottomSlab == settings.allowWalkOnBottomSlab.value;
+    }
+
+    private static BitSet states(Collection<Block> blocks) {
+        BitSet states = new BitSet(Block.BLOCK_STATE_REGISTRY.size());
+        for (Block block : blocks) {
+            for (BlockState state : block.getStateDefinition().getPossibleStates()) {
+                int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+                if (id >= 0) {
+                    states.set(id);
+                }
+            }
+        }
+        return states;
+    }
+
+    private static boolean has(BitSet states, BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        return id >= 0 && states.get(id);
+    }
+
+    /**
+     * Equal if movement costs would come out the same, for {@link baritone.pathing.calc.SearchGraph} to tell whether
+     * what it has cached can be reused
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompiledSettings)) {
+            return false;
+        }
+        CompiledSettings other = (CompiledSettings) o;
+        return avoidBreakingMultiplier == other.avoidBreakingMultiplier
+                && avoidUpdatingFallingBlocks == other.avoidUpdatingFallingBlocks
+                && strictLiquidCheck == other.strictLiquidCheck
+                && assumeWalkOnWater == other.assumeWalkOnWater
+                && assumeWalkOnLava == other.assumeWalkOnLava
+                && allowVines == other.allowVines
+                && allowWalkOnBottomSlab == other.allowWalkOnBottomSlab
+                && avoid.equals(other.avoid)
+                && disallowBreaking.equals(other.disallowBreaking)
+                && avoidBreaking.equals(other.avoidBreaking)
+                && allowBreakAnyway.equals(other.allowBreakAnyway);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(avoidBreakingMultiplier, avoidUpdatingFallingBlocks, strictLiquidCheck, assumeWalkOnWater,
+                assumeWalkOnLava, allowVines, allowWalkOnBottomSlab, avoid, disallowBreaking, avoidBreaking, allowBreakAnyway);
+    }
+}
@@ -17,18 +17,35 @@
 
 package baritone.pathing.precompute;
 
+import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.MovementHelper;
 import baritone.utils.BlockStateInterface;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.FallingBlock;
 import net.minecraft.world.level.block.state.BlockState;
 
+import static baritone.api.pathing.movement.ActionCosts.COST_INF;
 import static baritone.pathing.precompute.Ternary.MAYBE;
 import static baritone.pathing.precompute.Ternary.YES;
 
+/**
+ * Everything about a block state that movement costs depend on, worked out the first time each state is looked at
+ * and kept in arrays indexed by state id. Belongs to one {@link CalculationContext}, so it can also hold what depends
+ * on its settings and tools.
+ */
 public class PrecomputedData {
 
     private final int[] data = new int[Block.BLOCK_STATE_REGISTRY.size()];
 
+    /**
+     * Ticks to break each state with the best tool, or {@link baritone.api.pathing.movement.ActionCosts#COST_INF} if
+     * it can't be broken. Zero until it's worked out, since nothing takes zero ticks. Null until something is mined,
+     * since most contexts (like the ones made every tick to check the current path) never break anything.
+     */
+    private double[] miningTicks;
+
+    private final CalculationContext context;
+
     private static final int COMPLETED_MASK = 1 << 0;
     private static final int CAN_WALK_ON_MASK = 1 << 1;
     private static final int CAN_WALK_ON_SPECIAL_MASK = 1 << 2;
@@ -36,11 +53,20 @@ public class PrecomputedData {
     private static final int CAN_WALK_THROUGH_SPECIAL_MASK = 1 << 4;
     private static final int FULLY_PASSABLE_MASK = 1 << 5;
     private static final int FULLY_PASSABLE_SPECIAL_MASK = 1 << 6;
+    private static final int AVOID_BREAKING_MASK = 1 << 7;
+    private static final int ALLOW_BREAK_ANYWAY_MASK = 1 << 8;
+    private static final int AVOID_WALKING_INTO_MASK = 1 << 9;
+    private static final int FALLING_MASK = 1 << 10;
+    private static final int LIQUID_MASK = 1 << 11;
+
+    public PrecomputedData(CalculationContext context) {
+        this.context = context;
+    }
 
     private int fillData(int id, BlockState state) {
         int blockData = 0;
 
-        Ternary canWalkOnState = MovementHelper.canWalkOnBlockState(state);
+        Ternary canWalkOnState = MovementHelper.canWalkOnBlockState(state, context.settings);
         if (canWalkOnState == YES) {
             blockData |= CAN_WALK_ON_MASK;
         }
@@ -48,7 +74,7 @@ public class PrecomputedData {
             blockData |= CAN_WALK_ON_SPECIAL_MASK;
         }
 
-        Ternary canWalkThroughState = MovementHelper.canWalkThroughBlockState(state);
+        Ternary canWalkThroughState = MovementHelper.canWalkThroughBlockState(state, context.settings);
         if (canWalkThroughState == YES) {
             blockData |= CAN_WALK_THROUGH_MASK;
         }
@@ -64,6 +90,23 @@ public class PrecomputedData {
             blockData |= FULLY_PASSABLE_SPECIAL_MASK;
         }
 
+        Block block = state.getBlock();
+        if (MovementHelper.avoidBreakingBlockState(state, context.settings)) {
+            blockData |= AVOID_BREAKING_MASK;
+        }
+        if (context.settings.allowBreakAnyway(state)) {
+            blockData |= ALLOW_BREAK_ANYWAY_MASK;
+        }
+        if (MovementHelper.avoidWalkingInto(state)) {
+            blockData |= AVOID_WALKING_INTO_MASK;
+        }
+        if (block instanceof FallingBlock) {
+            blockData |= FALLING_MASK;
+        }
+        if (MovementHelper.isLiquid(state)) {
+            blockData |= LIQUID_MASK;
+        }
+
         blockData |= COMPLETED_MASK;
 
         data[id] = blockData; // in theory, this is thread "safe" because every thread should compute the exact same int to write?
@@ -79,7 +122,7 @@ public class PrecomputedData {
         }
 
         if ((blockData & CAN_WALK_ON_SPECIAL_MASK) != 0) {
-            return MovementHelper.canWalkOnPosition(bsi, x, y, z, state);
+            return MovementHelper.canWalkOnPosition(bsi, x, y, z, state, context.settings);
         } else {
             return (blockData & CAN_WALK_ON_MASK) != 0;
         }
@@ -94,7 +137,7 @@ public class PrecomputedData {
         }
 
         if ((blockData & CAN_WALK_THROUGH_SPECIAL_MASK) != 0) {
-            return MovementHelper.canWalkThroughPosition(bsi, x, y, z, state);
+            return MovementHelper.canWalkThroughPosition(bsi, x, y, z, state, context.settings);
         } else {
             return (blockData & CAN_WALK_THROUGH_MASK) != 0;
         }
@@ -114,4 +157,73 @@ public class PrecomputedData {
             return (blockData & FULLY_PASSABLE_MASK) != 0;
         }
     }
+
+    private int data(BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        int blockData = data[id];
+
+        if ((blockData & COMPLETED_MASK) == 0) { // we need to fill in the data
+            blockData = fillData(id, state);
+        }
+        return blockData;
+    }
+
+    /**
+     * Same as {@link MovementHelper#avoidBreaking}
+     */
+    public boolean avoidBreaking(BlockStateInterface bsi, int x, int y, int z, BlockState state) {
+        if ((data(state) & AVOID_BREAKING_MASK) != 0) {
+            return true;
+        }
+        return !bsi.worldBorder.canPlaceAt(x, z)
+                || avoidAdjacentBreaking(bsi, x, y + 1, z, true)
+                || avoidAdjacentBreaking(bsi, x + 1, y, z, false)
+                || avoidAdjacentBreaking(bsi, x - 1, y, z, false)
+                || avoidAdjacentBreaking(bsi, x, y, z + 1, false)
+                || avoidAdjacentBreaking(bsi, x, y, z - 1, false);
+    }
+
+    private boolean avoidAdjacentBreaking(BlockStateInterface bsi, int x, int y, int z, boolean directlyAbove) {
+        // only falling blocks and liquids can make breaking next to them a bad idea, which rules out almost everything
+        if ((data(bsi.get0(x, y, z)) & (FALLING_MASK | LIQUID_MASK)) == 0) {
+            return false;
+        }
+        return MovementHelper.avoidAdjacentBreaking(bsi, x, y, z, directlyAbove, context.settings);
+    }
+
+    public boolean allowBreakAnyway(BlockState state) {
+        return (data(state) & ALLOW_BREAK_ANYWAY_MASK) != 0;
+    }
+
+    public boolean avoidWalkingInto(BlockState state) {
+        return (data(state) & AVOID_WALKING_INTO_MASK) != 0;
+    }
+
+    public boolean isFalling(BlockState state) {
+        return (data(state) & FALLING_MASK) != 0;
+    }
+
+    public boolean isLiquid(BlockState state) {
+        return (data(state) & LIQUID_MASK) != 0;
+    }
+
+    /**
+     * @return How many ticks it takes to break this state with the best tool, or COST_INF if it can't be broken
+     */
+    public double miningTicks(BlockState state) {
+        double[] miningTicks = this.miningTicks;
+        if (miningTicks == null) {
+            // if two threads race here they each work out their own, which only costs a few lookups
+            miningTicks = new double[Block.BLOCK_STATE_REGISTRY.size()];
+            this.miningTicks = miningTicks;
+        }
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        double ticks = miningTicks[id];
+        if (ticks == 0) {
+            double strVsBlock = context.toolSet.getStrVsBlock(state) * context.settings.breakingMultiplier(state);
+            ticks = strVsBlock <= 0 ? COST_INF : 1 / strVsBlock;
+            miningTicks[id] = ticks; // same as data, every thread computes the same value
+        }
+        return ticks;
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.process;
+
+import baritone.Baritone;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.world.level.block.*;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+
+import java.util.*;
+
+/**
+ * What the builder's settings make of every block state, worked out once for the whole
+ * {@link Block#BLOCK_STATE_REGISTRY} so that checking a block against a schematic is comparing ints instead of walking
+ * property maps and lists of blocks.
+ * <p>
+ * States that only differ in properties the builder is told to ignore share a class id. The settings are compared
+ * by identity, like {@link baritone.cache.CachedChunk#trackedBlocks()}, so a setting that's set again is picked up
+ * but a list that's changed in place isn't.
+ */
+final class BlockStateClasses {
+
+    static final Set<Property<?>> ORIENTATION_PROPS =
+            ImmutableSet.of(
+                    RotatedPillarBlock.AXIS, HorizontalDirectionalBlock.FACING,
+                    StairBlock.FACING, StairBlock.HALF, StairBlock.SHAPE,
+                    PipeBlock.NORTH, PipeBlock.EAST, PipeBlock.SOUTH, PipeBlock.WEST, PipeBlock.UP,
+                    TrapDoorBlock.OPEN, TrapDoorBlock.HALF
+            );
+
+    private static volatile BlockStateClasses current;
+
+    private final boolean ignoreDirection;
+    private final List<String> ignoredProperties;
+    private final List<Block> okIfAir;
+    private final List<Block> ignoreBlocks;
+    private final List<Block> skipBlocks;
+
+    /**
+     * By state id, the id of the first state that's the same as far as the builder is concerned
+     */
+    private final int[] classes;
+    private final BitSet okIfAirStates;
+    private final BitSet ignoreStates;
+    private final BitSet skipStates;
+
+    private BlockStateClasses(boolean ignoreDirection, List<String> ignoredProperties, List<Block> okIfAir, List<Block> ignoreBlocks, List<Block> skipBlocks) {
+        this.ignoreDirection = ignoreDirection;
+        this.ignoredProperties = ignoredProperties;
+        this.okIfAir = okIfAir;
+        this.ignoreBlocks = ignoreBlocks;
+        this.skipBlocks = skipBlocks;
+        int size = Block.BLOCK_STATE_REGISTRY.size();
+        this.classes = new int[size];
+        this.okIfAirStates = new BitSet(size);
+        this.ignoreStates = new BitSet(size);
+        this.skipStates = new BitSet(size);
+        Set<Block> okIfAirSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        okIfAirSet.addAll(okIfAir);
+        Set<Block> ignoreSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        ignoreSet.addAll(ignoreBlocks);
+        Set<Block> skipSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        skipSet.addAll(skipBlocks);
+        boolean anyIgnored = ignoreDirection || !ignoredProperties.isEmpty();
+        Map<List<Object>, Integer> firstOfClass = new HashMap<>();
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+            Block block = state.getBlock();
+            if (anyIgnored) {
+                List<Object> key = new ArrayList<>();
+                key.add(block);
+                for (Property<?> prop : state.getProperties()) {
+                    if (!(ignoreDirection && ORIENTATION_PROPS.contains(prop)) && !ignoredProperties.contains(prop.getName())) {
+                        key.add(prop);
+                        key.add(state.getValue(prop));
+                    }
+                }
+                classes[id] = firstOfClass.computeIfAbsent(key, k -> id);
+            } else {
+                classes[id] = id;
+            }
+            okIfAirStates.set(id, okIfAirSet.contains(block));
+            ignoreStates.set(id, ignoreSet.contains(block));
+            skipStates.set(id, skipSet.contains(block));
+        }
+    }
+
+    /**
+     * @return The classes for the current settings, worked out again if they changed
+     */
+    static BlockStateClasses get() {
+        boolean ignoreDirection = Baritone.settings().buildIgnoreDirection.value;
+        List<String> ignoredProperties = Baritone.settings().buildIgnoreProperties.value;
+        List<Block> okIfAir = Baritone.settings().okIfAir.value;
+        List<Block> ignoreBlocks = Baritone.settings().buildIgnoreBlocks.value;
+        List<Block> skipBlocks = Baritone.settings().buildSkipBlocks.value;
+        BlockStateClasses current = BlockStateClasses.current;
+        if (current == null || current.ignoreDirection != ignoreDirection || current.ignoredProperties != ignoredProperties
+                || current.okIfAir != okIfAir || current.ignoreBlocks != ignoreBlocks || current.skipBlocks != skipBlocks) {
+            current = new BlockStateClasses(ignoreDirection, ignoredProperties, okIfAir, ignoreBlocks, skipBlocks);
+            BlockStateClasses.current = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return The class id of this state, or -1 if it isn't registered
+     */
+    int classOf(BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        return id < 0 ? -1 : classes[id];
+    }
+
+    /**
+     * @return Whether these states are the same, apart from the properties that are ignored
+     */
+    boolean same(BlockState first, BlockState second) {
+        if (first == second) {
+            return true;
+        }
+        int firstClass = classOf(first);
+        return firstClass >= 0 && firstClass == classOf(second);
+    }
+
+    /**
+     * @return The classes of these states, to check whether a state is {@link #same} as any of them
+     */
+    BitSet classesOf(Collection<BlockState> states) {
+        BitSet res = new BitSet(classes.length);
+        for (BlockState state : states) {
+            int id = classOf(state);
+            if (id >= 0) {
+                res.set(id);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return Whether this state is on {@link baritone.api.Settings#okIfAir}
+     */
+    boolean okIfAir(BlockState state) {
+        return has(okIfAirStates, state);
+    }
+
+    /**
+     * @return Whether this state is on {@link baritone.api.Settings#buildIgnoreBlocks}
+     */
+    boolean ignored(BlockState state) {
+        return has(ignoreStates, state);
+    }
+
+    /**
+     * @return Whether this state is on {@link baritone.api.Settings#buildSkipBlocks}
+     */
+    boolean skipped(BlockState state) {
+        return has(skipStates, state);
+    }
+
+    private static boolean has(BitSet states, BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        return id >= 0 && states.get(id);
+    }
+}
@@ -18,6 +18,9 @@
 package baritone.process;
 
 import baritone.Baritone;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
+import baritone.api.event.listener.AbstractGameEventListener;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.goals.GoalBlock;
 import baritone.api.pathing.goals.GoalComposite;
@@ -37,11 +40,11 @@ import baritone.utils.BaritoneProcessHelper;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.PathingCommandContext;
 import baritone.utils.schematic.MapArtSchematic;
+import baritone.utils.schematic.SchematicProgress;
 import baritone.utils.schematic.SchematicSystem;
 import baritone.utils.schematic.SelectionSchematic;
 import baritone.utils.schematic.litematica.LitematicaHelper;
 import baritone.utils.schematic.schematica.SchematicaHelper;
-import com.google.common.collect.ImmutableSet;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -54,7 +57,6 @@ import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.state.properties.Property;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
@@ -69,18 +71,11 @@ import java.util.stream.Stream;
 
 import static baritone.api.pathing.movement.ActionCosts.COST_INF;
 
-public final class BuilderProcess extends BaritoneProcessHelper implements IBuilderProcess {
-
-    private static final Set<Property<?>> ORIENTATION_PROPS =
-            ImmutableSet.of(
-                    RotatedPillarBlock.AXIS, HorizontalDirectionalBlock.FACING,
-                    StairBlock.FACING, StairBlock.HALF, StairBlock.SHAPE,
-                    PipeBlock.NORTH, PipeBlock.EAST, PipeBlock.SOUTH, PipeBlock.WEST, PipeBlock.UP,
-                    TrapDoorBlock.OPEN, TrapDoorBlock.HALF
-            );
+public final class BuilderProcess extends BaritoneProcessHelper implements IBuilderProcess, AbstractGameEventListener {
 
     private HashSet<BetterBlockPos> incorrectPositions;
     private LongOpenHashSet observedCompleted; // positions that are completed even if they're out of render distance and we can't make sure right now
+    private SchematicProgress progress; // where incorrectPositions is refilled from once it runs out
     private String name;
     private ISchematic realSchematic;
     private ISchematic schematic;
@@ -94,6 +89,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
 
     public BuilderProcess(Baritone baritone) {
         super(baritone);
+        baritone.getGameEventHandler().registerEventListener(this);
     }
 
     @Override
@@ -116,7 +112,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             @Override
             public boolean partOfMask(int x, int y, int z, BlockState current) {
                 // partOfMask is only called inside the schematic so desiredState is not null
-                return !Baritone.settings().buildSkipBlocks.value.contains(this.desiredState(x, y, z, current, Collections.emptyList()).getBlock());
+                return !BlockStateClasses.get().skipped(this.desiredState(x, y, z, current, Collections.emptyList()));
             }
         };
         int x = origin.getX();
@@ -156,6 +152,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         this.numRepeats = 0;
         this.observedCompleted = new LongOpenHashSet();
         this.incorrectPositions = null;
+        this.progress = null;
     }
 
     public void resume() {
@@ -608,7 +605,38 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         return new PathingCommandContext(goal, PathingCommandType.FORCE_REVALIDATE_GOAL_AND_PATH, bcc);
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        if (progress != null) {
+            // this sees every change, including our own predicted placements before the server acknowledges them
+            for (Pair<BlockPos, BlockState> block : event.getBlocks()) {
+                progress.markDirty(block.first());
+            }
+        }
+    }
+
+    @Override
+    public void onChunkEvent(ChunkEvent event) {
+        if (progress != null && event.isPostPopulate()) {
+            progress.markChunkDirty(event.getX(), event.getZ());
+        }
+    }
+
     private boolean recalc(BuilderCalculationContext bcc) {
+        if (progress == null || !progress.isFor(origin, schematic.widthX(), schematic.heightY(), schematic.lengthZ(), layer)) {
+            progress = new SchematicProgress(origin, schematic.widthX(), schematic.heightY(), schematic.lengthZ(), layer);
+        }
+        progress.update((x, y, z) -> {
+            int state = check(bcc, x, y, z);
+            if (incorrectPositions != null) {
+                if (state == SchematicProgress.CORRECT) {
+                    incorrectPositions.remove(new BetterBlockPos(x, y, z));
+                } else if (state == SchematicProgress.INCORRECT) {
+                    incorrectPositions.add(new BetterBlockPos(x, y, z));
+                }
+            }
+            return state;
+        });
         if (incorrectPositions == null) {
             incorrectPositions = new HashSet<>();
             fullRecalc(bcc);
@@ -647,9 +675,11 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
                         if (valid(bcc.bsi.get0(x, y, z), desired, false)) {
                             incorrectPositions.remove(pos);
                             observedCompleted.add(BetterBlockPos.longHash(pos));
+                            progress.set(x, y, z, SchematicProgress.CORRECT);
                         } else {
                             incorrectPositions.add(pos);
                             observedCompleted.remove(BetterBlockPos.longHash(pos));
+                            progress.set(x, y, z, SchematicProgress.INCORRECT);
                         }
                     }
                 }
@@ -659,41 +689,32 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
 
     private void fullRecalc(BuilderCalculationContext bcc) {
         incorrectPositions = new HashSet<>();
-        for (int y = 0; y < schematic.heightY(); y++) {
-            for (int z = 0; z < schematic.lengthZ(); z++) {
-                for (int x = 0; x < schematic.widthX(); x++) {
-                    int blockX = x + origin.getX();
-                    int blockY = y + origin.getY();
-                    int blockZ = z + origin.getZ();
-                    BlockState current = bcc.bsi.get0(blockX, blockY, blockZ);
-                    if (!schematic.inSchematic(x, y, z, current)) {
-                        continue;
-                    }
-                    if (bcc.bsi.worldContainsLoadedChunk(blockX, blockZ)) { // check if its in render distance, not if its in cache
-                        // we can directly observe this block, it is in render distance
-                        if (valid(bcc.bsi.get0(blockX, blockY, blockZ), schematic.desiredState(x, y, z, current, this.approxPlaceable), false)) {
-                            observedCompleted.add(BetterBlockPos.longHash(blockX, blockY, blockZ));
-                        } else {
-                            incorrectPositions.add(new BetterBlockPos(blockX, blockY, blockZ));
-                            observedCompleted.remove(BetterBlockPos.longHash(blockX, blockY, blockZ));
-                            if (incorrectPositions.size() > Baritone.settings().incorrectSize.value) {
-                                return;
-                            }
-                        }
-                        continue;
-                    }
-                    // this is not in render distance
-                    if (!observedCompleted.contains(BetterBlockPos.longHash(blockX, blockY, blockZ))) {
-                        // and we've never seen this position be correct
-                        // therefore mark as incorrect
-                        incorrectPositions.add(new BetterBlockPos(blockX, blockY, blockZ));
-                        if (incorrectPositions.size() > Baritone.settings().incorrectSize.value) {
-                            return;
-                        }
-                    }
-                }
+        progress.collect((x, y, z) -> check(bcc, x, y, z), incorrectPositions, Baritone.settings().incorrectSize.value);
+    }
+
+    /**
+     * @return What {@link SchematicProgress} should know about this position
+     */
+    private int check(BuilderCalculationContext bcc, int blockX, int blockY, int blockZ) {
+        int x = blockX - origin.getX();
+        int y = blockY - origin.getY();
+        int z = blockZ - origin.getZ();
+        BlockState current = bcc.bsi.get0(blockX, blockY, blockZ);
+        if (!schematic.inSchematic(x, y, z, current)) {
+            return SchematicProgress.CORRECT;
+        }
+        if (bcc.bsi.worldContainsLoadedChunk(blockX, blockZ)) { // check if its in render distance, not if its in cache
+            // we can directly observe this block, it is in render distance
+            if (valid(current, schematic.desiredState(x, y, z, current, this.approxPlaceable), false)) {
+                observedCompleted.add(BetterBlockPos.longHash(blockX, blockY, blockZ));
+                return SchematicProgress.CORRECT;
             }
+            observedCompleted.remove(BetterBlockPos.longHash(blockX, blockY, blockZ));
+            return SchematicProgress.INCORRECT;
         }
+        // this is not in render distance
+        // if we've never seen this position be correct, then it's incorrect as far as we know
+        return observedCompleted.contains(BetterBlockPos.longHash(blockX, blockY, blockZ)) ? SchematicProgress.CORRECT : SchematicProgress.UNKNOWN;
     }
 
     private Goal assemble(BuilderCalculationContext bcc, List<BlockState> approxPlaceable) {
@@ -707,13 +728,15 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         List<BetterBlockPos> flowingLiquids = new ArrayList<>();
         Map<BlockState, Integer> missing = new HashMap<>();
         List<BetterBlockPos> outOfBounds = new ArrayList<>();
+        BlockStateClasses classes = BlockStateClasses.get();
+        BitSet placeableClasses = classes.classesOf(approxPlaceable);
         incorrectPositions.forEach(pos -> {
             BlockState state = bcc.bsi.get0(pos);
             if (state.getBlock() instanceof AirBlock) {
                 BlockState desired = bcc.getSchematic(pos.x, pos.y, pos.z, state);
                 if (desired == null) {
                     outOfBounds.add(pos);
-                } else if (containsBlockState(approxPlaceable, desired)) {
+                } else if (classes.classOf(desired) >= 0 && placeableClasses.get(classes.classOf(desired))) {
                     placeable.add(pos);
                 } else {
                     missing.put(desired, 1 + missing.getOrDefault(desired, 0));
@@ -745,7 +768,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         sourceLiquids.forEach(pos -> toPlace.add(new GoalBlock(pos.above())));
 
         if (!toPlace.isEmpty()) {
-            return new JankyGoalComposite(new GoalComposite(toPlace.toArray(new Goal[0])), new GoalComposite(toBreak.toArray(new Goal[0])));
+            return new JankyGoalComposite(GoalComposite.of(toPlace.toArray(new Goal[0])), GoalComposite.of(toBreak.toArray(new Goal[0])));
         }
         if (toBreak.isEmpty()) {
             if (logMissing && !missing.isEmpty()) {
@@ -762,7 +785,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
             }
             return null;
         }
-        return new GoalComposite(toBreak.toArray(new Goal[0]));
+        return GoalComposite.of(toBreak.toArray(new Goal[0]));
     }
 
     public static class JankyGoalComposite implements Goal {
@@ -972,6 +995,7 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
     @Override
     public void onLostControl() {
         incorrectPositions = null;
+        progress = null;
         name = null;
         schematic = null;
         realSchematic = null;
@@ -1028,62 +1052,31 @@ public final class BuilderProcess extends BaritoneProcessHelper implements IBuil
         return result;
     }
 
-    private static boolean sameBlockstate(BlockState first, BlockState second) {
-        if (first.getBlock() != second.getBlock()) {
-            return false;
-        }
-        boolean ignoreDirection = Baritone.settings().buildIgnoreDirection.value;
-        List<String> ignoredProps = Baritone.settings().buildIgnoreProperties.value;
-        if (!ignoreDirection && ignoredProps.isEmpty()) {
-            return first.equals(second); // early return if no properties are being ignored
-        }
-        Map<Property<?>, Comparable<?>> map1 = first.getValues();
-        Map<Property<?>, Comparable<?>> map2 = second.getValues();
-        for (Property<?> prop : map1.keySet()) {
-            if (map1.get(prop) != map2.get(prop)
-                    && !(ignoreDirection && ORIENTATION_PROPS.contains(prop))
-                    && !ignoredProps.contains(prop.getName())) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private static boolean containsBlockState(Collection<BlockState> states, BlockState state) {
-        for (BlockState testee : states) {
-            if (sameBlockstate(testee, state)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private static boolean valid(BlockState current, BlockState desired, boolean itemVerify) {
         if (desired == null) {
             return true;
         }
-        if (current.getBlock() instanceof LiquidBlock && Baritone.settings().okIfWater.value) {
-            return true;
-        }
-        if (current.getBlock() instanceof AirBlock && desired.getBlock() instanceof AirBlock) {
+        if (current == desired) {
             return true;
         }
-        if (current.getBlock() instanceof AirBlock && Baritone.settings().okIfAir.value.contains(desired.getBlock())) {
-            return true;
-        }
-        if (desired.getBlock() instanceof AirBlock && Baritone.settings().buildIgnoreBlocks.value.contains(current.getBlock())) {
+        if (current.getBlock() instanceof LiquidBlock && Baritone.settings().okIfWater.value) {
             return true;
         }
-        if (!(current.getBlock() instanceof AirBlock) && Baritone.settings().buildIgnoreExisting.value && !itemVerify) {
+        BlockStateClasses classes = BlockStateClasses.get();
+        if (current.getBlock() instanceof AirBlock) {
+            if (desired.getBlock() instanceof AirBlock || classes.okIfAir(desired)) {
+                return true;
+            }
+        } else if (Baritone.settings().buildIgnoreExisting.value && !itemVerify) {
             return true;
         }
-        if (Baritone.settings().buildValidSubstitutes.value.getOrDefault(desired.getBlock(), Collections.emptyList()).contains(current.getBlock()) && !itemVerify) {
+        if (desired.getBlock() instanceof AirBlock && classes.ignored(current)) {
             return true;
         }
-        if (current.equals(desired)) {
+        if (!itemVerify && Baritone.settings().buildValidSubstitutes.value.getOrDefault(desired.getBlock(), Collections.emptyList()).contains(current.getBlock())) {
             return true;
         }
-        return sameBlockstate(current, desired);
+        return classes.same(current, desired);
     }
 
     public class BuilderCalculationContext extends CalculationContext {
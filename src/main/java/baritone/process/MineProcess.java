@@ -185,7 +185,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
             CalculationContext context = new CalculationContext(baritone);
             List<BlockPos> locs2 = prune(context, new ArrayList<>(locs), filter, Baritone.settings().mineMaxOreLocationsCount.value, blacklist, droppedItemsScan());
             // can't reassign locs, gotta make a new var locs2, because we use it in a lambda right here, and variables you use in a lambda must be effectively final
-            Goal goal = new GoalComposite(locs2.stream().map(loc -> coalesce(loc, locs2, context)).toArray(Goal[]::new));
+            Goal goal = GoalComposite.of(locs2.stream().map(loc -> coalesce(loc, locs2, context)).toArray(Goal[]::new));
             knownOreLocations = locs2;
             return new PathingCommand(goal, legit ? PathingCommandType.FORCE_REVALIDATE_GOAL_AND_PATH : PathingCommandType.REVALIDATE_GOAL_AND_PATH);
         }
@@ -318,6 +318,11 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
             return GoalBlock.calculate(xDiff, yDiff < -1 ? yDiff + 2 : yDiff == -1 ? 0 : yDiff, zDiff);
         }
 
+        @Override
+        public int getGoalReach() {
+            return 2;
+        }
+
         @Override
         public boolean equals(Object o) {
             return super.equals(o);
@@ -361,7 +366,7 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
         List<Block> untracked = new ArrayList<>();
         for (BlockOptionalMeta bom : filter.blocks()) {
             Block block = bom.getBlock();
-            if (CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
+            if (CachedChunk.isTracked(block)) {
                 BetterBlockPos pf = ctx.baritone.getPlayerContext().playerFeet();
 
                 // maxRegionDistanceSq 2 means adjacent directly or adjacent diagonally; nothing further than that
@@ -372,7 +377,10 @@ public final class MineProcess extends BaritoneProcessHelper implements IMinePro
                         pf.z,
                         2
                 ));
-            } else {
+            }
+            if (!CachedChunk.BLOCKS_TO_KEEP_TRACK_OF.contains(block)) {
+                // resource blocks are missing from chunks cached before they were added, chunks still waiting to be
+                // packed and regions still being read, so the loaded chunks are scanned for them as well
                 untracked.add(block);
             }
         }
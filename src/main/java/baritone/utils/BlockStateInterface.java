@@ -21,7 +21,6 @@ import baritone.Baritone;
 import baritone.api.utils.IPlayerContext;
 import baritone.cache.CachedRegion;
 import baritone.cache.WorldData;
-import baritone.utils.accessor.IClientChunkProvider;
 import baritone.utils.pathing.BetterWorldBorder;
 import net.minecraft.client.multiplayer.ClientChunkCache;
 import net.minecraft.core.BlockPos;
@@ -30,6 +29,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
@@ -43,6 +43,7 @@ public class BlockStateInterface {
 
     private final ClientChunkCache provider;
     private final WorldData worldData;
+    private final IBlockSource source;
     protected final Level world;
     public final BlockPos.MutableBlockPos isPassableBlockPos;
     public final BlockGetter access;
@@ -53,6 +54,13 @@ public class BlockStateInterface {
 
     private final boolean useTheRealWorld;
 
+    /**
+     * The lowest y coordinate and the height of the world, cached so that {@link #get0} doesn't need to go
+     * through the dimension type on every lookup
+     */
+    public final int minY;
+    public final int height;
+
     private static final BlockState AIR = Blocks.AIR.defaultBlockState();
 
     public BlockStateInterface(IPlayerContext ctx) {
@@ -63,8 +71,9 @@ public class BlockStateInterface {
         this.world = ctx.world();
         this.worldBorder = new BetterWorldBorder(world.getWorldBorder());
         this.worldData = (WorldData) ctx.worldData();
+        this.source = null;
         if (copyLoadedChunks) {
-            this.provider = ((IClientChunkProvider) world.getChunkSource()).createThreadSafeCopy();
+            this.provider = LoadedChunks.threadSafeCopy((ClientChunkCache) world.getChunkSource());
         } else {
             this.provider = (ClientChunkCache) world.getChunkSource();
         }
@@ -72,11 +81,35 @@ public class BlockStateInterface {
         if (!ctx.minecraft().isSameThread()) {
             throw new IllegalStateException("BlockStateInterface must be constructed on the main thread");
         }
+        this.minY = world.dimensionType().minY();
+        this.height = world.dimensionType().height();
+        this.isPassableBlockPos = new BlockPos.MutableBlockPos();
+        this.access = new BlockStateInterfaceAccessWrapper(this);
+    }
+
+    /**
+     * Gets blocks from the specified source instead of a client world, for use without a running game. The world
+     * border is the default one, so it doesn't restrict anything.
+     *
+     * @param source Where to get blocks from
+     */
+    public BlockStateInterface(IBlockSource source) {
+        this.world = null;
+        this.worldBorder = new BetterWorldBorder(new WorldBorder());
+        this.worldData = null;
+        this.provider = null;
+        this.source = source;
+        this.useTheRealWorld = false;
+        this.minY = source.minY();
+        this.height = source.height();
         this.isPassableBlockPos = new BlockPos.MutableBlockPos();
         this.access = new BlockStateInterfaceAccessWrapper(this);
     }
 
     public boolean worldContainsLoadedChunk(int blockX, int blockZ) {
+        if (source != null) {
+            return source.isLoaded(blockX, blockZ);
+        }
         return provider.hasChunk(blockX >> 4, blockZ >> 4);
     }
 
@@ -95,12 +128,16 @@ public class BlockStateInterface {
     }
 
     public BlockState get0(int x, int y, int z) { // Mickey resigned
-        y -= world.dimensionType().minY();
+        y -= minY;
         // Invalid vertical position
-        if (y < 0 || y >= world.dimensionType().height()) {
+        if (y < 0 || y >= height) {
             return AIR;
         }
 
+        if (source != null) {
+            return source.get(x, y + minY, z);
+        }
+
         if (useTheRealWorld) {
             LevelChunk cached = prev;
             // there's great cache locality in block state lookups
@@ -132,7 +169,7 @@ public class BlockStateInterface {
             prevCached = region;
             cached = region;
         }
-        BlockState type = cached.getBlock(x & 511, y + world.dimensionType().minY(), z & 511);
+        BlockState type = cached.getBlock(x & 511, y + minY, z & 511);
         if (type == null) {
             return AIR;
         }
@@ -140,6 +177,9 @@ public class BlockStateInterface {
     }
 
     public boolean isLoaded(int x, int z) {
+        if (source != null) {
+            return source.isLoaded(x, z);
+        }
         LevelChunk prevChunk = prev;
         if (prevChunk != null && prevChunk.getPos().x == x >> 4 && prevChunk.getPos().z == z >> 4) {
             return true;
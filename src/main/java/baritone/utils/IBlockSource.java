@@ -0,0 +1,49 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Somewhere other than a client world to get blocks from, so that a {@link BlockStateInterface} and everything built
+ * on it can be used without a running game.
+ *
+ * @see BlockStateInterface#BlockStateInterface(IBlockSource)
+ */
+public interface IBlockSource {
+
+    /**
+     * @return The block at the specified position. Never null, unknown blocks are air.
+     */
+    BlockState get(int x, int y, int z);
+
+    /**
+     * @return Whether anything is known about the column at the specified position
+     */
+    boolean isLoaded(int x, int z);
+
+    /**
+     * @return The lowest y coordinate of the world
+     */
+    int minY();
+
+    /**
+     * @return The height of the world
+     */
+    int height();
+}
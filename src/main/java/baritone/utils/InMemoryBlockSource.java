@@ -0,0 +1,158 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A box of blocks held in memory, palette indexed with one byte per block. Everything outside of the box is air and
+ * unloaded.
+ * <p>
+ * Fill it with {@link #set} or {@link #generate}, then path through it with
+ * {@link baritone.pathing.movement.CalculationContext#CalculationContext(IBlockSource)}. Reads are safe from any
+ * number of threads once it's filled.
+ */
+public class InMemoryBlockSource implements IBlockSource {
+
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    public final int originX;
+    public final int originZ;
+    public final int sizeX;
+    public final int sizeZ;
+    private final int minY;
+    private final int height;
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Reference2IntOpenHashMap<BlockState> paletteIds = new Reference2IntOpenHashMap<>();
+    private final byte[] blocks;
+
+    /**
+     * @param originX The lowest x coordinate in the box
+     * @param originZ The lowest z coordinate in the box
+     * @param sizeX   How many blocks the box spans along x
+     * @param sizeZ   How many blocks the box spans along z
+     * @param minY    The lowest y coordinate of the world
+     * @param height  The height of the world
+     */
+    public InMemoryBlockSource(int originX, int originZ, int sizeX, int sizeZ, int minY, int height) {
+        if (sizeX <= 0 || sizeZ <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Empty volume " + sizeX + "x" + height + "x" + sizeZ);
+        }
+        this.originX = originX;
+        this.originZ = originZ;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.minY = minY;
+        this.height = height;
+        this.blocks = new byte[Math.multiplyExact(Math.multiplyExact(sizeX, sizeZ), height)];
+        this.paletteIds.defaultReturnValue(-1);
+        paletteId(AIR);
+    }
+
+    public interface Generator {
+
+        BlockState generate(int x, int y, int z);
+    }
+
+    /**
+     * Sets every block in the box to what the generator says it should be
+     *
+     * @param generator The generator, called once for every position in the box
+     */
+    public void generate(Generator generator) {
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    set(originX + x, minY + y, originZ + z, generator.generate(originX + x, minY + y, originZ + z));
+                }
+            }
+        }
+    }
+
+    public void set(int x, int y, int z, BlockState state) {
+        int index = index(x, y, z);
+        if (index == -1) {
+            return;
+        }
+        blocks[index] = (byte) paletteId(state);
+    }
+
+    /**
+     * Sets every block in the column from fromY (inclusive) up to toY (exclusive)
+     */
+    public void fill(int x, int fromY, int z, int toY, BlockState state) {
+        for (int y = fromY; y < toY; y++) {
+            set(x, y, z, state);
+        }
+    }
+
+    public boolean contains(int x, int z) {
+        return x >= originX && x - originX < sizeX && z >= originZ && z - originZ < sizeZ;
+    }
+
+    @Override
+    public BlockState get(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index == -1) {
+            return AIR;
+        }
+        return palette.get(blocks[index] & 0xff);
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        return contains(x, z);
+    }
+
+    @Override
+    public int minY() {
+        return minY;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    private int index(int x, int y, int z) {
+        y -= minY;
+        if (!contains(x, z) || y < 0 || y >= height) {
+            return -1;
+        }
+        return (y * sizeZ + (z - originZ)) * sizeX + (x - originX);
+    }
+
+    private int paletteId(BlockState state) {
+        int id = paletteIds.getInt(state);
+        if (id == -1) {
+            id = palette.size();
+            if (id > 255) {
+                throw new IllegalStateException("More than 256 different block states in one volume");
+            }
+            palette.add(state);
+            paletteIds.put(state, id);
+        }
+        return id;
+    }
+}
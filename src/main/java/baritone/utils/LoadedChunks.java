@@ -0,0 +1,86 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils;
+
+import baritone.utils.accessor.IChunkArray;
+import baritone.utils.accessor.IClientChunkProvider;
+import net.minecraft.client.multiplayer.ClientChunkCache;
+
+/**
+ * A copy of the client's loaded chunk array that other threads can read while the client keeps loading and unloading
+ * chunks. Making one copies the whole array, so instead of a new one every tick, one copy is shared until a chunk is
+ * loaded or unloaded or the view center moves. Nothing ever writes to a copy once it's made, so sharing it is safe.
+ * <p>
+ * Everything here is on the main thread.
+ */
+public final class LoadedChunks {
+
+    private static ClientChunkCache copiedFrom;
+    private static IChunkArray copiedStorage;
+    private static int copiedCenterX;
+    private static int copiedCenterZ;
+    private static ClientChunkCache copy;
+
+    /**
+     * Incremented every time a chunk is loaded or unloaded
+     */
+    private static long epoch;
+    private static long copiedEpoch = -1;
+
+    private LoadedChunks() {}
+
+    /**
+     * @param provider The client's chunk provider
+     * @return A copy of its loaded chunks, reused for as long as they stay the same
+     */
+    public static ClientChunkCache threadSafeCopy(ClientChunkCache provider) {
+        // the storage is replaced entirely when the render distance changes
+        IChunkArray storage = ((IClientChunkProvider) provider).extractReferenceArray();
+        if (copy == null
+                || copiedEpoch != epoch
+                || copiedFrom != provider
+                || copiedStorage != storage
+                || copiedCenterX != storage.centerX()
+                || copiedCenterZ != storage.centerZ()) {
+            copy = ((IClientChunkProvider) provider).createThreadSafeCopy();
+            copiedFrom = provider;
+            copiedStorage = storage;
+            copiedCenterX = storage.centerX();
+            copiedCenterZ = storage.centerZ();
+            copiedEpoch = epoch;
+        }
+        return copy;
+    }
+
+    /**
+     * Called whenever a chunk is loaded or unloaded, so that the next copy is made fresh
+     */
+    public static void invalidate() {
+        epoch++;
+    }
+
+    /**
+     * Called when the world changes, so that the chunks of the old one aren't kept around
+     */
+    public static void clear() {
+        epoch++;
+        copy = null;
+        copiedFrom = null;
+        copiedStorage = null;
+    }
+}
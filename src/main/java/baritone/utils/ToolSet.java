@@ -35,9 +35,11 @@ import net.minecraft.world.item.enchantment.effects.EnchantmentAttributeEffect;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -60,6 +62,11 @@ public class ToolSet {
 
     private final LocalPlayer player;
 
+    /**
+     * Everything the breaking speeds depend on, see {@link #fingerprint()}
+     */
+    private final List<Object> fingerprint;
+
     /**
      * Used for evaluating the material cost of a tool.
      * see {@link #getMaterialCost(ItemStack)}
@@ -75,16 +82,50 @@ public class ToolSet {
     );
 
     public ToolSet(LocalPlayer player) {
-        breakStrengthCache = new HashMap<>();
+        breakStrengthCache = new ConcurrentHashMap<>(); // shared by every thread of a parallel path calculation
         this.player = player;
 
-        if (Baritone.settings().considerPotionEffects.value) {
-            double amplifier = potionAmplifier();
-            Function<Double, Double> amplify = x -> amplifier * x;
+        double amplifier = 1;
+        if (Baritone.settings().considerPotionEffects.value && player != null) {
+            amplifier = potionAmplifier();
+            double finalAmplifier = amplifier;
+            Function<Double, Double> amplify = x -> finalAmplifier * x;
             backendCalculation = amplify.compose(this::getBestDestructionTime);
         } else {
             backendCalculation = this::getBestDestructionTime;
         }
+        this.fingerprint = fingerprint(amplifier);
+    }
+
+    /**
+     * Two tool sets with equal fingerprints work out the same breaking speeds, so that costs worked out with one can
+     * be reused with the other. It covers the tools on the hotbar, the selected slot, the settings that choose between
+     * them and the effects on the player, but not wear unless {@link baritone.api.Settings#itemSaver} could rule a
+     * tool out because of it.
+     *
+     * @return What the breaking speeds of this tool set depend on
+     */
+    public List<Object> fingerprint() {
+        return fingerprint;
+    }
+
+    private List<Object> fingerprint(double amplifier) {
+        List<Object> fingerprint = new ArrayList<>();
+        fingerprint.add(amplifier);
+        fingerprint.add(Baritone.settings().autoTool.value);
+        fingerprint.add(Baritone.settings().useSwordToMine.value);
+        if (player != null) {
+            // which slot is selected only matters when we don't switch to the best one
+            fingerprint.add(Baritone.settings().autoTool.value ? -1 : player.getInventory().getSelectedSlot());
+            for (int i = 0; i < 9; i++) {
+                ItemStack itemStack = player.getInventory().getItem(i);
+                fingerprint.add(itemStack.getItem());
+                fingerprint.add(itemStack.getEnchantments());
+                fingerprint.add(itemStack.get(DataComponents.TOOL));
+                fingerprint.add(tooDamaged(itemStack));
+            }
+        }
+        return Collections.unmodifiableList(fingerprint);
     }
 
     /**
@@ -157,7 +198,7 @@ public class ToolSet {
                 continue;
             }
 
-            if (Baritone.settings().itemSaver.value && (itemStack.getDamageValue() + Baritone.settings().itemSaverThreshold.value) >= itemStack.getMaxDamage() && itemStack.getMaxDamage() > 1) {
+            if (tooDamaged(itemStack)) {
                 continue;
             }
             double speed = calculateSpeedVsBlock(itemStack, blockState);
@@ -181,6 +222,13 @@ public class ToolSet {
         return best;
     }
 
+    /**
+     * @return Whether {@link baritone.api.Settings#itemSaver} says not to use this tool any more
+     */
+    private static boolean tooDamaged(ItemStack itemStack) {
+        return Baritone.settings().itemSaver.value && (itemStack.getDamageValue() + Baritone.settings().itemSaverThreshold.value) >= itemStack.getMaxDamage() && itemStack.getMaxDamage() > 1;
+    }
+
     /**
      * Calculate how effectively a block can be destroyed
      *
@@ -188,12 +236,9 @@ public class ToolSet {
      * @return A double containing the destruction ticks with the best tool
      */
     private double getBestDestructionTime(Block b) {
-        ItemStack stack = player.getInventory().getItem(getBestSlot(b, false, true));
-        return calculateSpeedVsBlock(stack, b.defaultBlockState()) * avoidanceMultiplier(b);
-    }
-
-    private double avoidanceMultiplier(Block b) {
-        return Baritone.settings().blocksToAvoidBreaking.value.contains(b) ? Baritone.settings().avoidBreakingMultiplier.value : 1;
+        // without a player (e.g. pathing outside of a running game) we have to assume an empty hand
+        ItemStack stack = player == null ? ItemStack.EMPTY : player.getInventory().getItem(getBestSlot(b, false, true));
+        return calculateSpeedVsBlock(stack, b.defaultBlockState());
     }
 
     /**
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One path search, from start to result
+ */
+@Name("baritone.PathSearch")
+@Label("Path Search")
+@Category({"Baritone", "Pathing"})
+public final class PathSearchEvent extends jdk.jfr.Event {
+
+    @Label("Result")
+    public String result;
+
+    @Label("Nodes Considered")
+    public int nodes;
+
+    @Label("Movements Considered")
+    public long movements;
+
+    @Label("Chunk Border Misses")
+    @Description("Movements skipped because they went into a chunk that isn't loaded")
+    public int chunkBorderMisses;
+
+    @Label("Peak Open Set Size")
+    public int peakOpenSetSize;
+
+    @Label("Node Map Size")
+    public int peakNodeMapSize;
+
+    @Label("Time To First Segment")
+    @Timespan(Timespan.MILLISECONDS)
+    public long timeToFirstSegment;
+}
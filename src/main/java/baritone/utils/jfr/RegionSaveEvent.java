@@ -0,0 +1,46 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A cached region being saved to disk
+ */
+@Name("baritone.RegionSave")
+@Label("Cached Region Save")
+@Category({"Baritone", "Cache"})
+public final class RegionSaveEvent extends jdk.jfr.Event {
+
+    @Label("Region X")
+    public int regionX;
+
+    @Label("Region Z")
+    public int regionZ;
+
+    @Label("Rewritten")
+    @Description("Whether the whole region file was written, instead of appending the changed chunks to its journal")
+    public boolean rewritten;
+
+    @Label("Chunks Saved")
+    @Description("How many chunks were written, all of them if the whole region file was written")
+    public int chunks;
+}
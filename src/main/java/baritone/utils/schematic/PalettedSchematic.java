@@ -0,0 +1,162 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.Baritone;
+import baritone.api.schematic.AbstractSchematic;
+import baritone.api.schematic.IStaticSchematic;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link IStaticSchematic} that stores a palette and an index into it for every block, packed into as few bits as
+ * the palette needs, instead of a {@link BlockState} reference per block. Entries are packed back to back and can
+ * span two longs, which is how Litematica stores them, so a Litematica region can be used as is without decoding it.
+ * <p>
+ * Blocks are indexed by {@code (y * lengthZ + z) * widthX + x}, the order both Sponge and Litematica use.
+ */
+public class PalettedSchematic extends AbstractSchematic implements IStaticSchematic {
+
+    private BlockState[] palette;
+    private int bits;
+    private long mask;
+    private LongBuffer data;
+
+    public PalettedSchematic() {}
+
+    public PalettedSchematic(int x, int y, int z, BlockState[] palette, int bits, LongBuffer data) {
+        super(x, y, z);
+        setData(palette, bits, data);
+    }
+
+    /**
+     * For subclasses that work out the size and the contents in their constructor
+     *
+     * @param palette The states the entries refer to. Entries past the end of it, which only corrupt data has, are air.
+     * @param bits    How many bits each entry takes up, from 1 to 30
+     * @param data    The entries, read with absolute gets only so that this can be read from several threads
+     */
+    protected final void setData(BlockState[] palette, int bits, LongBuffer data) {
+        if (bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("Can't have " + bits + " bits per block");
+        }
+        if (data.capacity() < words((long) x * y * z, bits)) {
+            throw new IllegalArgumentException("Not enough data for " + x + "x" + y + "x" + z + " blocks");
+        }
+        if (palette.length < 1 << bits) {
+            int size = palette.length;
+            palette = Arrays.copyOf(palette, 1 << bits);
+            Arrays.fill(palette, size, palette.length, Blocks.AIR.defaultBlockState());
+        }
+        this.palette = palette;
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.data = data;
+    }
+
+    @Override
+    public BlockState desiredState(int x, int y, int z, BlockState current, List<BlockState> approxPlaceable) {
+        return getDirect(x, y, z);
+    }
+
+    @Override
+    public BlockState getDirect(int x, int y, int z) {
+        long bit = ((long) (y * this.z + z) * this.x + x) * bits;
+        int word = (int) (bit >> 6);
+        int offset = (int) (bit & 63);
+        long value = data.get(word) >>> offset;
+        if (offset + bits > 64) {
+            value |= data.get(word + 1) << (64 - offset);
+        }
+        return palette[(int) (value & mask)];
+    }
+
+    /**
+     * @return How many bits the entries of a palette of this size need
+     */
+    public static int bitsFor(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    /**
+     * @return How many longs it takes to store this many entries
+     */
+    public static int words(long entries, int bits) {
+        return Math.toIntExact((entries * bits + 63) >> 6);
+    }
+
+    /**
+     * Where to pack the entries of a schematic of this many blocks. Either on the heap or, if it's bigger than
+     * {@link baritone.api.Settings#schematicMappedBlocks}, in a temporary file that's deleted once it's unmapped.
+     *
+     * @return Zeroed storage for {@link #words} longs
+     */
+    public static LongBuffer allocate(long entries, int bits) {
+        int words = words(entries, bits);
+        int threshold = Baritone.settings().schematicMappedBlocks.value;
+        if (threshold < 0 || entries <= threshold) {
+            return LongBuffer.wrap(new long[words]);
+        }
+        try {
+            Path file = Files.createTempFile("baritone-schematic", ".bin");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+                // a file grown by mapping it reads as zeros
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) words * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return Storage from {@link #allocate} holding these words, which is the words themselves if it's on the heap
+     */
+    public static LongBuffer store(long entries, int bits, long[] words) {
+        int threshold = Baritone.settings().schematicMappedBlocks.value;
+        if (threshold < 0 || entries <= threshold) {
+            return LongBuffer.wrap(words);
+        }
+        LongBuffer buffer = allocate(entries, bits);
+        buffer.put(0, words, 0, Math.min(words.length, buffer.capacity()));
+        return buffer;
+    }
+
+    /**
+     * Sets an entry of storage from {@link #allocate}. Only for filling it in before it's used by a schematic.
+     */
+    public static void set(LongBuffer data, long index, int bits, int value) {
+        long bit = index * bits;
+        int word = (int) (bit >> 6);
+        int offset = (int) (bit & 63);
+        data.put(word, data.get(word) | (long) value << offset);
+        if (offset + bits > 64) {
+            data.put(word + 1, data.get(word + 1) | (long) value >>> (64 - offset));
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+
+import java.util.Collection;
+
+/**
+ * What's left to build of a schematic placed in the world, so that finding more work doesn't mean looking at every
+ * block of the schematic again.
+ * <p>
+ * Every block of the schematic is either correct (or not part of it), incorrect, or unknown, meaning it's not in a
+ * loaded chunk and hasn't been seen correct yet. This is kept as two bitmaps for every 16x16x16 section of the world
+ * the schematic covers. A section is checked block by block the first time more work is looked for in it, and then
+ * again only if it's marked dirty, which is for when its chunk is loaded again. A single block that changed is marked
+ * dirty by itself, and checked again on the next {@link #update}. Every change the client sees comes through
+ * {@link baritone.api.event.events.BlockChangeEvent}: single and multi block updates from the server, and the
+ * client's own predicted changes from breaking and placing, so nothing that's been checked goes stale unseen.
+ * <p>
+ * Not thread safe, this is only used from the game thread.
+ */
+public final class SchematicProgress {
+
+    public static final int CORRECT = 0;
+    public static final int INCORRECT = 1;
+    public static final int UNKNOWN = 2;
+
+    private static final byte UNSCANNED = 0;
+    private static final byte SCANNED = 1;
+    private static final byte DIRTY = 2;
+
+    /**
+     * The layer of the schematic this is for, see {@link #isFor}
+     */
+    private final int layer;
+
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    private final int minSectionX;
+    private final int minSectionY;
+    private final int minSectionZ;
+    private final int sectionsX;
+    private final int sectionsY;
+    private final int sectionsZ;
+
+    /**
+     * By {@link #sectionIndex}, and within a section a bit for every block by {@link #blockIndex}. Null if nothing in
+     * the section is incorrect or unknown.
+     */
+    private final long[][] incorrect;
+    private final long[][] unknown;
+    private final int[] remaining;
+    private final byte[] status;
+
+    /**
+     * By {@link BlockPos#asLong()}
+     */
+    private final LongOpenHashSet dirtyBlocks = new LongOpenHashSet();
+
+    public SchematicProgress(Vec3i origin, int widthX, int heightY, int lengthZ, int layer) {
+        this.layer = layer;
+        this.originX = origin.getX();
+        this.originY = origin.getY();
+        this.originZ = origin.getZ();
+        this.maxX = originX + widthX - 1;
+        this.maxY = originY + heightY - 1;
+        this.maxZ = originZ + lengthZ - 1;
+        this.minSectionX = originX >> 4;
+        this.minSectionY = originY >> 4;
+        this.minSectionZ = originZ >> 4;
+        this.sectionsX = widthX <= 0 ? 0 : (maxX >> 4) - minSectionX + 1;
+        this.sectionsY = heightY <= 0 ? 0 : (maxY >> 4) - minSectionY + 1;
+        this.sectionsZ = lengthZ <= 0 ? 0 : (maxZ >> 4) - minSectionZ + 1;
+        int sections = sectionsX * sectionsY * sectionsZ;
+        this.incorrect = new long[sections][];
+        this.unknown = new long[sections][];
+        this.remaining = new int[sections];
+        this.status = new byte[sections];
+    }
+
+    /**
+     * @return Whether this is still for the specified placement of the schematic
+     */
+    public boolean isFor(Vec3i origin, int widthX, int heightY, int lengthZ, int layer) {
+        return this.layer == layer
+                && originX == origin.getX() && originY == origin.getY() && originZ == origin.getZ()
+                && maxX == originX + widthX - 1 && maxY == originY + heightY - 1 && maxZ == originZ + lengthZ - 1;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= originX && x <= maxX && y >= originY && y <= maxY && z >= originZ && z <= maxZ;
+    }
+
+    /**
+     * The block at this position changed, check it again on the next {@link #update}
+     */
+    public void markDirty(BlockPos pos) {
+        if (contains(pos.getX(), pos.getY(), pos.getZ())) {
+            dirtyBlocks.add(pos.asLong());
+        }
+    }
+
+    /**
+     * This chunk was loaded, so whatever was unknown in it can be checked now, and whatever happened to it while it
+     * wasn't loaded can be noticed. Its sections are checked again when more work is looked for in them.
+     */
+    public void markChunkDirty(int chunkX, int chunkZ) {
+        int sx = chunkX - minSectionX;
+        int sz = chunkZ - minSectionZ;
+        if (sx < 0 || sx >= sectionsX || sz < 0 || sz >= sectionsZ) {
+            return;
+        }
+        for (int sy = 0; sy < sectionsY; sy++) {
+            int index = sectionIndex(sx, sy, sz);
+            if (status[index] == SCANNED) {
+                status[index] = DIRTY;
+            }
+        }
+    }
+
+    /**
+     * Sets what's known about the block at this position, if it's in the schematic
+     */
+    public void set(int x, int y, int z, int state) {
+        if (!contains(x, y, z)) {
+            return;
+        }
+        int section = sectionIndex((x >> 4) - minSectionX, (y >> 4) - minSectionY, (z >> 4) - minSectionZ);
+        int block = blockIndex(x, y, z);
+        boolean wasRemaining = isSet(incorrect[section], block) || isSet(unknown[section], block);
+        incorrect[section] = set(incorrect[section], block, state == INCORRECT);
+        unknown[section] = set(unknown[section], block, state == UNKNOWN);
+        if (wasRemaining != (state != CORRECT)) {
+            remaining[section] += wasRemaining ? -1 : 1;
+        }
+    }
+
+    /**
+     * Checks the blocks that were marked dirty since the last update
+     *
+     * @param checker Checks a block, and is told about everything that was checked
+     */
+    public void update(Checker checker) {
+        if (dirtyBlocks.isEmpty()) {
+            return;
+        }
+        LongIterator it = dirtyBlocks.iterator();
+        while (it.hasNext()) {
+            long pos = it.nextLong();
+            int x = BlockPos.getX(pos);
+            int y = BlockPos.getY(pos);
+            int z = BlockPos.getZ(pos);
+            set(x, y, z, checker.check(x, y, z));
+        }
+        dirtyBlocks.clear();
+    }
+
+    /**
+     * Finds incorrect and unknown blocks, from the bottom up, checking the sections that haven't been or are dirty
+     * along the way. Stops once there's more than the limit, so that sections after that aren't checked yet.
+     *
+     * @param checker Checks a block in a section that needs it
+     * @param out     Where to add the positions
+     * @param limit   How many positions are enough
+     * @return Whether the whole schematic was looked at, in which case what was found is everything that's left
+     */
+    public boolean collect(Checker checker, Collection<BetterBlockPos> out, int limit) {
+        for (int sy = 0; sy < sectionsY; sy++) {
+            for (int sz = 0; sz < sectionsZ; sz++) {
+                for (int sx = 0; sx < sectionsX; sx++) {
+                    int section = sectionIndex(sx, sy, sz);
+                    if (status[section] != SCANNED) {
+                        scan(checker, sx, sy, sz);
+                    }
+                    if (remaining[section] == 0) {
+                        continue;
+                    }
+                    long[] incorrect = this.incorrect[section];
+                    long[] unknown = this.unknown[section];
+                    for (int word = 0; word < 64; word++) {
+                        long bits = (incorrect == null ? 0 : incorrect[word]) | (unknown == null ? 0 : unknown[word]);
+                        while (bits != 0) {
+                            int block = word << 6 | Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            out.add(new BetterBlockPos(
+                                    (minSectionX + sx) << 4 | (block & 15),
+                                    (minSectionY + sy) << 4 | (block >> 8),
+                                    (minSectionZ + sz) << 4 | ((block >> 4) & 15)
+                            ));
+                            if (out.size() > limit) {
+                                return false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void scan(Checker checker, int sx, int sy, int sz) {
+        int section = sectionIndex(sx, sy, sz);
+        incorrect[section] = null;
+        unknown[section] = null;
+        remaining[section] = 0;
+        int baseX = (minSectionX + sx) << 4;
+        int baseY = (minSectionY + sy) << 4;
+        int baseZ = (minSectionZ + sz) << 4;
+        // only the part of the section that's inside the schematic
+        for (int y = Math.max(baseY, originY); y <= Math.min(baseY + 15, maxY); y++) {
+            for (int z = Math.max(baseZ, originZ); z <= Math.min(baseZ + 15, maxZ); z++) {
+                for (int x = Math.max(baseX, originX); x <= Math.min(baseX + 15, maxX); x++) {
+                    int state = checker.check(x, y, z);
+                    if (state != CORRECT) {
+                        set(x, y, z, state);
+                    }
+                }
+            }
+        }
+        status[section] = SCANNED;
+    }
+
+    private int sectionIndex(int sx, int sy, int sz) {
+        return (sy * sectionsZ + sz) * sectionsX + sx;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return bits != null && (bits[index >> 6] & 1L << index) != 0;
+    }
+
+    private static long[] set(long[] bits, int index, boolean value) {
+        if (value) {
+            if (bits == null) {
+                bits = new long[64];
+            }
+            bits[index >> 6] |= 1L << index;
+        } else if (bits != null) {
+            bits[index >> 6] &= ~(1L << index);
+        }
+        return bits;
+    }
+
+    @FunctionalInterface
+    public interface Checker {
+
+        /**
+         * @return {@link #CORRECT} if the block at this position is correct or isn't part of the schematic,
+         * {@link #INCORRECT} if it's in a loaded chunk and isn't correct, or {@link #UNKNOWN} otherwise
+         */
+        int check(int x, int y, int z);
+    }
+}
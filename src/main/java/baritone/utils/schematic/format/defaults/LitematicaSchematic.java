@@ -19,7 +19,7 @@ package baritone.utils.schematic.format.defaults;
 
 import baritone.api.schematic.CompositeSchematic;
 import baritone.api.schematic.IStaticSchematic;
-import baritone.utils.schematic.StaticSchematic;
+import baritone.utils.schematic.PalettedSchematic;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Vec3i;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -30,9 +30,8 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.Property;
-import org.apache.commons.lang3.Validate;
 
-import javax.annotation.Nullable;
+import java.nio.LongBuffer;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -139,17 +138,6 @@ public final class LitematicaSchematic extends CompositeSchematic implements ISt
         return (int) Math.max(2, Math.ceil(Math.log(amountOfBlockTypes) / Math.log(2)));
     }
 
-    /**
-     * Calculates the volume of the subregion. As size can be a negative value we take the absolute value of the
-     * multiplication as the volume still holds a positive amount of blocks.
-     *
-     * @return the volume of the subregion.
-     */
-    private static long getVolume(CompoundTag subReg) {
-        CompoundTag size = subReg.getCompound("Size").orElse(new CompoundTag());
-        return Math.abs(size.getInt("x").orElse(0) * size.getInt("y").orElse(0) * size.getInt("z").orElse(0));
-    }
-
     /**
      * @param s axis.
      * @return the lowest coordinate of that axis of the schematic.
@@ -172,21 +160,21 @@ public final class LitematicaSchematic extends CompositeSchematic implements ISt
             BlockState[] blockList = getBlockList(usedBlockTypes);
 
             int bitsPerBlock = getBitsPerBlock(usedBlockTypes.size());
-            long regionVolume = getVolume(subReg);
             long[] blockStateArray = subReg.getLongArray("BlockStates").orElse(new long[0]);
 
-            LitematicaBitArray bitArray = new LitematicaBitArray(bitsPerBlock, regionVolume, blockStateArray);
-            writeSubregionIntoSchematic(subReg, offsetMinCorner, blockList, bitArray);
+            writeSubregionIntoSchematic(subReg, offsetMinCorner, blockList, bitsPerBlock, blockStateArray);
         }
     }
 
     /**
-     * Writes the file data in to the IBlockstate array.
+     * Adds a subregion to the schematic. The block states are packed the same way {@link PalettedSchematic} reads
+     * them, so they're used as they are instead of being decoded.
      *
-     * @param blockList list with the different block types used in the schematic.
-     * @param bitArray  bit array that holds the placement pattern.
+     * @param blockList    list with the different block types used in the schematic.
+     * @param bitsPerBlock amount of bits used to encode a block.
+     * @param blockStates  the packed palette indices that hold the placement pattern.
      */
-    private void writeSubregionIntoSchematic(CompoundTag subReg, Vec3i offsetMinCorner, BlockState[] blockList, LitematicaBitArray bitArray) {
+    private void writeSubregionIntoSchematic(CompoundTag subReg, Vec3i offsetMinCorner, BlockState[] blockList, int bitsPerBlock, long[] blockStates) {
         int offsetX = getMinOfSubregion(subReg, "x") - offsetMinCorner.getX();
         int offsetY = getMinOfSubregion(subReg, "y") - offsetMinCorner.getY();
         int offsetZ = getMinOfSubregion(subReg, "z") - offsetMinCorner.getZ();
@@ -194,95 +182,13 @@ public final class LitematicaSchematic extends CompositeSchematic implements ISt
         int sizeX = Math.abs(size.getInt("x").orElse(0));
         int sizeY = Math.abs(size.getInt("y").orElse(0));
         int sizeZ = Math.abs(size.getInt("z").orElse(0));
-        BlockState[][][] states = new BlockState[sizeX][sizeZ][sizeY];
-        int index = 0;
-        for (int y = 0; y < sizeY; y++) {
-            for (int z = 0; z < sizeZ; z++) {
-                for (int x = 0; x < sizeX; x++) {
-                    states[x][z][y] = blockList[bitArray.getAt(index)];
-                    index++;
-                }
-            }
-        }
-        this.put(new StaticSchematic(states), offsetX, offsetY, offsetZ);
+        long volume = (long) sizeX * sizeY * sizeZ;
+        LongBuffer data = PalettedSchematic.store(volume, bitsPerBlock, blockStates);
+        this.put(new PalettedSchematic(sizeX, sizeY, sizeZ, blockList, bitsPerBlock, data), offsetX, offsetY, offsetZ);
     }
 
     @Override
     public BlockState getDirect(int x, int y, int z) {
         return desiredState(x, y, z, null, Collections.emptyList());
     }
-
-    /**
-     * @author maruohon
-     * Class from the Litematica mod by maruohon
-     * Usage under LGPLv3 with the permission of the author.
-     * <a href="https://github.com/maruohon/litematica">...</a>
-     */
-    private static class LitematicaBitArray {
-        /**
-         * The long array that is used to store the data for this BitArray.
-         */
-        private final long[] longArray;
-        /**
-         * Number of bits a single entry takes up
-         */
-        private final int bitsPerEntry;
-        /**
-         * The maximum value for a single entry. This also works as a bitmask for a single entry.
-         * For instance, if bitsPerEntry were 5, this value would be 31 (ie, {@code 0b00011111}).
-         */
-        private final long maxEntryValue;
-        /**
-         * Number of entries in this array (<b>not</b> the length of the long array that internally backs this array)
-         */
-        private final long arraySize;
-
-        public LitematicaBitArray(int bitsPerEntryIn, long arraySizeIn, @Nullable long[] longArrayIn) {
-            Validate.inclusiveBetween(1L, 32L, bitsPerEntryIn);
-            this.arraySize = arraySizeIn;
-            this.bitsPerEntry = bitsPerEntryIn;
-            this.maxEntryValue = (1L << bitsPerEntryIn) - 1L;
-
-            if (longArrayIn != null) {
-                this.longArray = longArrayIn;
-            } else {
-                this.longArray = new long[(int) (roundUp(arraySizeIn * (long) bitsPerEntryIn, 64L) / 64L)];
-            }
-        }
-
-        public static long roundUp(long number, long interval) {
-            int sign = 1;
-            if (interval == 0) {
-                return 0;
-            } else if (number == 0) {
-                return interval;
-            } else {
-                if (number < 0) {
-                    sign = -1;
-                }
-
-                long i = number % (interval * sign);
-                return i == 0 ? number : number + (interval * sign) - i;
-            }
-        }
-
-        public int getAt(long index) {
-            Validate.inclusiveBetween(0L, this.arraySize - 1L, index);
-            long startOffset = index * (long) this.bitsPerEntry;
-            int startArrIndex = (int) (startOffset >> 6); // startOffset / 64
-            int endArrIndex = (int) (((index + 1L) * (long) this.bitsPerEntry - 1L) >> 6);
-            int startBitOffset = (int) (startOffset & 0x3F); // startOffset % 64
-
-            if (startArrIndex == endArrIndex) {
-                return (int) (this.longArray[startArrIndex] >>> startBitOffset & this.maxEntryValue);
-            } else {
-                int endOffset = 64 - startBitOffset;
-                return (int) ((this.longArray[startArrIndex] >>> startBitOffset | this.longArray[endArrIndex] << endOffset) & this.maxEntryValue);
-            }
-        }
-
-        public long size() {
-            return this.arraySize;
-        }
-    }
 }
@@ -17,8 +17,7 @@
 
 package baritone.utils.schematic.format.defaults;
 
-import baritone.utils.schematic.StaticSchematic;
-import baritone.utils.type.VarInt;
+import baritone.utils.schematic.PalettedSchematic;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import net.minecraft.core.Holder;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -29,6 +28,7 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.Property;
 
+import java.nio.LongBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -39,15 +39,14 @@ import java.util.regex.Pattern;
  * @author Brady
  * @since 12/27/2019
  */
-public final class SpongeSchematic extends StaticSchematic {
+public final class SpongeSchematic extends PalettedSchematic {
 
     public SpongeSchematic(CompoundTag nbt) {
         this.x = nbt.getInt("Width").orElse(0);
         this.y = nbt.getInt("Height").orElse(0);
         this.z = nbt.getInt("Length").orElse(0);
-        this.states = new BlockState[this.x][this.z][this.y];
 
-        Int2ObjectArrayMap<BlockState> palette = new Int2ObjectArrayMap<>();
+        Int2ObjectArrayMap<BlockState> paletteMap = new Int2ObjectArrayMap<>();
         CompoundTag paletteTag = nbt.getCompound("Palette").orElse(new CompoundTag());
         for (String tag : paletteTag.keySet()) {
             int index = paletteTag.getInt(tag).orElse(0);
@@ -62,36 +61,40 @@ public final class SpongeSchematic extends StaticSchematic {
                 throw new IllegalArgumentException("Unable to deserialize palette tag");
             }
 
-            palette.put(index, state);
+            paletteMap.put(index, state);
         }
+        BlockState[] palette = new BlockState[paletteMap.keySet().intStream().max().orElse(0) + 1];
+        paletteMap.int2ObjectEntrySet().forEach(entry -> palette[entry.getIntKey()] = entry.getValue());
+        int bits = bitsFor(palette.length);
 
         // BlockData is stored as an NBT byte[], however, the actual data that is represented is a varint[]
+        // it's read straight into the packed entries, without a VarInt or a BlockState for every block
         byte[] rawBlockData = nbt.getByteArray("BlockData").orElseThrow();
-        int[] blockData = new int[this.x * this.y * this.z];
+        long volume = (long) this.x * this.y * this.z;
+        LongBuffer data = allocate(volume, bits);
         int offset = 0;
-        for (int i = 0; i < blockData.length; i++) {
-            if (offset >= rawBlockData.length) {
-                throw new IllegalArgumentException("No remaining bytes in BlockData for complete schematic");
-            }
-
-            VarInt varInt = VarInt.read(rawBlockData, offset);
-            blockData[i] = varInt.getValue();
-            offset += varInt.getSize();
-        }
-
-        for (int y = 0; y < this.y; y++) {
-            for (int z = 0; z < this.z; z++) {
-                for (int x = 0; x < this.x; x++) {
-                    int index = (y * this.z + z) * this.x + x;
-                    BlockState state = palette.get(blockData[index]);
-                    if (state == null) {
-                        throw new IllegalArgumentException("Invalid Palette Index " + index);
-                    }
-
-                    this.states[x][z][y] = state;
+        for (long index = 0; index < volume; index++) {
+            int value = 0;
+            int size = 0;
+            byte b;
+            do {
+                if (offset >= rawBlockData.length) {
+                    throw new IllegalArgumentException("No remaining bytes in BlockData for complete schematic");
                 }
+                b = rawBlockData[offset++];
+                value |= (b & 0x7F) << size++ * 7;
+                if (size > 5) {
+                    throw new IllegalArgumentException("VarInt size cannot exceed 5 bytes");
+                }
+                // Most significant bit denotes another byte is to be read.
+            } while ((b & 0x80) != 0);
+
+            if (value < 0 || value >= palette.length || palette[value] == null) {
+                throw new IllegalArgumentException("Invalid Palette Index " + index);
             }
+            set(data, index, bits, value);
         }
+        setData(palette, bits, data);
     }
 
     private static final class SerializedBlockState {
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BlockUtils;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.valueproviders.UniformInt;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
+import net.minecraft.world.level.dimension.DimensionType;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CachedRegionFileTest {
+
+    static final DimensionType OVERWORLD = new DimensionType(
+            OptionalLong.empty(), true, false, false, true, 1, true, false, -64, 384, 384,
+            BlockTags.INFINIBURN_OVERWORLD, BuiltinDimensionTypes.OVERWORLD_EFFECTS, 0, Optional.of(192),
+            new DimensionType.MonsterSettings(false, true, UniformInt.of(0, 7), 0)
+    );
+
+    private static final BlockState[] SURFACE = {
+            Blocks.STONE.defaultBlockState(),
+            Blocks.GRASS_BLOCK.defaultBlockState(),
+            Blocks.WATER.defaultBlockState(),
+            Blocks.SAND.defaultBlockState()
+    };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    static CachedChunk randomChunk(Random random, int x, int z, long cacheTimestamp) {
+        byte[] data = new byte[CachedChunk.sizeInBytes(CachedChunk.size(OVERWORLD.height()))];
+        random.nextBytes(data);
+        BlockState[] overview = new BlockState[256];
+        for (int i = 0; i < overview.length; i++) {
+            overview[i] = SURFACE[random.nextInt(SURFACE.length)];
+        }
+        Map<String, List<BlockPos>> special = new HashMap<>();
+        List<BlockPos> chests = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            chests.add(new BlockPos(random.nextInt(16), OVERWORLD.minY() + random.nextInt(OVERWORLD.height()), random.nextInt(16)));
+        }
+        if (!chests.isEmpty()) {
+            special.put(BlockUtils.blockToString(Blocks.CHEST), chests);
+        }
+        return new CachedChunk(x, z, OVERWORLD.height(), ByteBuffer.wrap(data), overview, special, cacheTimestamp);
+    }
+
+    static void assertSameChunk(CachedChunk expected, CachedChunk actual) {
+        assertNotNull(actual);
+        assertEquals(expected.x, actual.x);
+        assertEquals(expected.z, actual.z);
+        assertEquals(expected.cacheTimestamp, actual.cacheTimestamp);
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        assertArrayEquals(expected.getOverview(), actual.getOverview());
+        assertEquals(expected.getRelativeBlocks(), actual.getRelativeBlocks());
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Random random = new Random(5021);
+        CachedChunk[][] chunks = new CachedChunk[32][32];
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                if (random.nextInt(3) == 0) {
+                    chunks[x][z] = randomChunk(random, x + 32 * 3, z - 32 * 2, random.nextLong());
+                }
+            }
+        }
+        Path file = folder.getRoot().toPath().resolve("r.3.-2.bcr");
+        int written = CachedRegionFile.write(file, chunks, null, new boolean[32][32], OVERWORLD);
+        assertTrue(CachedRegionFile.isCurrentFormat(file));
+
+        CachedRegionFile read = CachedRegionFile.open(file, OVERWORLD, 3, -2);
+        int present = 0;
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                assertEquals(chunks[x][z] != null, read.isPresent(x, z));
+                if (chunks[x][z] == null) {
+                    assertNull(read.read(x, z));
+                } else {
+                    present++;
+                    assertEquals(chunks[x][z].cacheTimestamp, read.cacheTimestamp(x, z));
+                    assertSameChunk(chunks[x][z], read.read(x, z));
+                }
+            }
+        }
+        assertEquals(present, written);
+    }
+
+    @Test
+    public void copyFromPreviousGeneration() throws IOException {
+        Random random = new Random(5022);
+        CachedChunk[][] first = new CachedChunk[32][32];
+        first[0][0] = randomChunk(random, 0, 0, 1);
+        first[5][7] = randomChunk(random, 5, 7, 2);
+        first[31][31] = randomChunk(random, 31, 31, 3);
+        Path file0 = folder.getRoot().toPath().resolve("r.0.0.bcr");
+        CachedRegionFile.write(file0, first, null, new boolean[32][32], OVERWORLD);
+        CachedRegionFile previous = CachedRegionFile.open(file0, OVERWORLD, 0, 0);
+
+        // 0,0 was never read so it's copied as it's stored, 5,7 changed, and 31,31 was removed
+        CachedChunk[][] second = new CachedChunk[32][32];
+        second[5][7] = randomChunk(random, 5, 7, 4);
+        second[9][9] = randomChunk(random, 9, 9, 5);
+        boolean[][] copy = new boolean[32][32];
+        copy[0][0] = true;
+        Path file1 = folder.getRoot().toPath().resolve("r.0.0.1.bcr");
+        assertEquals(3, CachedRegionFile.write(file1, second, previous, copy, OVERWORLD));
+
+        CachedRegionFile read = CachedRegionFile.open(file1, OVERWORLD, 0, 0);
+        assertSameChunk(first[0][0], read.read(0, 0));
+        assertSameChunk(second[5][7], read.read(5, 7));
+        assertSameChunk(second[9][9], read.read(9, 9));
+        assertFalse(read.isPresent(31, 31));
+
+        // the previous generation is still intact and mapped
+        assertSameChunk(first[31][31], previous.read(31, 31));
+    }
+
+    @Test(expected = IOException.class)
+    public void wrongHeight() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("r.0.0.bcr");
+        CachedRegionFile.write(file, new CachedChunk[32][32], null, new boolean[32][32], OVERWORLD);
+        DimensionType nether = new DimensionType(
+                OptionalLong.of(18000), false, true, true, false, 8, false, true, 0, 256, 128,
+                BlockTags.INFINIBURN_NETHER, BuiltinDimensionTypes.NETHER_EFFECTS, 0.1F, Optional.empty(),
+                new DimensionType.MonsterSettings(true, false, UniformInt.of(7, 7), 15)
+        );
+        CachedRegionFile.open(file, nether, 0, 0);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static baritone.cache.CachedRegionFileTest.OVERWORLD;
+import static baritone.cache.CachedRegionFileTest.assertSameChunk;
+import static baritone.cache.CachedRegionFileTest.randomChunk;
+import static org.junit.Assert.*;
+
+public class CachedRegionJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void bootstrap() {
+        CachedRegionFileTest.bootstrap();
+    }
+
+    private static List<CachedRegionJournal.Change> replay(Path file) throws IOException {
+        List<CachedRegionJournal.Change> replayed = new ArrayList<>();
+        CachedRegionJournal.replay(file, OVERWORLD, 1, -1, (x, z, cacheTimestamp, chunk) -> replayed.add(new CachedRegionJournal.Change(x, z, cacheTimestamp, chunk)));
+        return replayed;
+    }
+
+    private static void assertSameChanges(List<CachedRegionJournal.Change> expected, List<CachedRegionJournal.Change> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).x, actual.get(i).x);
+            assertEquals(expected.get(i).z, actual.get(i).z);
+            assertEquals(expected.get(i).cacheTimestamp, actual.get(i).cacheTimestamp);
+            if (expected.get(i).chunk == null) {
+                assertNull(actual.get(i).chunk);
+            } else {
+                assertSameChunk(expected.get(i).chunk, actual.get(i).chunk);
+            }
+        }
+    }
+
+    private static CachedRegionJournal.Change change(Random random, int x, int z, long cacheTimestamp) {
+        return new CachedRegionJournal.Change(x, z, cacheTimestamp, randomChunk(random, x + 32, z - 32, cacheTimestamp));
+    }
+
+    @Test
+    public void appendAndReplay() throws IOException {
+        Random random = new Random(1801);
+        Path file = folder.getRoot().toPath().resolve("r.1.-1.bcj");
+        List<CachedRegionJournal.Change> first = Arrays.asList(
+                change(random, 0, 0, 10),
+                change(random, 4, 20, 11)
+        );
+        List<CachedRegionJournal.Change> second = Arrays.asList(
+                new CachedRegionJournal.Change(4, 20, 12, null),
+                change(random, 0, 0, 13),
+                change(random, 31, 31, 14)
+        );
+        CachedRegionJournal.append(file, first, OVERWORLD);
+        CachedRegionJournal.append(file, second, OVERWORLD);
+
+        List<CachedRegionJournal.Change> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertSameChanges(expected, replay(file));
+    }
+
+    @Test
+    public void truncatedLastRecord() throws IOException {
+        Random random = new Random(1802);
+        Path file = folder.getRoot().toPath().resolve("r.1.-1.bcj");
+        List<CachedRegionJournal.Change> kept = Arrays.asList(
+                change(random, 1, 2, 20),
+                new CachedRegionJournal.Change(3, 4, 21, null)
+        );
+        CachedRegionJournal.append(file, kept, OVERWORLD);
+        long intact = Files.size(file);
+        CachedRegionJournal.append(file, Arrays.asList(change(random, 5, 6, 22)), OVERWORLD);
+        // as if the game crashed halfway through writing the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 7);
+        }
+
+        assertSameChanges(kept, replay(file));
+        assertEquals(intact, Files.size(file));
+
+        // what's appended after the broken record was cut off can be read again
+        List<CachedRegionJournal.Change> next = Arrays.asList(change(random, 7, 8, 23));
+        CachedRegionJournal.append(file, next, OVERWORLD);
+        List<CachedRegionJournal.Change> expected = new ArrayList<>(kept);
+        expected.addAll(next);
+        assertSameChanges(expected, replay(file));
+    }
+
+    @Test
+    public void corruptedLastRecord() throws IOException {
+        Random random = new Random(1803);
+        Path file = folder.getRoot().toPath().resolve("r.1.-1.bcj");
+        List<CachedRegionJournal.Change> kept = Arrays.asList(change(random, 9, 9, 30));
+        CachedRegionJournal.append(file, kept, OVERWORLD);
+        long intact = Files.size(file);
+        CachedRegionJournal.append(file, Arrays.asList(change(random, 10, 10, 31)), OVERWORLD);
+        // flip a byte in the last record, so that its checksum doesn't match
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertSameChanges(kept, replay(file));
+        assertEquals(intact, Files.size(file));
+    }
+
+    @Test
+    public void unreadableHeader() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("r.1.-1.bcj");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5});
+        assertTrue(replay(file).isEmpty());
+        assertEquals(0, Files.size(file));
+    }
+}
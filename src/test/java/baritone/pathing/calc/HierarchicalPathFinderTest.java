@@ -0,0 +1,71 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static baritone.pathing.calc.TestWorld.GROUND;
+import static baritone.pathing.calc.TestWorld.START;
+import static org.junit.Assert.*;
+
+public class HierarchicalPathFinderTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        TestWorld.bootstrap();
+    }
+
+    @Test
+    public void segmentReportsRequestedGoal() {
+        CalculationContext context = new CalculationContext(TestWorld.create(0));
+        Goal goal = new GoalBlock(TestWorld.SIZE - 3, GROUND, TestWorld.SIZE - 3);
+        HierarchicalPathFinder search = new HierarchicalPathFinder(START, START.x, START.y, START.z, goal, context,
+                target -> new AStarPathFinder(START, START.x, START.y, START.z, target, new Favoring(null, context), context));
+
+        BetterBlockPos waypoint = new BetterBlockPos(TestWorld.SIZE / 2, GROUND, 4);
+        Optional<IPath> path = search.searchSegment(waypoint, System.currentTimeMillis(), 2000, 5000);
+        assertTrue(path.isPresent());
+        // the segment only went as far as the waypoint, but a process comparing goals mustn't see a different one
+        assertFalse(goal.isInGoal(path.get().getDest()));
+        assertSame(goal, path.get().getGoal());
+        assertSame(goal, path.get().postProcess().getGoal());
+        assertSame(goal, search.bestPathSoFar().get().getGoal());
+    }
+
+    @Test
+    public void directSearchKeepsItsPath() {
+        CalculationContext context = new CalculationContext(TestWorld.create(0));
+        Goal goal = new GoalBlock(TestWorld.SIZE - 3, GROUND, TestWorld.SIZE - 3);
+        HierarchicalPathFinder search = new HierarchicalPathFinder(START, START.x, START.y, START.z, goal, context,
+                target -> new AStarPathFinder(START, START.x, START.y, START.z, target, new Favoring(null, context), context));
+
+        IPath path = search.calculate(2000, 5000).getPath().get();
+        assertTrue(path instanceof Path);
+        assertSame(goal, path.getGoal());
+        assertTrue(goal.isInGoal(path.getDest()));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static baritone.pathing.calc.TestWorld.GROUND;
+import static baritone.pathing.calc.TestWorld.START;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodeStoreAStarPathFinderTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        TestWorld.bootstrap();
+    }
+
+    private static IPath search(AbstractNodeCostSearch search) {
+        PathCalculationResult result = search.calculate(10000, 20000);
+        assertEquals(PathCalculationResult.Type.SUCCESS_TO_GOAL, result.getType());
+        return result.getPath().get();
+    }
+
+    @Test
+    public void samePathAsNodeMap() {
+        CalculationContext context = new CalculationContext(TestWorld.create(1));
+        Goal goal = new GoalBlock(TestWorld.SIZE - 3, GROUND, TestWorld.SIZE - 3);
+        IPath expected = search(new AStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context));
+        IPath actual = search(new NodeStoreAStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context));
+        assertEquals(expected.positions(), actual.positions());
+    }
+
+    @Test
+    public void reusesSearchGraph() {
+        CalculationContext context = new CalculationContext(TestWorld.create(2));
+        Goal goal = new GoalBlock(TestWorld.SIZE - 3, GROUND, TestWorld.SIZE - 3);
+        SearchGraph graph = new SearchGraph(context, 100000);
+        IPath first = search(new NodeStoreAStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context, graph));
+        int kept = graph.size();
+        assertTrue(kept > 0);
+        IPath second = search(new NodeStoreAStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context, graph));
+        assertEquals(first.positions(), second.positions());
+        // nothing changed, so the second search found everything it needed in the graph
+        assertEquals(kept, graph.size());
+    }
+}
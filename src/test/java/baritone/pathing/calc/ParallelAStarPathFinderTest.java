@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.PathCalculationResult;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.pathing.Favoring;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static baritone.pathing.calc.TestWorld.GROUND;
+import static baritone.pathing.calc.TestWorld.START;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelAStarPathFinderTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        TestWorld.bootstrap();
+    }
+
+    private static IPath search(AbstractNodeCostSearch search) {
+        PathCalculationResult result = search.calculate(10000, 20000);
+        assertEquals(PathCalculationResult.Type.SUCCESS_TO_GOAL, result.getType());
+        return result.getPath().get();
+    }
+
+    @Test
+    public void sameCostAsSingleThreaded() {
+        for (long seed = 0; seed < 4; seed++) {
+            CalculationContext context = new CalculationContext(TestWorld.create(seed));
+            Goal goal = new GoalBlock(TestWorld.SIZE - 3, GROUND, TestWorld.SIZE - 3);
+            IPath expected = search(new AStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context));
+            for (int threads : new int[]{2, 3, 4}) {
+                IPath actual = search(new ParallelAStarPathFinder(START, START.x, START.y, START.z, goal, new Favoring(null, context), context, threads));
+                assertEquals(goal, actual.getGoal());
+                assertEquals(expected.getDest(), actual.getDest());
+                // ties can go either way, but a different route that costs as much is just as good
+                assertEquals("seed " + seed + ", " + threads + " threads", expected.ticksRemainingFrom(0), actual.ticksRemainingFrom(0), 0.1);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.InMemoryBlockSource;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Random;
+
+/**
+ * A small flat world for running searches without a game. Solid ground up to {@link #GROUND}, with a few unbreakable
+ * walls that have gaps in them so that the cheapest path has to go around.
+ */
+final class TestWorld {
+
+    static final int SIZE = 48;
+    static final int GROUND = 64;
+
+    static final BetterBlockPos START = new BetterBlockPos(2, GROUND, 2);
+
+    private TestWorld() {}
+
+    static void bootstrap() {
+        // the settings and the block source have blocks in them
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    static InMemoryBlockSource create(long seed) {
+        BlockState stone = Blocks.STONE.defaultBlockState();
+        BlockState bedrock = Blocks.BEDROCK.defaultBlockState();
+        InMemoryBlockSource world = new InMemoryBlockSource(0, 0, SIZE, SIZE, 0, 128);
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                world.fill(x, 0, z, GROUND, stone);
+            }
+        }
+        Random random = new Random(seed);
+        for (int wall = 8; wall < SIZE - 4; wall += 10) {
+            int gap = 2 + random.nextInt(SIZE - 6);
+            for (int i = 0; i < SIZE; i++) {
+                if (Math.abs(i - gap) > 1) {
+                    if (wall % 20 == 8) {
+                        world.fill(wall, GROUND, i, GROUND + 3, bedrock);
+                    } else {
+                        world.fill(i, GROUND, wall, GROUND + 3, bedrock);
+                    }
+                }
+            }
+        }
+        return world;
+    }
+}
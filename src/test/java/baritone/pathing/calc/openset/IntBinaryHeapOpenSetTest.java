@@ -0,0 +1,82 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.PathNodeStore;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntBinaryHeapOpenSetTest {
+
+    // can't use an existing goal
+    // because they use Baritone.settings()
+    // and we can't do that because Minecraft itself isn't initted
+    private static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return 0;
+        }
+    };
+
+    @Test
+    public void testRemovalOrder() {
+        Random random = new Random(4129);
+        for (int size : new int[]{1, 2, 3, 17, 1000, 5000}) {
+            // a small initial capacity so that both the store and the heap have to grow
+            PathNodeStore store = new PathNodeStore(GOAL, 16, 0.75f);
+            IntBinaryHeapOpenSet set = new IntBinaryHeapOpenSet(store, 16);
+            assertTrue(set.isEmpty());
+            int[] ids = new int[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = store.getOrCreate(i, 0, 0, BetterBlockPos.longHash(i, 0, 0));
+                assertEquals(i, store.getOrCreate(i, 0, 0, BetterBlockPos.longHash(i, 0, 0)));
+                store.setCombinedCost(ids[i], random.nextDouble());
+                set.insert(ids[i]);
+                assertTrue(store.isOpen(ids[i]));
+            }
+            // decrease-key half of them
+            for (int i = 0; i < size; i += 2) {
+                store.setCombinedCost(ids[i], store.combinedCost(ids[i]) * random.nextDouble());
+                set.update(ids[i]);
+            }
+            double[] expected = new double[size];
+            for (int i = 0; i < size; i++) {
+                expected[i] = store.combinedCost(ids[i]);
+            }
+            Arrays.sort(expected);
+            assertEquals(size, set.size());
+            for (int i = 0; i < size; i++) {
+                int id = set.removeLowest();
+                assertFalse(store.isOpen(id));
+                assertEquals(expected[i], store.combinedCost(id), 0);
+            }
+            assertTrue(set.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.goals;
+
+import baritone.api.BaritoneAPI;
+import baritone.api.Settings;
+import baritone.api.pathing.goals.*;
+import baritone.api.utils.interfaces.IGoalRenderPos;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GoalIndexedCompositeTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        // the settings have blocks and items in them
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    private static Goal randomGoal(Random random, int spread) {
+        BlockPos pos = new BlockPos(random.nextInt(spread * 2) - spread, random.nextInt(384) - 64, random.nextInt(spread * 2) - spread);
+        switch (random.nextInt(20)) {
+            case 0:
+                return new GoalXZ(pos.getX(), pos.getZ());
+            case 1:
+                return new GoalYLevel(pos.getY());
+            case 2:
+            case 3:
+                // some of these reach too far to be indexed
+                return new GoalNear(pos, random.nextInt(24));
+            case 4:
+            case 5:
+            case 6:
+                return new GoalTwoBlocks(pos);
+            case 7:
+            case 8:
+            case 9:
+                return new GoalGetToBlock(pos);
+            default:
+                return new GoalBlock(pos);
+        }
+    }
+
+    private static void assertSameAsComposite(Random random, int numGoals, int spread, boolean withUnbounded) {
+        Goal[] goals = new Goal[numGoals];
+        for (int i = 0; i < goals.length; i++) {
+            Goal goal;
+            do {
+                goal = randomGoal(random, spread);
+            } while (!withUnbounded && (goal instanceof GoalXZ || goal instanceof GoalYLevel));
+            goals[i] = goal;
+        }
+        GoalComposite plain = new GoalComposite(goals);
+        GoalIndexedComposite indexed = new GoalIndexedComposite(goals);
+        for (int i = 0; i < 2000; i++) {
+            int x;
+            int y;
+            int z;
+            if (i % 2 == 0) {
+                // right around a goal, so that isInGoal is true some of the time
+                Goal goal = goals[random.nextInt(goals.length)];
+                BlockPos near = goal instanceof IGoalRenderPos ? ((IGoalRenderPos) goal).getGoalPos() : BlockPos.ZERO;
+                x = near.getX() + random.nextInt(5) - 2;
+                y = near.getY() + random.nextInt(5) - 2;
+                z = near.getZ() + random.nextInt(5) - 2;
+            } else {
+                x = random.nextInt(spread * 4) - spread * 2;
+                y = random.nextInt(384) - 64;
+                z = random.nextInt(spread * 4) - spread * 2;
+            }
+            String repr = numGoals + " goals at " + x + "," + y + "," + z;
+            assertEquals(repr, plain.isInGoal(x, y, z), indexed.isInGoal(x, y, z));
+            assertEquals(repr, plain.heuristic(x, y, z), indexed.heuristic(x, y, z), 0);
+        }
+    }
+
+    @Test
+    public void sameAsComposite() {
+        Random random = new Random(1301);
+        for (int trial = 0; trial < 20; trial++) {
+            assertSameAsComposite(random, 1 + random.nextInt(50), 8 + random.nextInt(64), false);
+            assertSameAsComposite(random, 1 + random.nextInt(1000), 16 + random.nextInt(2000), false);
+            assertSameAsComposite(random, 1 + random.nextInt(1000), 16 + random.nextInt(2000), true);
+        }
+    }
+
+    @Test
+    public void sameAsCompositeWithoutCostHeuristic() {
+        Settings.Setting<Double> costHeuristic = BaritoneAPI.getSettings().costHeuristic;
+        double value = costHeuristic.value;
+        try {
+            costHeuristic.value = 0D;
+            Random random = new Random(1302);
+            for (int trial = 0; trial < 5; trial++) {
+                assertSameAsComposite(random, 1 + random.nextInt(1000), 16 + random.nextInt(500), true);
+            }
+        } finally {
+            costHeuristic.value = value;
+        }
+    }
+
+    @Test
+    public void empty() {
+        GoalIndexedComposite indexed = new GoalIndexedComposite();
+        GoalComposite plain = new GoalComposite();
+        assertEquals(plain.isInGoal(0, 0, 0), indexed.isInGoal(0, 0, 0));
+        assertEquals(plain.heuristic(0, 0, 0), indexed.heuristic(0, 0, 0), 0);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.schematic.AbstractSchematic;
+import baritone.api.schematic.CompositeSchematic;
+import baritone.api.schematic.ISchematic;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompositeSchematicTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * A box that wants its own state everywhere, except for some holes so that whatever is under it shows through
+     */
+    private static final class Box extends AbstractSchematic {
+
+        private final BlockState state;
+        private final int holes;
+
+        private Box(int x, int y, int z, BlockState state, int holes) {
+            super(x, y, z);
+            this.state = state;
+            this.holes = holes;
+        }
+
+        @Override
+        public boolean inSchematic(int x, int y, int z, BlockState currentState) {
+            return super.inSchematic(x, y, z, currentState) && ((x * 31 + y) * 31 + z + holes) % 4 != 0;
+        }
+
+        @Override
+        public BlockState desiredState(int x, int y, int z, BlockState current, List<BlockState> approxPlaceable) {
+            return state;
+        }
+    }
+
+    private static final class Placed {
+
+        private final ISchematic schematic;
+        private final int x;
+        private final int y;
+        private final int z;
+
+        private Placed(ISchematic schematic, int x, int y, int z) {
+            this.schematic = schematic;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * How CompositeSchematic looked entries up before it had an index: the first one put in that has the position wins
+     */
+    private static Placed linearScan(List<Placed> placed, int x, int y, int z) {
+        for (Placed entry : placed) {
+            if (x >= entry.x && y >= entry.y && z >= entry.z &&
+                    entry.schematic.inSchematic(x - entry.x, y - entry.y, z - entry.z, null)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void assertSameAsLinearScan(Random random, int entries, int spread, int far) {
+        CompositeSchematic composite = new CompositeSchematic(0, 0, 0);
+        List<Placed> placed = new ArrayList<>();
+        int minX = 0;
+        int minY = 0;
+        int minZ = 0;
+        for (int i = 0; i < entries; i++) {
+            // some are empty, which the index leaves out entirely
+            Box box = new Box(random.nextInt(20), random.nextInt(20), random.nextInt(20), Block.stateById(i + 1), random.nextInt(4));
+            int x = random.nextInt(spread * 2) - spread;
+            int y = random.nextInt(spread * 2) - spread;
+            int z = random.nextInt(spread * 2) - spread;
+            if (i == 0 && far > 0) {
+                x = y = z = far;
+            }
+            composite.put(box, x, y, z);
+            placed.add(new Placed(box, x, y, z));
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+        }
+        for (int i = 0; i < 5000; i++) {
+            int x = minX - 4 + random.nextInt(composite.widthX() - minX + 8);
+            int y = minY - 4 + random.nextInt(composite.heightY() - minY + 8);
+            int z = minZ - 4 + random.nextInt(composite.lengthZ() - minZ + 8);
+            if (i % 2 == 0 && !placed.isEmpty()) {
+                // most random positions miss everything when the entries are spread out
+                Placed entry = placed.get(random.nextInt(placed.size()));
+                x = entry.x + random.nextInt(20);
+                y = entry.y + random.nextInt(20);
+                z = entry.z + random.nextInt(20);
+            }
+            Placed expected = linearScan(placed, x, y, z);
+            String where = x + " " + y + " " + z;
+            assertEquals(where, expected != null, composite.inSchematic(x, y, z, null));
+            if (expected != null) {
+                BlockState state = composite.desiredState(x, y, z, null, Collections.emptyList());
+                assertEquals(where, expected.schematic.desiredState(x - expected.x, y - expected.y, z - expected.z, null, Collections.emptyList()), state);
+            }
+        }
+    }
+
+    @Test
+    public void sameAsLinearScan() {
+        Random random = new Random(2024);
+        for (int i = 0; i < 50; i++) {
+            assertSameAsLinearScan(random, 1 + random.nextInt(12), 1 + random.nextInt(40), 0);
+        }
+    }
+
+    @Test
+    public void sameAsLinearScanWhenOverlapping() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            // lots of entries on top of each other, so the first one that has a position has to win
+            assertSameAsLinearScan(random, 20 + random.nextInt(20), 4, 0);
+        }
+    }
+
+    @Test
+    public void sameAsLinearScanWithBigCells() {
+        Random random = new Random(99);
+        for (int i = 0; i < 5; i++) {
+            // one entry far out makes the schematic too big for the smallest cells
+            assertSameAsLinearScan(random, 10, 30, 2000 + random.nextInt(2000));
+        }
+    }
+}
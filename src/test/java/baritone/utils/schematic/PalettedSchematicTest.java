@@ -0,0 +1,131 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PalettedSchematicTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * Packs the entries one bit at a time, lowest bit first and carrying over into the next long, the way Litematica
+     * does, so that {@link PalettedSchematic#set} is checked against something that doesn't share its arithmetic
+     */
+    private static long[] pack(int[] values, int bits) {
+        long[] words = new long[PalettedSchematic.words(values.length, bits)];
+        for (int i = 0; i < values.length; i++) {
+            for (int b = 0; b < bits; b++) {
+                if ((values[i] >>> b & 1) != 0) {
+                    long bit = (long) i * bits + b;
+                    words[(int) (bit >> 6)] |= 1L << (bit & 63);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static void assertRoundTrip(Random random, int bits, int paletteSize) {
+        int widthX = 1 + random.nextInt(9);
+        int heightY = 1 + random.nextInt(9);
+        int lengthZ = 1 + random.nextInt(9);
+        int[] values = new int[widthX * heightY * lengthZ];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(paletteSize);
+        }
+        BlockState[] palette = new BlockState[paletteSize];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = Block.stateById(i);
+        }
+
+        long[] expected = pack(values, bits);
+        LongBuffer data = LongBuffer.wrap(new long[expected.length]);
+        for (int i = 0; i < values.length; i++) {
+            PalettedSchematic.set(data, i, bits, values[i]);
+        }
+        assertArrayEquals(bits + " bits", expected, data.array());
+
+        PalettedSchematic schematic = new PalettedSchematic(widthX, heightY, lengthZ, palette, bits, LongBuffer.wrap(expected));
+        for (int y = 0; y < heightY; y++) {
+            for (int z = 0; z < lengthZ; z++) {
+                for (int x = 0; x < widthX; x++) {
+                    int index = (y * lengthZ + z) * widthX + x;
+                    assertSame(bits + " bits, entry " + index, palette[values[index]], schematic.getDirect(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void entriesSpanningTwoLongs() {
+        Random random = new Random(2201);
+        for (int bits = 1; bits <= 14; bits++) {
+            for (int trial = 0; trial < 10; trial++) {
+                assertRoundTrip(random, bits, 1 + random.nextInt(1 << bits));
+            }
+        }
+        // wider than the palette needs, so that more entries span two longs
+        for (int bits = 15; bits <= 20; bits++) {
+            assertRoundTrip(random, bits, 1 + random.nextInt(1000));
+        }
+    }
+
+    @Test
+    public void entryAcrossTheBoundary() {
+        // with 5 bits, entry 12 starts at bit 60 and its top bit is the lowest bit of the second long
+        int bits = 5;
+        long[] words = new long[PalettedSchematic.words(13, bits)];
+        LongBuffer data = LongBuffer.wrap(words);
+        PalettedSchematic.set(data, 12, bits, 0b10110);
+        assertEquals(0b0110L << 60, words[0]);
+        assertEquals(1L, words[1]);
+
+        BlockState[] palette = new BlockState[32];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = Block.stateById(i);
+        }
+        PalettedSchematic schematic = new PalettedSchematic(13, 1, 1, palette, bits, data);
+        assertSame(palette[0b10110], schematic.getDirect(12, 0, 0));
+        assertSame(palette[0], schematic.getDirect(11, 0, 0));
+    }
+
+    @Test
+    public void bitsFor() {
+        assertEquals(1, PalettedSchematic.bitsFor(1));
+        assertEquals(1, PalettedSchematic.bitsFor(2));
+        assertEquals(2, PalettedSchematic.bitsFor(3));
+        assertEquals(2, PalettedSchematic.bitsFor(4));
+        assertEquals(3, PalettedSchematic.bitsFor(5));
+        assertEquals(10, PalettedSchematic.bitsFor(1024));
+        assertEquals(11, PalettedSchematic.bitsFor(1025));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.schematic;
+
+import baritone.api.utils.BetterBlockPos;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import org.junit.Test;
+
+import java.util.*;
+
+import static baritone.utils.schematic.SchematicProgress.*;
+import static org.junit.Assert.*;
+
+public class SchematicProgressTest {
+
+    /**
+     * Says what the test put in it about each block, and remembers everything it was asked about
+     */
+    private static final class World implements SchematicProgress.Checker {
+
+        final Map<BlockPos, Integer> states = new HashMap<>();
+        final List<BlockPos> checked = new ArrayList<>();
+
+        @Override
+        public int check(int x, int y, int z) {
+            BlockPos pos = new BlockPos(x, y, z);
+            checked.add(pos);
+            return states.getOrDefault(pos, CORRECT);
+        }
+    }
+
+    private static Set<BlockPos> collectAll(SchematicProgress progress, World world) {
+        List<BetterBlockPos> out = new ArrayList<>();
+        assertTrue(progress.collect(world, out, Integer.MAX_VALUE));
+        Set<BlockPos> found = new HashSet<>();
+        for (BetterBlockPos pos : out) {
+            assertTrue("found " + pos + " twice", found.add(new BlockPos(pos)));
+        }
+        return found;
+    }
+
+    @Test
+    public void setKeepsTrackOfWhatsLeft() {
+        // straddles section borders on every axis, and negative coordinates
+        SchematicProgress progress = new SchematicProgress(new Vec3i(-20, 60, -5), 40, 20, 30, 0);
+        World world = new World();
+        assertTrue(collectAll(progress, world).isEmpty());
+
+        BlockPos a = new BlockPos(-20, 60, -5);
+        BlockPos b = new BlockPos(19, 79, 24);
+        BlockPos c = new BlockPos(0, 64, 0);
+        progress.set(a.getX(), a.getY(), a.getZ(), INCORRECT);
+        progress.set(b.getX(), b.getY(), b.getZ(), UNKNOWN);
+        progress.set(c.getX(), c.getY(), c.getZ(), INCORRECT);
+        // switching between incorrect and unknown, or setting the same thing again, is still one block left
+        progress.set(a.getX(), a.getY(), a.getZ(), UNKNOWN);
+        progress.set(a.getX(), a.getY(), a.getZ(), UNKNOWN);
+        progress.set(c.getX(), c.getY(), c.getZ(), CORRECT);
+        progress.set(c.getX(), c.getY(), c.getZ(), CORRECT);
+        // outside of the schematic
+        progress.set(-21, 60, -5, INCORRECT);
+        progress.set(0, 80, 0, INCORRECT);
+        assertEquals(new HashSet<>(Arrays.asList(a, b)), collectAll(progress, world));
+        // everything was scanned already, only what was set counts
+        assertEquals(40 * 20 * 30, world.checked.size());
+
+        progress.set(a.getX(), a.getY(), a.getZ(), CORRECT);
+        progress.set(b.getX(), b.getY(), b.getZ(), CORRECT);
+        assertTrue(collectAll(progress, world).isEmpty());
+    }
+
+    @Test
+    public void collectStopsAtLimit() {
+        SchematicProgress progress = new SchematicProgress(new Vec3i(0, 0, 0), 48, 1, 1, 0);
+        World world = new World();
+        for (int x = 0; x < 48; x++) {
+            world.states.put(new BlockPos(x, 0, 0), x % 2 == 0 ? INCORRECT : UNKNOWN);
+        }
+        List<BetterBlockPos> out = new ArrayList<>();
+        assertFalse(progress.collect(world, out, 5));
+        assertEquals(6, out.size());
+        for (int i = 0; i < out.size(); i++) {
+            assertEquals(new BetterBlockPos(i, 0, 0), out.get(i));
+        }
+        // the sections after the one it stopped in weren't looked at
+        assertEquals(16, world.checked.size());
+        for (BlockPos pos : world.checked) {
+            assertTrue(pos.getX() < 16);
+        }
+
+        out.clear();
+        assertTrue(progress.collect(world, out, 48));
+        assertEquals(48, out.size());
+        assertEquals(48, world.checked.size());
+    }
+
+    @Test
+    public void markChunkDirtyRescans() {
+        SchematicProgress progress = new SchematicProgress(new Vec3i(-8, 0, 0), 32, 40, 8, 0);
+        World world = new World();
+        BlockPos unknown = new BlockPos(-3, 30, 2);
+        world.states.put(unknown, UNKNOWN);
+        assertEquals(Collections.singleton(unknown), collectAll(progress, world));
+
+        // the chunk was loaded and turned out to be correct there, but something else in it is wrong
+        BlockPos incorrect = new BlockPos(-8, 0, 7);
+        world.states.put(unknown, CORRECT);
+        world.states.put(incorrect, INCORRECT);
+        world.checked.clear();
+        assertEquals(Collections.singleton(unknown), collectAll(progress, world));
+        assertTrue(world.checked.isEmpty());
+
+        // another chunk, and chunks outside of the schematic, don't change anything
+        progress.markChunkDirty(0, 0);
+        progress.markChunkDirty(-2, 0);
+        progress.markChunkDirty(-1, 1);
+        assertEquals(Collections.singleton(unknown), collectAll(progress, world));
+        for (BlockPos pos : world.checked) {
+            assertTrue(pos.getX() >= 0);
+        }
+
+        world.checked.clear();
+        progress.markChunkDirty(-1, 0);
+        assertEquals(Collections.singleton(incorrect), collectAll(progress, world));
+        // every section of that chunk, and only those
+        assertEquals(8 * 40 * 8, world.checked.size());
+        for (BlockPos pos : world.checked) {
+            assertTrue(pos.getX() < 0);
+        }
+    }
+
+    @Test
+    public void updateChecksDirtyBlocks() {
+        SchematicProgress progress = new SchematicProgress(new Vec3i(0, 0, 0), 16, 16, 16, 0);
+        World world = new World();
+        BlockPos broken = new BlockPos(5, 6, 7);
+        BlockPos placed = new BlockPos(1, 2, 3);
+        world.states.put(placed, INCORRECT);
+        assertEquals(Collections.singleton(placed), collectAll(progress, world));
+
+        world.states.put(broken, INCORRECT);
+        world.states.put(placed, CORRECT);
+        world.checked.clear();
+        progress.markDirty(broken);
+        progress.markDirty(placed);
+        progress.markDirty(new BlockPos(16, 0, 0));
+        progress.update(world);
+        assertEquals(new HashSet<>(Arrays.asList(broken, placed)), new HashSet<>(world.checked));
+        assertEquals(2, world.checked.size());
+        assertEquals(Collections.singleton(broken), collectAll(progress, world));
+
+        // they were only dirty until that update
+        world.checked.clear();
+        progress.update(world);
+        assertTrue(world.checked.isEmpty());
+    }
+}